@@ -1,11 +1,18 @@
+import domain.compiti.Compito;
 import java.io.IOException;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.stage.Stage;
 import service.*;
+import service.persistence.JsonJournal;
+import service.persistence.JsonLoader;
+import service.persistence.JsonRepository;
+import service.persistence.Repository;
+import service.persistence.SqlRepository;
 import ui.controllers.CompitiCucinaController;
 import ui.controllers.MenuController;
 
@@ -15,6 +22,18 @@ import ui.controllers.MenuController;
  */
 public class Main extends Application {
     
+    // Intervallo del salvataggio differito dei compiti (0 per salvare subito ad ogni modifica)
+    private static final long INTERVALLO_SALVATAGGIO_MS = Long.getLong("catring.salvataggio.intervalloMs", 1000L);
+    
+    // Se attivo, i compiti vengono salvati come journal di modifiche con compattazione periodica
+    private static final boolean USA_JOURNAL_COMPITI = Boolean.getBoolean("catring.compiti.journal");
+    
+    // Archivio indicizzato dei compiti: "sql" (database H2 su file), "json" o vuoto per il file JSON semplice
+    private static final String ARCHIVIO_COMPITI = System.getProperty("catring.compiti.archivio", "");
+    
+    private static final String PERCORSO_COMPITI = "src/main/resources/data/compiti.json";
+    private static final String URL_DATABASE = "jdbc:h2:./src/main/resources/data/catring";
+    
     private MenuService menuService;
     private CompitoCucinaService compitoCucinaService;
     private EventoService eventoService;
@@ -63,17 +82,86 @@ public class Main extends Application {
     
     /**
      * Inizializza tutti i servizi dell'applicazione e risolve i riferimenti tra entità.
+     * I servizi non dipendono l'uno dall'altro durante il caricamento e vengono creati in parallelo;
+     * solo la risoluzione dei riferimenti nei compiti attende i servizi da cui legge.
      */
     private void inizializzaServizi() {
-        menuService = new MenuService();
-        eventoService = new EventoService();
-        ricettaService = new RicettaService();
-        utenteService = new UtenteService();
-        feedbackService = new FeedbackService();
-        compitoCucinaService = new CompitoCucinaService(utenteService);
+        AvvioServizi avvio = new AvvioServizi();
+        AvvioServizi.Componente<MenuService> menu = avvio.registra("menu", MenuService::new);
+        AvvioServizi.Componente<EventoService> eventi = avvio.registra("eventi", EventoService::new);
+        AvvioServizi.Componente<RicettaService> ricette = avvio.registra("ricette", RicettaService::new);
+        AvvioServizi.Componente<UtenteService> utenti = avvio.registra("utenti", UtenteService::new);
+        AvvioServizi.Componente<FeedbackService> feedback = avvio.registra("feedback", FeedbackService::new);
+        AvvioServizi.Componente<CompitoCucinaService> compiti = avvio.registra("compiti", this::creaCompitoCucinaService);
+        
+        // Risolvi i riferimenti nei compiti dopo l'inizializzazione dei servizi coinvolti
+        avvio.registra("riferimenti compiti", () -> {
+            RegistroEntita registroEntita = new RegistroEntita(
+                ricette.get(), utenti.get(), eventi.get(), compiti.get(), menu.get());
+            compiti.get().setUtenteService(utenti.get());
+            compiti.get().risolviRiferimentiCompiti(registroEntita);
+            menu.get().risolviRiferimentiMenu(registroEntita);
+            menu.get().aggiornaRicetteInUso(ricette.get().getRicette());
+            eventi.get().risolviMenu(registroEntita);
+            return registroEntita;
+        }, compiti, ricette, eventi, utenti, menu);
+        
+        avvio.avvia();
+        menuService = menu.get();
+        eventoService = eventi.get();
+        ricettaService = ricette.get();
+        utenteService = utenti.get();
+        feedbackService = feedback.get();
+        compitoCucinaService = compiti.get();
+    }
+    
+    /**
+     * Crea il servizio dei compiti con la persistenza configurata.
+     * Il servizio utenti viene collegato in seguito, alla risoluzione dei riferimenti.
+     */
+    private CompitoCucinaService creaCompitoCucinaService() {
+        CompitoCucinaService servizio;
+        if (USA_JOURNAL_COMPITI) {
+            servizio = new CompitoCucinaService(null, new JsonJournal<>(
+                PERCORSO_COMPITI, "src/main/resources/data/compiti.journal",
+                Compito.class, Compito::getId));
+        } else if (!ARCHIVIO_COMPITI.isEmpty()) {
+            servizio = new CompitoCucinaService(null, creaArchivioCompiti());
+        } else {
+            servizio = new CompitoCucinaService();
+        }
+        if (INTERVALLO_SALVATAGGIO_MS > 0) {
+            servizio.abilitaSalvataggioDifferito(INTERVALLO_SALVATAGGIO_MS, Platform::runLater);
+        }
+        return servizio;
+    }
+    
+    /**
+     * Crea l'archivio indicizzato dei compiti. Al primo avvio con il database
+     * i compiti vengono importati dal file JSON.
+     */
+    private Repository<Compito, Integer> creaArchivioCompiti() {
+        if (!"sql".equalsIgnoreCase(ARCHIVIO_COMPITI)) {
+            return new JsonRepository<>(PERCORSO_COMPITI, Compito.class, Compito::getId,
+                CompitoCucinaService.indiciCompiti());
+        }
         
-        // Risolvi i riferimenti nei compiti dopo l'inizializzazione di tutti i servizi
-        compitoCucinaService.risolviRiferimentiCompiti(ricettaService, eventoService, utenteService);
+        Repository<Compito, Integer> archivio = new SqlRepository<>(URL_DATABASE, "compiti", Compito.class,
+            Compito::getId, CompitoCucinaService.indiciCompiti());
+        if (archivio.count() == 0) {
+            archivio.saveAll(JsonLoader.loadFromFile(PERCORSO_COMPITI, Compito.class));
+        }
+        return archivio;
+    }
+    
+    /**
+     * Alla chiusura dell'applicazione salva le modifiche ancora in attesa di scrittura.
+     */
+    @Override
+    public void stop() {
+        if (compitoCucinaService != null) {
+            compitoCucinaService.chiudi();
+        }
     }
     
     public static void main(String[] args) {
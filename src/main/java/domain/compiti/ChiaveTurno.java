@@ -0,0 +1,98 @@
+package domain.compiti;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Rappresenta la chiave compatta di una fascia di turno (data, ora di inizio e ora di fine),
+ * codificata in un solo long. Sostituisce il confronto tra stringhe "data inizio-fine" negli indici
+ * dei compiti: due chiavi sono uguali esattamente quando lo sarebbero le rispettive stringhe.
+ * La rappresentazione testuale resta disponibile con {@link #toString()} per visualizzazione e compatibilità.
+ */
+public final class ChiaveTurno {
+    private static final int BIT_ORARIO = 17; // 86400 secondi in un giorno < 2^17
+    private static final long MASCHERA_ORARIO = (1L << BIT_ORARIO) - 1;
+
+    private final long valore;
+
+    private ChiaveTurno(long valore) {
+        this.valore = valore;
+    }
+
+    /**
+     * Crea la chiave di una fascia oraria in una data.
+     */
+    public static ChiaveTurno di(LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        long valore = (data.toEpochDay() << (2 * BIT_ORARIO))
+                | ((long) oraInizio.toSecondOfDay() << BIT_ORARIO)
+                | oraFine.toSecondOfDay();
+        return new ChiaveTurno(valore);
+    }
+
+    /**
+     * Crea la chiave di un turno, o null se il turno non ha data e orari.
+     */
+    public static ChiaveTurno di(Turno turno) {
+        if (turno == null || turno.getData() == null || turno.getOraInizio() == null || turno.getOraFine() == null) {
+            return null;
+        }
+        return di(turno.getData(), turno.getOraInizio(), turno.getOraFine());
+    }
+
+    /**
+     * Interpreta la rappresentazione testuale di un turno (es. "2025-06-15 08:00-14:00"),
+     * usata dai compiti salvati prima del collegamento tramite turnoId.
+     *
+     * @return la chiave corrispondente, o null se il testo non è nel formato atteso
+     */
+    public static ChiaveTurno daTesto(String testo) {
+        if (testo == null) {
+            return null;
+        }
+        int spazio = testo.indexOf(' ');
+        int trattino = testo.indexOf('-', spazio + 1);
+        if (spazio < 0 || trattino < 0) {
+            return null;
+        }
+        try {
+            return di(LocalDate.parse(testo.substring(0, spazio)),
+                    LocalTime.parse(testo.substring(spazio + 1, trattino)),
+                    LocalTime.parse(testo.substring(trattino + 1)));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public LocalDate getData() {
+        return LocalDate.ofEpochDay(valore >> (2 * BIT_ORARIO));
+    }
+
+    public LocalTime getOraInizio() {
+        return LocalTime.ofSecondOfDay((valore >> BIT_ORARIO) & MASCHERA_ORARIO);
+    }
+
+    public LocalTime getOraFine() {
+        return LocalTime.ofSecondOfDay(valore & MASCHERA_ORARIO);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return valore == ((ChiaveTurno) o).valore;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(valore);
+    }
+
+    /**
+     * Restituisce la rappresentazione testuale del turno, nello stesso formato salvato nei compiti.
+     */
+    @Override
+    public String toString() {
+        return getData() + " " + getOraInizio() + "-" + getOraFine();
+    }
+}
@@ -5,6 +5,9 @@ import domain.utenti.Cuoco;
 import domain.eventi.Evento;
 import javafx.beans.property.SimpleStringProperty;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Rappresenta un compito di cucina nel sistema di catering.
@@ -29,11 +32,14 @@ public class Compito {
     @JsonIgnore
     private Evento evento;
     
-    private String turno; // Stringa rappresentazione del turno (compatibilità)
+    private String turno; // Stringa rappresentazione del turno (visualizzazione e compatibilità)
+    @JsonIgnore
+    private ChiaveTurno chiaveTurno; // Chiave del turno usata per i confronti, ricavata dal turno
     private int durata; // durata in minuti
     private double quantita;
     private String stato = "Da iniziare";
     private int importanza = 1; // 1-5, dove 5 è la massima importanza
+    private List<Integer> prerequisiti = new ArrayList<>(); // ID dei compiti da completare prima di questo
     
     /**
      * Costruttore predefinito per la deserializzazione JSON.
@@ -60,6 +66,12 @@ public class Compito {
         this.eventoId = evento != null ? evento.getId() : null;
     }
     
+    // Costruttore con turno ed evento: il compito è collegato al turno tramite turnoId
+    public Compito(int id, Ricetta ricetta, Cuoco cuocoAssegnato, Turno turno, int durata, double quantita, Evento evento) {
+        this(id, ricetta, cuocoAssegnato, (String) null, durata, quantita, evento);
+        risolviTurno(turno);
+    }
+    
     // Metodi per risoluzione riferimenti
     public void risolviRicetta(Ricetta ricetta) {
         this.ricetta = ricetta;
@@ -76,6 +88,27 @@ public class Compito {
         this.eventoId = evento != null ? evento.getId() : null;
     }
     
+    /**
+     * Collega il compito a un turno: imposta turnoId, la chiave del turno e la stringa per la visualizzazione.
+     */
+    public void risolviTurno(Turno turno) {
+        this.turnoId = turno != null ? turno.getId() : null;
+        this.chiaveTurno = ChiaveTurno.di(turno);
+        this.turno = chiaveTurno != null ? chiaveTurno.toString() : null;
+    }
+    
+    /**
+     * Restituisce la chiave del turno del compito. Per i compiti salvati solo con la stringa
+     * del turno, la chiave viene ricavata dalla stringa.
+     */
+    @JsonIgnore
+    public ChiaveTurno getChiaveTurno() {
+        if (chiaveTurno == null && turno != null) {
+            chiaveTurno = ChiaveTurno.daTesto(turno);
+        }
+        return chiaveTurno;
+    }
+    
     // Getters per ID (per JSON)
     public Integer getRicettaId() { return ricettaId; }
     public Integer getCuocoId() { return cuocoId; }
@@ -99,17 +132,37 @@ public class Compito {
     public int getImportanza() { return importanza; }
     public Evento getEvento() { return evento; }
     public int getTempoStimato() { return durata; } // Alias per compatibilità
+    public List<Integer> getPrerequisiti() { return Collections.unmodifiableList(prerequisiti); }
     
     // Setters standard
     public void setId(int id) { this.id = id; }
     public void setRicetta(Ricetta ricetta) { risolviRicetta(ricetta); }
     public void setCuocoAssegnato(Cuoco cuocoAssegnato) { risolviCuoco(cuocoAssegnato); }
     public void setEvento(Evento evento) { risolviEvento(evento); }
-    public void setTurno(String turno) { this.turno = turno; }
+    public void setTurno(String turno) {
+        this.turno = turno;
+        this.chiaveTurno = null;
+    }
     public void setDurata(int durata) { this.durata = durata; }
     public void setQuantita(double quantita) { this.quantita = quantita; }
     public void setStato(String stato) { this.stato = stato; }
     public void setTempoStimato(int tempoStimato) { this.durata = tempoStimato; }
+    public void setPrerequisiti(List<Integer> prerequisiti) {
+        this.prerequisiti = prerequisiti != null ? new ArrayList<>(prerequisiti) : new ArrayList<>();
+    }
+    
+    /**
+     * Indica che il compito può iniziare solo dopo il completamento di un altro compito.
+     */
+    public void aggiungiPrerequisito(int compitoId) {
+        if (compitoId != id && !prerequisiti.contains(compitoId)) {
+            prerequisiti.add(compitoId);
+        }
+    }
+    
+    public boolean rimuoviPrerequisito(int compitoId) {
+        return prerequisiti.remove(Integer.valueOf(compitoId));
+    }
     
     public void setImportanza(int importanza) {
         if (importanza < 1 || importanza > 5) {
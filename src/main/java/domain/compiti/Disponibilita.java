@@ -1,5 +1,7 @@
 package domain.compiti;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import javafx.beans.property.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -24,7 +26,11 @@ public class Disponibilita {
      * @param oraInizio ora di inizio della disponibilità
      * @param oraFine   ora di fine della disponibilità
      */
-    public Disponibilita(int id, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+    @JsonCreator
+    public Disponibilita(@JsonProperty("id") int id,
+                         @JsonProperty("data") LocalDate data,
+                         @JsonProperty("oraInizio") LocalTime oraInizio,
+                         @JsonProperty("oraFine") LocalTime oraFine) {
         this.id.set(id);
         this.data.set(data);
         this.oraInizio.set(oraInizio);
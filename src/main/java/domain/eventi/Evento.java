@@ -1,5 +1,6 @@
 package domain.eventi;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import javafx.beans.property.*;
 import domain.menu.Menu;
@@ -23,6 +24,8 @@ public class Evento {
     private final StringProperty stato = new SimpleStringProperty("Pianificato");
     private final StringProperty note = new SimpleStringProperty();
     private final ObjectProperty<Menu> menu = new SimpleObjectProperty<>();
+    // ID del menu salvato nel file, risolto nel menu al caricamento
+    private Integer menuId;
 
     /**
      * Costruttore predefinito per la deserializzazione JSON.
@@ -64,7 +67,9 @@ public class Evento {
     public boolean isRicorrente() { return ricorrente.get(); }
     public String getStato() { return stato.get(); }
     public String getNote() { return note.get(); }
+    @JsonIgnore
     public Menu getMenu() { return menu.get(); }
+    public Integer getMenuId() { return menuId; }
     
     // Setters
     public void setNome(String nome) { this.nome.set(nome); }
@@ -75,5 +80,10 @@ public class Evento {
     public void setRicorrente(boolean ricorrente) { this.ricorrente.set(ricorrente); }
     public void setStato(String stato) { this.stato.set(stato); }
     public void setNote(String note) { this.note.set(note); }
-    public void setMenu(Menu menu) { this.menu.set(menu); }
+    public void setMenuId(Integer menuId) { this.menuId = menuId; }
+    
+    public void setMenu(Menu menu) {
+        this.menu.set(menu);
+        this.menuId = menu != null ? menu.getId() : null;
+    }
 }
\ No newline at end of file
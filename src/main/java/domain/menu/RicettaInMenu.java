@@ -1,18 +1,26 @@
 package domain.menu;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import domain.ricette.Ricetta;
 import javafx.beans.property.*;
+import java.util.Objects;
 
 /**
  * Rappresenta una ricetta all'interno di un menu con possibilità di personalizzazione.
  * Permette di avere un nome diverso da quello nel ricettario originale,
  * supportando la personalizzazione creativa dei piatti nel menu.
+ * Nel file JSON viene salvato solo l'ID della ricetta, risolto nella ricetta del ricettario al caricamento.
+ * Le voci lette da file con la copia completa della ricetta la conservano finché l'ID non viene
+ * risolto nel ricettario, così che il salvataggio non perda le ricette non (ancora) trovate.
  */
 public class RicettaInMenu {
     private final ObjectProperty<Ricetta> ricettaOriginale = new SimpleObjectProperty<>();
     private final StringProperty nomePersonalizzato = new SimpleStringProperty();
+    private Integer ricettaId;
+    // Copia completa letta dai file salvati prima del solo ID (null dopo la risoluzione)
+    private Ricetta copiaIncorporata;
 
     /**
      * Costruttore predefinito per la deserializzazione JSON.
@@ -21,18 +29,35 @@ public class RicettaInMenu {
     }
 
     public RicettaInMenu(Ricetta ricettaOriginale) {
-        this.ricettaOriginale.set(ricettaOriginale);
+        risolviRicetta(ricettaOriginale);
         this.nomePersonalizzato.set(ricettaOriginale.getNome()); // Di default usa il nome originale
     }
 
     public RicettaInMenu(Ricetta ricettaOriginale, String nomePersonalizzato) {
-        this.ricettaOriginale.set(ricettaOriginale);
+        risolviRicetta(ricettaOriginale);
         this.nomePersonalizzato.set(nomePersonalizzato);
     }
 
+    /**
+     * Collega la ricetta del ricettario e ne imposta l'ID.
+     */
+    public void risolviRicetta(Ricetta ricetta) {
+        this.ricettaOriginale.set(ricetta);
+        this.ricettaId = ricetta != null ? ricetta.getId() : null;
+        this.copiaIncorporata = null;
+    }
+
+    /**
+     * Verifica se la voce usa ancora la copia completa della ricetta letta dal file.
+     */
+    public boolean haCopiaIncorporata() {
+        return copiaIncorporata != null;
+    }
+
     /**
      * Restituisce il nome da mostrare nel menu (personalizzato o originale).
      */
+    @JsonIgnore
     public String getNomeNelMenu() {
         String nome = nomePersonalizzato.get();
         return (nome != null && !nome.trim().isEmpty()) ? nome : 
@@ -63,20 +88,36 @@ public class RicettaInMenu {
     public StringProperty nomePersonalizzatoProperty() { return nomePersonalizzato; }
 
     // Getters standard
+    @JsonIgnore
     public Ricetta getRicettaOriginale() { return ricettaOriginale.get(); }
-    public void setRicettaOriginale(Ricetta ricetta) { this.ricettaOriginale.set(ricetta); }
+    public void setRicettaOriginale(Ricetta ricetta) { risolviRicetta(ricetta); }
     
     public String getNomePersonalizzato() { return nomePersonalizzato.get(); }
 
     // Per serializzazione JSON
+    @JsonProperty("ricettaId")
+    public Integer getRicettaId() {
+        return ricettaId;
+    }
+
+    @JsonProperty("ricettaId")
+    public void setRicettaId(Integer ricettaId) {
+        this.ricettaId = ricettaId;
+    }
+
+    // Per i file salvati con la copia completa della ricetta: la copia viene riscritta solo finché non è risolta
     @JsonProperty("ricettaOriginale")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public Ricetta getRicettaOriginaleForJson() {
-        return ricettaOriginale.get();
+        return copiaIncorporata;
     }
 
     @JsonProperty("ricettaOriginale")
     public void setRicettaOriginaleForJson(Ricetta ricetta) {
-        this.ricettaOriginale.set(ricetta);
+        if (ricetta != null) {
+            risolviRicetta(ricetta);
+            this.copiaIncorporata = ricetta;
+        }
     }
 
     @JsonProperty("nomePersonalizzato")
@@ -97,23 +138,19 @@ public class RicettaInMenu {
         RicettaInMenu that = (RicettaInMenu) obj;
         
         // Due RicettaInMenu sono uguali se hanno la stessa ricetta originale
-        Ricetta thisRicetta = this.ricettaOriginale.get();
-        Ricetta thatRicetta = that.ricettaOriginale.get();
-        
-        return thisRicetta != null ? thisRicetta.equals(thatRicetta) : thatRicetta == null;
+        return Objects.equals(ricettaId, that.ricettaId);
     }
 
     @Override
     public int hashCode() {
-        Ricetta ricetta = ricettaOriginale.get();
-        return ricetta != null ? ricetta.hashCode() : 0;
+        return ricettaId != null ? Integer.hashCode(ricettaId) : 0;
     }
 
     @Override
     public String toString() {
         return "RicettaInMenu{" +
                 "nomeNelMenu='" + getNomeNelMenu() + '\'' +
-                ", ricettaOriginale=" + (ricettaOriginale.get() != null ? ricettaOriginale.get().getNome() : "null") +
+                ", ricettaOriginale=" + (ricettaOriginale.get() != null ? ricettaOriginale.get().getNome() : ricettaId) +
                 '}';
     }
 } 
\ No newline at end of file
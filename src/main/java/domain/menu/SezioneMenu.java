@@ -63,7 +63,7 @@ public class SezioneMenu {
      * @param ricetta ricetta da rimuovere
      */
     public void rimuoviRicetta(Ricetta ricetta) {
-        ricette.removeIf(r -> r.getRicettaOriginale().equals(ricetta));
+        ricette.removeIf(r -> ricetta != null && r.getRicettaId() != null && r.getRicettaId() == ricetta.getId());
     }
     
     /**
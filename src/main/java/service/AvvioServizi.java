@@ -0,0 +1,152 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Rappresenta l'avvio dei servizi dell'applicazione come grafo di dipendenze.
+ * Ogni servizio viene creato su un thread dedicato non appena i servizi da cui dipende
+ * sono pronti, così i servizi indipendenti caricano i propri file in parallelo e il tempo
+ * di avvio è limitato dal caricamento più lento invece che dalla somma dei caricamenti.
+ * Per ogni servizio viene misurato il tempo di caricamento.
+ */
+public class AvvioServizi {
+
+    private static final Logger LOGGER = Logger.getLogger(AvvioServizi.class.getName());
+
+    private final List<Componente<?>> componenti = new ArrayList<>();
+    private final Map<String, Long> tempiCaricamento = Collections.synchronizedMap(new LinkedHashMap<>());
+    private boolean avviato = false;
+
+    /**
+     * Rappresenta un servizio registrato per l'avvio.
+     * Il valore è disponibile dopo {@link AvvioServizi#avvia()}, oppure all'interno della
+     * fabbrica di un servizio che lo dichiara come dipendenza.
+     */
+    public static final class Componente<S> {
+        private final String nome;
+        private final Supplier<S> fabbrica;
+        private final List<Componente<?>> dipendenze;
+        private CompletableFuture<S> futuro;
+
+        private Componente(String nome, Supplier<S> fabbrica, List<Componente<?>> dipendenze) {
+            this.nome = nome;
+            this.fabbrica = fabbrica;
+            this.dipendenze = dipendenze;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        /**
+         * Restituisce il servizio creato.
+         *
+         * @throws IllegalStateException se il servizio non è ancora stato creato
+         */
+        public S get() {
+            if (futuro == null || !futuro.isDone()) {
+                throw new IllegalStateException("Servizio non ancora disponibile: " + nome);
+            }
+            return futuro.join();
+        }
+    }
+
+    /**
+     * Registra un servizio da creare all'avvio.
+     *
+     * @param nome       nome del servizio, usato nei tempi di caricamento
+     * @param fabbrica   crea il servizio; può leggere i servizi dichiarati come dipendenze
+     * @param dipendenze servizi che devono essere pronti prima di creare questo
+     * @return il riferimento al servizio registrato
+     */
+    public synchronized <S> Componente<S> registra(String nome, Supplier<S> fabbrica, Componente<?>... dipendenze) {
+        if (avviato) {
+            throw new IllegalStateException("Avvio già eseguito");
+        }
+        for (Componente<?> dipendenza : dipendenze) {
+            // Le dipendenze sono sempre registrate prima: il grafo non può contenere cicli
+            if (!componenti.contains(dipendenza)) {
+                throw new IllegalArgumentException("Dipendenza non registrata: " + dipendenza.getNome());
+            }
+        }
+        Componente<S> componente = new Componente<>(nome, fabbrica, List.of(dipendenze));
+        componenti.add(componente);
+        return componente;
+    }
+
+    /**
+     * Crea tutti i servizi registrati rispettando le dipendenze e attende che siano pronti.
+     *
+     * @throws IllegalStateException se la creazione di un servizio fallisce
+     */
+    public synchronized void avvia() {
+        if (avviato) {
+            throw new IllegalStateException("Avvio già eseguito");
+        }
+        avviato = true;
+        if (componenti.isEmpty()) {
+            return;
+        }
+
+        long inizio = System.nanoTime();
+        int thread = Math.min(componenti.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService esecutore = Executors.newFixedThreadPool(Math.max(1, thread), r -> {
+            Thread t = new Thread(r, "avvio-servizi");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Componente<?> componente : componenti) {
+                pianifica(componente, esecutore);
+            }
+            CompletableFuture.allOf(componenti.stream()
+                    .map(c -> c.futuro)
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Errore nell'avvio dei servizi", e.getCause());
+        } finally {
+            esecutore.shutdown();
+        }
+        LOGGER.info("Servizi avviati in " + millisDa(inizio) + " ms " + getTempiCaricamento());
+    }
+
+    /**
+     * Restituisce il tempo di caricamento di ciascun servizio in millisecondi, nell'ordine di registrazione.
+     */
+    public Map<String, Long> getTempiCaricamento() {
+        Map<String, Long> tempi = new LinkedHashMap<>();
+        for (Componente<?> componente : componenti) {
+            Long tempo = tempiCaricamento.get(componente.getNome());
+            if (tempo != null) {
+                tempi.put(componente.getNome(), tempo);
+            }
+        }
+        return tempi;
+    }
+
+    private <S> void pianifica(Componente<S> componente, ExecutorService esecutore) {
+        CompletableFuture<?>[] attese = componente.dipendenze.stream()
+                .map(d -> d.futuro)
+                .toArray(CompletableFuture[]::new);
+        componente.futuro = CompletableFuture.allOf(attese).thenApplyAsync(nessuno -> {
+            long inizio = System.nanoTime();
+            S servizio = componente.fabbrica.get();
+            tempiCaricamento.put(componente.getNome(), millisDa(inizio));
+            return servizio;
+        }, esecutore);
+    }
+
+    private static long millisDa(long inizioNanos) {
+        return (System.nanoTime() - inizioNanos) / 1_000_000;
+    }
+}
@@ -1,15 +1,37 @@
 package service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import domain.compiti.ChiaveTurno;
 import domain.compiti.Compito;
 import domain.compiti.Turno;
 import domain.eventi.Evento;
+import domain.menu.Menu;
 import domain.ricette.Ricetta;
 import domain.utenti.Cuoco;
+import service.indici.CaricoCuochi;
+import service.indici.IndiceCalendario;
+import service.indici.IndiceId;
+import service.indici.IndiceMultiplo;
+import service.indici.PorzioniRicette;
+import service.indici.RiepiloghiEventi;
+import service.pianificazione.CamminoCritico;
+import service.persistence.JsonJournal;
 import service.persistence.JsonLoader;
+import service.persistence.Repository;
+import service.persistence.WriteBehindSaver;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -21,13 +43,67 @@ import java.util.ArrayList;
 public class CompitoCucinaService {
     private final ObservableList<Compito> compiti = FXCollections.observableArrayList();
     private final ObservableList<Turno> turni = FXCollections.observableArrayList();
+    private final IndiceId<Turno> turniPerId = new IndiceId<>(turni, Turno::getId);
+    private final IndiceCalendario<Turno> calendarioTurni = new IndiceCalendario<>(turni,
+        CompitoCucinaService::inizioTurno, CompitoCucinaService::fineTurno);
+    private final IndiceId<Compito> compitiPerId = new IndiceId<>(compiti, Compito::getId);
+    
+    // Indici secondari sui compiti, allineati alla lista (vanno aggiornati se un compito cambia sul posto)
+    private final IndiceMultiplo<Integer, Compito> compitiPerCuoco = new IndiceMultiplo<>(compiti, Compito::getCuocoId);
+    private final IndiceMultiplo<ChiaveTurno, Compito> compitiPerTurno = new IndiceMultiplo<>(compiti, Compito::getChiaveTurno);
+    private final IndiceMultiplo<Integer, Compito> compitiPerTurnoId = new IndiceMultiplo<>(compiti, Compito::getTurnoId);
+    private final IndiceMultiplo<Integer, Compito> compitiPerEvento = new IndiceMultiplo<>(compiti, Compito::getEventoId);
+    private final IndiceMultiplo<Integer, Compito> compitiPerRicetta = new IndiceMultiplo<>(compiti, Compito::getRicettaId);
+    
+    // Minuti assegnati per cuoco e turno (e per evento), aggiornati ad ogni modifica dei compiti
+    private final CaricoCuochi<ChiaveTurno> caricoCuochi = new CaricoCuochi<>(compiti, Compito::getChiaveTurno);
+    // Porzioni pianificate, in corso e completate per evento e ricetta
+    private final PorzioniRicette porzioniRicette = new PorzioniRicette(compiti);
+    // Riepiloghi per evento, scartati solo quando cambiano i compiti o il menu dell'evento
+    private final RiepiloghiEventi riepiloghi = new RiepiloghiEventi(compiti, compitiPerEvento::get, compitiPerRicetta::get);
+    
+    // Cammini critici calcolati per turno, scartati quando cambiano i compiti del turno
+    private final Map<ChiaveTurno, CamminoCritico> camminiCritici = new HashMap<>();
+    {
+        compiti.addListener((ListChangeListener<Compito>) modifica -> {
+            while (modifica.next()) {
+                modifica.getRemoved().forEach(c -> camminiCritici.remove(c.getChiaveTurno()));
+                modifica.getAddedSubList().forEach(c -> camminiCritici.remove(c.getChiaveTurno()));
+            }
+        });
+    }
+    // Notificati dopo un cambio di stato o un ritardo segnalato su un compito (es. per ripianificare il turno)
+    private final List<Consumer<Compito>> osservatoriAvanzamento = new ArrayList<>();
     private int nextCompitoId = 1;
     private int nextTurnoId = 1;
     private UtenteService utenteService;
+    // Registro usato per risolvere i riferimenti (null finché non vengono risolti)
+    private RegistroEntita registro;
+    
+    // Nomi degli indici secondari dell'archivio dei compiti
+    public static final String INDICE_CUOCO = "cuocoId";
+    public static final String INDICE_TURNO = "turnoId";
+    public static final String INDICE_EVENTO = "eventoId";
+    
+    // Frazione della durata del turno oltre la quale il turno è considerato pieno
+    public static final double SOGLIA_TURNO_PIENO = 0.8;
+    
+    // Percorso del file JSON dei turni
+    private static final String PERCORSO_TURNI = "src/main/resources/data/turni.json";
     
     // Percorso del file JSON dei compiti
     private String jsonPath = "src/main/resources/data/compiti.json";
     
+    // Salvataggi differiti (null se i salvataggi sono immediati)
+    private WriteBehindSaver<byte[]> salvataggioCompiti;
+    private WriteBehindSaver<byte[]> salvataggioTurni;
+    
+    // Journal delle modifiche ai compiti (null se si riscrive l'intero file)
+    private JsonJournal<Compito> journalCompiti;
+    
+    // Archivio dei compiti con indici secondari (null se si usa il file JSON)
+    private Repository<Compito, Integer> repositoryCompiti;
+    
     /**
      * Costruttore predefinito che carica i compiti dal file JSON.
      */
@@ -51,6 +127,43 @@ public class CompitoCucinaService {
         caricaTurniDaJson();
     }
     
+    /**
+     * Costruttore che persiste i compiti tramite journal: ogni modifica viene aggiunta
+     * in coda al journal invece di riscrivere l'intero file dei compiti.
+     * All'avvio i compiti vengono ricostruiti da snapshot e journal.
+     */
+    public CompitoCucinaService(UtenteService utenteService, JsonJournal<Compito> journalCompiti) {
+        this.utenteService = utenteService;
+        this.journalCompiti = journalCompiti;
+        caricaCompitiDaJson();
+        caricaTurniDaJson();
+    }
+    
+    /**
+     * Costruttore che persiste i compiti in un archivio: ogni modifica salva o elimina
+     * un solo compito. All'avvio i compiti vengono comunque caricati tutti in memoria, e le ricerche
+     * per cuoco, turno o evento usano gli indici in memoria: l'archivio serve solo alla persistenza.
+     *
+     * @see #indiciCompiti()
+     */
+    public CompitoCucinaService(UtenteService utenteService, Repository<Compito, Integer> repositoryCompiti) {
+        this.utenteService = utenteService;
+        this.repositoryCompiti = repositoryCompiti;
+        caricaCompitiDaJson();
+        caricaTurniDaJson();
+    }
+    
+    /**
+     * Restituisce gli indici secondari dei compiti da dichiarare nell'archivio.
+     */
+    public static Map<String, Function<Compito, Integer>> indiciCompiti() {
+        Map<String, Function<Compito, Integer>> indici = new LinkedHashMap<>();
+        indici.put(INDICE_CUOCO, Compito::getCuocoId);
+        indici.put(INDICE_TURNO, Compito::getTurnoId);
+        indici.put(INDICE_EVENTO, Compito::getEventoId);
+        return indici;
+    }
+    
     public void setUtenteService(UtenteService utenteService) {
         this.utenteService = utenteService;
     }
@@ -60,35 +173,35 @@ public class CompitoCucinaService {
      */
     private void caricaCompitiDaJson() {
         try {
-            List<Compito> compitiList;
-            if (jsonPath.startsWith("src/test/")) {
-                // Per i test, usa loadFromFile
-                compitiList = JsonLoader.loadFromFile(jsonPath, new TypeReference<List<Compito>>() {});
+            if (journalCompiti != null) {
+                // Snapshot + record del journal successivi
+                journalCompiti.load().forEach(this::aggiungiCompitoCaricato);
+            } else if (repositoryCompiti != null) {
+                repositoryCompiti.findAll().forEach(this::aggiungiCompitoCaricato);
+            } else if (jsonPath.startsWith("src/test/")) {
+                // Per i test, usa il file indicato
+                JsonLoader.forEachFromFile(jsonPath, Compito.class, this::aggiungiCompitoCaricato);
             } else {
-                // Per l'uso normale, usa loadFromResources
-                compitiList = JsonLoader.loadFromResources("data/compiti.json", new TypeReference<List<Compito>>() {});
-            }
-            
-            if (compitiList != null && !compitiList.isEmpty()) {
-                compiti.addAll(compitiList);
-                
-                // Aggiorna nextCompitoId
-                for (Compito compito : compitiList) {
-                    if (compito.getId() >= nextCompitoId) {
-                        nextCompitoId = compito.getId() + 1;
-                    }
-                }
-                
-
-                
-                // I riferimenti verranno risolti successivamente quando i servizi sono disponibili
+                // Per l'uso normale, legge dalle resources un compito alla volta
+                JsonLoader.forEachFromResources("data/compiti.json", Compito.class, this::aggiungiCompitoCaricato);
             }
+            // I riferimenti verranno risolti successivamente quando i servizi sono disponibili
         } catch (Exception e) {
             System.err.println("Errore nel caricamento dei compiti: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    /**
+     * Aggiunge un compito letto da file e aggiorna nextCompitoId.
+     */
+    private void aggiungiCompitoCaricato(Compito compito) {
+        compiti.add(compito);
+        if (compito.getId() >= nextCompitoId) {
+            nextCompitoId = compito.getId() + 1;
+        }
+    }
+    
     /**
      * Carica i turni dal file JSON.
      */
@@ -132,64 +245,134 @@ public class CompitoCucinaService {
     }
     
     /**
-     * Salva i compiti nel file JSON.
+     * Abilita il salvataggio differito: le modifiche vengono accorpate e scritte
+     * su file al più una volta per intervallo, su un thread in background.
+     * Una modifica segna solo i dati come da salvare; la serializzazione avviene una volta
+     * per intervallo sul thread dei dati, e il thread in background scrive solo i byte già pronti.
+     *
+     * @param intervalloMillis intervallo di accorpamento delle scritture in millisecondi
+     * @param threadDati       esecutore del thread che modifica compiti e turni (es. {@code Platform::runLater})
+     */
+    public void abilitaSalvataggioDifferito(long intervalloMillis, Executor threadDati) {
+        fermaSalvataggioDifferito();
+        salvataggioCompiti = new WriteBehindSaver<>("compiti", () -> JsonLoader.toBytes(compiti),
+            dati -> JsonLoader.saveBytesToFile(jsonPath, dati), threadDati, intervalloMillis);
+        salvataggioTurni = new WriteBehindSaver<>("turni", () -> JsonLoader.toBytes(turni),
+            dati -> JsonLoader.saveBytesToFile(PERCORSO_TURNI, dati), threadDati, intervalloMillis);
+    }
+    
+    /**
+     * Scrive subito su file le modifiche in attesa del salvataggio differito.
+     */
+    public void flush() {
+        if (salvataggioCompiti != null) {
+            salvataggioCompiti.flush();
+        }
+        if (salvataggioTurni != null) {
+            salvataggioTurni.flush();
+        }
+    }
+    
+    /**
+     * Salva le modifiche pendenti e ferma il salvataggio differito.
+     * Da chiamare alla chiusura dell'applicazione.
+     */
+    public void chiudi() {
+        fermaSalvataggioDifferito();
+        if (journalCompiti != null) {
+            journalCompiti.close();
+        }
+        if (repositoryCompiti != null) {
+            repositoryCompiti.close();
+        }
+    }
+    
+    private void fermaSalvataggioDifferito() {
+        if (salvataggioCompiti != null) {
+            salvataggioCompiti.shutdown();
+            salvataggioCompiti = null;
+        }
+        if (salvataggioTurni != null) {
+            salvataggioTurni.shutdown();
+            salvataggioTurni = null;
+        }
+    }
+    
+    /**
+     * Registra la creazione o la modifica di un compito.
+     * Con il journal o l'archivio viene scritto un solo record, altrimenti si salva l'intero file.
+     */
+    private void salvaCompito(Compito compito) {
+        if (journalCompiti != null) {
+            journalCompiti.appendPut(compito);
+        } else if (repositoryCompiti != null) {
+            repositoryCompiti.save(compito);
+        } else {
+            salvaCompitiInJson();
+        }
+    }
+    
+    /**
+     * Salva i compiti nel file JSON (subito o in differita se abilitata).
      */
     private void salvaCompitiInJson() {
+        if (salvataggioCompiti != null) {
+            salvataggioCompiti.markDirty();
+        } else {
+            scriviCompitiSuFile();
+        }
+    }
+    
+    /**
+     * Salva i turni nel file JSON (subito o in differita se abilitata).
+     */
+    private void salvaTurniInJson() {
+        if (salvataggioTurni != null) {
+            salvataggioTurni.markDirty();
+        } else {
+            scriviTurniSuFile();
+        }
+    }
+    
+    /**
+     * Scrive i compiti nel file JSON.
+     */
+    private boolean scriviCompitiSuFile() {
         try {
-            JsonLoader.saveToFile(jsonPath, new ArrayList<>(compiti));
+            return JsonLoader.saveToFile(jsonPath, compiti);
         } catch (Exception e) {
             System.err.println("Errore nel salvataggio dei compiti: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
     
     /**
-     * Salva i turni nel file JSON.
+     * Scrive i turni nel file JSON.
      */
-    private void salvaTurniInJson() {
+    private boolean scriviTurniSuFile() {
         try {
-            JsonLoader.saveToFile("src/main/resources/data/turni.json", turni);
+            return JsonLoader.saveToFile(PERCORSO_TURNI, turni);
         } catch (Exception e) {
             System.err.println("Errore nel salvataggio dei turni: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
     
     /**
-     * Crea un riepilogo dei compiti per un evento.
+     * Crea un riepilogo dei compiti per un evento: i compiti dell'evento e quelli senza evento
+     * di una ricetta del suo menu. Il riepilogo resta in cache finché non cambiano i compiti
+     * o il menu dell'evento.
      * Riferimento: UC "Gestione dei Compiti della cucina" - Passo 1
+     *
+     * @return vista non modificabile dei compiti
      */
     public ObservableList<Compito> creaRiepilogoCompiti(Evento evento) {
         if (evento == null) {
             return FXCollections.observableArrayList(); // Lista vuota se l'evento è nullo
         }
-        
-        // Ottieni le ricette associate all'evento tramite il menu diretto
-        List<Ricetta> ricetteEvento = new ArrayList<>();
-        if (evento.getMenu() != null) {
-            evento.getMenu().getSezioni().stream()
-                .flatMap(sezione -> sezione.getRicette().stream())
-                .map(ricettaInMenu -> ricettaInMenu.getRicettaOriginale())
-                .forEach(ricetteEvento::add);
-        }
-        
-        if (ricetteEvento.isEmpty()) {
-            // Se non ci sono ricette, per scopi dimostrativi, includiamo tutti i compiti
-            // Questo permette all'interfaccia di funzionare anche con dati incompleti
-            return FXCollections.observableArrayList(compiti);
-        }
-        
-
-        
-        // Filtra i compiti per ricette dell'evento
-        List<Compito> compitiEvento = compiti.stream()
-            .filter(compito -> 
-                compito.getRicetta() != null && 
-                ricetteEvento.contains(compito.getRicetta()))
-            .collect(Collectors.toList());
-
-        
-        return FXCollections.observableArrayList(compitiEvento);
+        return riepiloghi.get(evento);
     }
     
     /**
@@ -202,9 +385,8 @@ public class CompitoCucinaService {
             return new ArrayList<>();
         }
         
-        // Calcola la durata del turno in minuti
-        long durataTurnoMinuti = java.time.Duration.between(
-            turno.getOraInizio(), turno.getOraFine()).toMinutes();
+        // Calcola la durata del turno in minuti (anche se prosegue oltre la mezzanotte)
+        int durataTurnoMinuti = getMinutiTurno(turno);
         
         // Ottieni tutti i cuochi dal sistema
         List<Cuoco> tuttiCuochi = new ArrayList<>();
@@ -220,33 +402,187 @@ public class CompitoCucinaService {
         }
         
         // Filtra i cuochi che hanno ancora tempo disponibile nel turno
+        Map<Integer, Integer> caricoTurno = caricoCuochi.getMinutiPerCuoco(chiaveTurno(turno));
         return tuttiCuochi.stream()
+            .filter(cuoco -> isCuocoDisponibile(cuoco, turno))
             .filter(cuoco -> {
-                int tempoAssegnato = getTempoAssegnatoCuoco(cuoco, turno);
+                int tempoAssegnato = caricoTurno.getOrDefault(cuoco.getId(), 0);
                 return tempoAssegnato < durataTurnoMinuti; // Ha ancora tempo libero
             })
             .collect(Collectors.toList());
     }
     
     /**
-     * Assegna un compito a un cuoco.
+     * Verifica se il cuoco è presente per il turno secondo le disponibilità registrate.
+     * Senza il servizio utenti le disponibilità non sono note e il cuoco è considerato presente.
+     */
+    public boolean isCuocoDisponibile(Cuoco cuoco, Turno turno) {
+        return utenteService == null || utenteService.isDisponibile(cuoco, turno);
+    }
+    
+    /**
+     * Assegna un compito a un cuoco in un turno.
      * Riferimento: UC "Gestione dei Compiti della cucina" - Passo 3
      */
+    public Compito assegnaCompito(Cuoco cuoco, Turno turno, 
+                                Ricetta ricetta, int tempoStimato, double quantita, Evento evento) {
+        Compito nuovoCompito = new Compito(nextCompitoId++, ricetta, cuoco, turno, tempoStimato, quantita, evento);
+        compiti.add(nuovoCompito);
+        salvaCompito(nuovoCompito);
+        return nuovoCompito;
+    }
+    
+    /**
+     * Assegna un compito a un cuoco indicando il turno con la sua stringa "data inizio-fine".
+     * @deprecated Usa assegnaCompito(Cuoco, Turno, Ricetta, int, double, Evento) per collegare il compito al turno
+     */
+    @Deprecated
     public Compito assegnaCompito(Cuoco cuoco, String turno, 
                                 Ricetta ricetta, int tempoStimato, double quantita, Evento evento) {
         Compito nuovoCompito = new Compito(nextCompitoId++, ricetta, cuoco, turno, tempoStimato, quantita, evento);
         compiti.add(nuovoCompito);
-        salvaCompitiInJson();
+        salvaCompito(nuovoCompito);
         return nuovoCompito;
     }
     
+    /**
+     * Salva le modifiche apportate a un compito esistente (cuoco, tempo, quantità, importanza, stato).
+     */
+    public void aggiornaCompito(Compito compito) {
+        if (compito != null && compiti.contains(compito)) {
+            reindicizza(compito);
+            aggiornaCamminiCritici(compito);
+            salvaCompito(compito);
+        }
+    }
+    
+    /**
+     * Cambia lo stato di un compito (es. "In corso", "Bloccato"), salva la modifica
+     * e avvisa gli osservatori dell'avanzamento.
+     */
+    public void aggiornaStato(Compito compito, String nuovoStato) {
+        if (compito == null || nuovoStato == null || nuovoStato.equals(compito.getStato())) {
+            return;
+        }
+        compito.aggiornaStato(nuovoStato);
+        aggiornaCompito(compito);
+        notificaAvanzamento(compito);
+    }
+    
+    /**
+     * Registra che un compito richiede più tempo del previsto: la durata viene allungata,
+     * salvata e gli osservatori dell'avanzamento vengono avvisati.
+     */
+    public void segnalaRitardo(Compito compito, int minutiAggiuntivi) {
+        if (compito == null || minutiAggiuntivi <= 0) {
+            return;
+        }
+        compito.setDurata(compito.getDurata() + minutiAggiuntivi);
+        aggiornaCompito(compito);
+        notificaAvanzamento(compito);
+    }
+    
+    /**
+     * Registra un osservatore chiamato dopo ogni cambio di stato o ritardo di un compito.
+     */
+    public void aggiungiOsservatoreAvanzamento(Consumer<Compito> osservatore) {
+        osservatoriAvanzamento.add(osservatore);
+    }
+    
+    public void rimuoviOsservatoreAvanzamento(Consumer<Compito> osservatore) {
+        osservatoriAvanzamento.remove(osservatore);
+    }
+    
+    private void notificaAvanzamento(Compito compito) {
+        for (Consumer<Compito> osservatore : new ArrayList<>(osservatoriAvanzamento)) {
+            osservatore.accept(compito);
+        }
+    }
+    
+    /**
+     * Salva con un'unica scrittura le modifiche apportate a più compiti esistenti
+     * (es. le riassegnazioni del bilanciamento dei carichi).
+     */
+    public void aggiornaCompiti(Collection<Compito> modificati) {
+        List<Compito> presenti = new ArrayList<>();
+        for (Compito compito : modificati) {
+            if (compito != null && compitiPerId.get(compito.getId()) == compito) {
+                reindicizza(compito);
+                aggiornaCamminiCritici(compito);
+                presenti.add(compito);
+            }
+        }
+        if (presenti.isEmpty()) {
+            return;
+        }
+        if (journalCompiti != null) {
+            journalCompiti.appendPutAll(presenti);
+        } else if (repositoryCompiti != null) {
+            repositoryCompiti.saveAll(presenti);
+        } else {
+            salvaCompitiInJson();
+        }
+    }
+    
+    /**
+     * Aggiorna i cammini critici calcolati dopo la modifica di un compito: se è cambiata
+     * solo la durata il calcolo del turno viene aggiornato, altrimenti viene scartato.
+     */
+    private void aggiornaCamminiCritici(Compito compito) {
+        ChiaveTurno chiave = compito.getChiaveTurno();
+        camminiCritici.entrySet().removeIf(voce ->
+            voce.getValue().contiene(compito.getId()) && !voce.getKey().equals(chiave));
+        CamminoCritico cammino = camminiCritici.get(chiave);
+        if (cammino == null) {
+            return;
+        }
+        if (cammino.haPrerequisiti(compito)) {
+            cammino.aggiornaDurata(compito.getId(), compito.getDurata());
+        } else {
+            camminiCritici.remove(chiave);
+        }
+    }
+    
+    /**
+     * Riallinea gli indici secondari di un compito modificato sul posto (es. riassegnazione).
+     */
+    private void reindicizza(Compito compito) {
+        compitiPerCuoco.aggiorna(compito);
+        compitiPerTurno.aggiorna(compito);
+        compitiPerTurnoId.aggiorna(compito);
+        compitiPerEvento.aggiorna(compito);
+        compitiPerRicetta.aggiorna(compito);
+        caricoCuochi.aggiorna(compito);
+        porzioniRicette.aggiorna(compito);
+        riepiloghi.invalida(compito);
+    }
+    
+    /**
+     * Elimina un compito e salva la modifica.
+     *
+     * @return true se il compito era presente ed è stato eliminato
+     */
+    public boolean eliminaCompito(Compito compito) {
+        if (compito == null || !compiti.remove(compito)) {
+            return false;
+        }
+        if (journalCompiti != null) {
+            journalCompiti.appendDelete(compito.getId());
+        } else if (repositoryCompiti != null) {
+            repositoryCompiti.deleteById(compito.getId());
+        } else {
+            salvaCompitiInJson();
+        }
+        return true;
+    }
+    
     // Metodo di compatibilità senza evento (deprecated)
     @Deprecated
     public Compito assegnaCompito(Cuoco cuoco, String turno, 
                                 Ricetta ricetta, int tempoStimato, double quantita) {
         Compito nuovoCompito = new Compito(nextCompitoId++, ricetta, cuoco, turno, tempoStimato, quantita);
         compiti.add(nuovoCompito);
-        salvaCompitiInJson();
+        salvaCompito(nuovoCompito);
         return nuovoCompito;
     }
     
@@ -278,18 +614,13 @@ public class CompitoCucinaService {
             return false;
         }
         
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        int tempoTotale = compiti.stream()
-            .filter(compito -> turnoStr.equals(compito.getTurno()))
-            .mapToInt(Compito::getTempoStimato)
-            .sum();
+        int tempoTotale = caricoCuochi.getMinutiTotali(chiaveTurno(turno));
         
-        // Calcola tempo disponibile nel turno in minuti
-        long minutiDisponibili = java.time.Duration.between(
-            turno.getOraInizio(), turno.getOraFine()).toMinutes();
+        // Calcola tempo disponibile nel turno in minuti (anche se prosegue oltre la mezzanotte)
+        int minutiDisponibili = getMinutiTurno(turno);
             
         // Se il tempo totale supera l'80% del tempo disponibile, consideriamo il turno come pieno
-        return tempoTotale >= (minutiDisponibili * 0.8);
+        return tempoTotale >= (minutiDisponibili * SOGLIA_TURNO_PIENO);
     }
     
     /**
@@ -305,10 +636,7 @@ public class CompitoCucinaService {
      * Riferimento: UC "Gestione dei Compiti della cucina" - Passo 7
      */
     public List<Compito> controllaStatoTurno(Turno turno) {
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        return compiti.stream()
-            .filter(compito -> turnoStr.equals(compito.getTurno()))
-            .collect(Collectors.toList());
+        return new ArrayList<>(compitiPerTurno.get(chiaveTurno(turno)));
     }
     
     /**
@@ -330,32 +658,123 @@ public class CompitoCucinaService {
         return turni;
     }
     
+    /**
+     * Trova un turno per ID.
+     */
+    public Turno getTurnoById(int id) {
+        return turniPerId.get(id);
+    }
+    
+    IndiceId<Turno> getIndiceTurni() {
+        return turniPerId;
+    }
+    
+    /**
+     * Restituisce i turni dei giorni indicati (estremi inclusi), in ordine di inizio.
+     */
+    public List<Turno> getTurniTra(java.time.LocalDate primoGiorno, java.time.LocalDate ultimoGiorno) {
+        return calendarioTurni.getInizianoTra(primoGiorno.atStartOfDay(), ultimoGiorno.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Restituisce i turni il cui orario interseca l'intervallo [inizio, fine), in ordine di inizio.
+     */
+    public List<Turno> getTurniSovrapposti(java.time.LocalDateTime inizio, java.time.LocalDateTime fine) {
+        return calendarioTurni.getSovrapposte(inizio, fine);
+    }
+    
+    /**
+     * Salva le modifiche a un turno esistente (es. nuovo orario) e lo riposiziona nel calendario.
+     * I compiti del turno vengono ricollegati al nuovo orario, reindicizzati e salvati.
+     */
+    public void aggiornaTurno(Turno turno) {
+        if (turno != null && turni.contains(turno)) {
+            calendarioTurni.aggiorna(turno);
+            salvaTurniInJson();
+
+            List<Compito> delTurno = new ArrayList<>(compitiPerTurnoId.get(turno.getId()));
+            for (Compito compito : delTurno) {
+                // Il cammino critico era calcolato con la vecchia chiave del turno
+                camminiCritici.remove(compito.getChiaveTurno());
+                compito.risolviTurno(turno);
+            }
+            camminiCritici.remove(chiaveTurno(turno));
+            aggiornaCompiti(delTurno);
+        }
+    }
+    
+    private static java.time.LocalDateTime inizioTurno(Turno turno) {
+        if (turno.getData() == null || turno.getOraInizio() == null) {
+            return null;
+        }
+        return turno.getData().atTime(turno.getOraInizio());
+    }
+    
+    private static java.time.LocalDateTime fineTurno(Turno turno) {
+        if (turno.getData() == null || turno.getOraFine() == null) {
+            return null;
+        }
+        java.time.LocalDateTime fine = turno.getData().atTime(turno.getOraFine());
+        // Un turno che termina prima di iniziare prosegue nel giorno successivo
+        return turno.getOraInizio() != null && !fine.isAfter(inizioTurno(turno)) ? fine.plusDays(1) : fine;
+    }
+
+    /**
+     * Restituisce la durata di un turno in minuti. Un turno che termina prima di iniziare
+     * prosegue nel giorno successivo; senza data o orari la durata è 0.
+     */
+    public static int getMinutiTurno(Turno turno) {
+        java.time.LocalDateTime inizio = turno != null ? inizioTurno(turno) : null;
+        java.time.LocalDateTime fine = turno != null ? fineTurno(turno) : null;
+        if (inizio == null || fine == null) {
+            return 0;
+        }
+        return (int) java.time.Duration.between(inizio, fine).toMinutes();
+    }
+
+    /**
+     * Restituisce la durata in minuti di una fascia oraria, con la stessa regola dei turni:
+     * se termina prima di iniziare prosegue nel giorno successivo. Senza orari la durata è 0.
+     */
+    public static int getMinutiTurno(java.time.LocalTime oraInizio, java.time.LocalTime oraFine) {
+        if (oraInizio == null || oraFine == null) {
+            return 0;
+        }
+        long minuti = java.time.Duration.between(oraInizio, oraFine).toMinutes();
+        return (int) (minuti > 0 ? minuti : minuti + 24 * 60);
+    }
+
+    /**
+     * Restituisce i minuti di lavoro che si possono assegnare a un cuoco in un turno: la quota
+     * {@link #SOGLIA_TURNO_PIENO} della durata, lasciando margine per imprevisti e passaggi tra i compiti.
+     */
+    public static int getCapacitaCuoco(Turno turno) {
+        return getCapacitaCuoco(getMinutiTurno(turno));
+    }
+
+    /**
+     * Restituisce i minuti di lavoro che si possono assegnare a un cuoco in un turno della durata indicata.
+     */
+    public static int getCapacitaCuoco(int minutiTurno) {
+        return (int) (minutiTurno * SOGLIA_TURNO_PIENO);
+    }
+    
     /**
      * Calcola quanto tempo è già stato assegnato a un cuoco per un turno specifico in un evento specifico
      */
     public int getTempoAssegnatoCuoco(Cuoco cuoco, Turno turno, Evento evento) {
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        
-        return compiti.stream()
-            .filter(compito -> 
-                compito.getCuocoAssegnato() != null && 
-                compito.getCuocoAssegnato().equals(cuoco) && 
-                turnoStr.equals(compito.getTurno()) &&
-                (evento == null || eventoContienCompito(evento, compito))) // Se evento è null, considera tutti i compiti
-            .mapToInt(Compito::getTempoStimato)
-            .sum();
+        if (evento == null) {
+            // Se evento è null, considera tutti i compiti
+            return caricoCuochi.getMinuti(chiaveTurno(turno), cuoco.getId());
+        }
+        return caricoCuochi.getMinuti(chiaveTurno(turno), cuoco.getId(), evento.getId());
     }
     
     /**
      * Verifica se un compito appartiene a un evento specifico
      */
-    private boolean eventoContienCompito(Evento evento, Compito compito) {
-        if (evento == null || compito == null) {
-            return false;
-        }
-        
-        // Verifica diretta usando il campo evento del compito
-        return evento.equals(compito.getEvento());
+    private boolean appartieneAEvento(Compito compito, Evento evento) {
+        return compito.getEventoId() != null && compito.getEventoId() == evento.getId();
     }
     
     /**
@@ -365,12 +784,137 @@ public class CompitoCucinaService {
         if (evento == null) {
             return new ArrayList<>(compiti); // Se nessun evento, restituisce tutti i compiti
         }
-        
-        return compiti.stream()
-            .filter(compito -> eventoContienCompito(evento, compito))
+        return new ArrayList<>(compitiPerEvento.get(evento.getId()));
+    }
+    
+    /**
+     * Restituisce i compiti assegnati a un cuoco, in tutti gli eventi.
+     */
+    public List<Compito> getCompitiPerCuoco(Cuoco cuoco) {
+        if (cuoco == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(compitiPerCuoco.get(cuoco.getId()));
+    }
+    
+    /**
+     * Restituisce i compiti di un evento che preparano una ricetta.
+     */
+    public List<Compito> getCompitiPerRicetta(Evento evento, Ricetta ricetta) {
+        if (evento == null || ricetta == null) {
+            return new ArrayList<>();
+        }
+        Collection<Compito> dellEvento = compitiPerEvento.get(evento.getId());
+        Collection<Compito> dellaRicetta = compitiPerRicetta.get(ricetta.getId());
+        if (dellEvento.size() <= dellaRicetta.size()) {
+            return dellEvento.stream()
+                .filter(compito -> compito.getRicettaId() != null && compito.getRicettaId() == ricetta.getId())
+                .collect(Collectors.toList());
+        }
+        return dellaRicetta.stream()
+            .filter(compito -> appartieneAEvento(compito, evento))
             .collect(Collectors.toList());
     }
     
+    /**
+     * Restituisce la chiave con cui i compiti del turno sono indicizzati.
+     */
+    private static ChiaveTurno chiaveTurno(Turno turno) {
+        return ChiaveTurno.di(turno);
+    }
+    
+    /**
+     * Restituisce il turno di un compito: tramite turnoId, oppure per i compiti salvati
+     * solo con la stringa del turno cercando il turno con la stessa data e fascia oraria.
+     */
+    public Turno getTurnoDelCompito(Compito compito) {
+        if (compito == null) {
+            return null;
+        }
+        if (compito.getTurnoId() != null) {
+            Turno turno = turniPerId.get(compito.getTurnoId());
+            if (turno != null) {
+                return turno;
+            }
+        }
+        ChiaveTurno chiave = compito.getChiaveTurno();
+        if (chiave == null) {
+            return null;
+        }
+        return turni.stream()
+            .filter(t -> chiave.equals(ChiaveTurno.di(t)))
+            .findFirst()
+            .orElse(null);
+    }
+    
+    /**
+     * Restituisce le porzioni di una ricetta pianificate, in corso e completate per un evento.
+     */
+    public PorzioniRicette.Porzioni getPorzioni(Evento evento, Ricetta ricetta) {
+        return porzioniRicette.get(evento.getId(), ricetta.getId());
+    }
+    
+    /**
+     * Restituisce le porzioni di una ricetta che mancano per coprire il numero di persone dell'evento.
+     */
+    public double getPorzioniMancanti(Evento evento, Ricetta ricetta) {
+        return Math.max(0, evento.getNumeroDiPersone() - getPorzioni(evento, ricetta).getTotale());
+    }
+    
+    /**
+     * Trova un compito per ID.
+     */
+    public Compito getCompitoById(int id) {
+        return compitiPerId.get(id);
+    }
+    
+    /**
+     * Indica che un compito può iniziare solo dopo il completamento di un altro (es. il fondo prima del risotto).
+     *
+     * @throws IllegalArgumentException se il prerequisito dipende già, anche indirettamente, dal compito
+     */
+    public void aggiungiPrerequisito(Compito compito, Compito prerequisito) {
+        if (compito.getId() == prerequisito.getId() || dipendeDa(prerequisito, compito.getId())) {
+            throw new IllegalArgumentException("Il prerequisito creerebbe un ciclo tra i compiti");
+        }
+        compito.aggiungiPrerequisito(prerequisito.getId());
+        aggiornaCompito(compito);
+    }
+    
+    public void rimuoviPrerequisito(Compito compito, Compito prerequisito) {
+        if (compito.rimuoviPrerequisito(prerequisito.getId())) {
+            aggiornaCompito(compito);
+        }
+    }
+    
+    /**
+     * Verifica se un compito richiede, direttamente o tramite altri prerequisiti, il compito indicato.
+     */
+    public boolean dipendeDa(Compito compito, int compitoId) {
+        Set<Integer> visitati = new HashSet<>();
+        List<Integer> daVisitare = new ArrayList<>(compito.getPrerequisiti());
+        while (!daVisitare.isEmpty()) {
+            int id = daVisitare.remove(daVisitare.size() - 1);
+            if (id == compitoId) {
+                return true;
+            }
+            Compito prerequisito = compitiPerId.get(id);
+            if (visitati.add(id) && prerequisito != null) {
+                daVisitare.addAll(prerequisito.getPrerequisiti());
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Restituisce il cammino critico dei compiti di un turno, calcolato alla prima richiesta
+     * e aggiornato quando cambia la durata di un compito del turno.
+     */
+    public CamminoCritico getCamminoCritico(Turno turno) {
+        ChiaveTurno chiave = chiaveTurno(turno);
+        return camminiCritici.computeIfAbsent(chiave, k -> new CamminoCritico(compitiPerTurno.get(k)));
+    }
+    
     /**
      * Restituisce i cuochi disponibili per un compito specifico (turno + tempo necessario).
      * Un cuoco è disponibile se ha abbastanza tempo libero nel turno per il compito richiesto.
@@ -381,9 +925,8 @@ public class CompitoCucinaService {
             return new ArrayList<>();
         }
         
-        // Calcola la durata del turno in minuti
-        long durataTurnoMinuti = java.time.Duration.between(
-            turno.getOraInizio(), turno.getOraFine()).toMinutes();
+        // Calcola la durata del turno in minuti (anche se prosegue oltre la mezzanotte)
+        int durataTurnoMinuti = getMinutiTurno(turno);
         
         // Verifica che il tempo necessario non superi la durata del turno
         if (tempoNecessario > durataTurnoMinuti) {
@@ -404,11 +947,12 @@ public class CompitoCucinaService {
         }
         
         // Filtra i cuochi che hanno abbastanza tempo disponibile nel turno GLOBALMENTE (tutti gli eventi)
+        Map<Integer, Integer> caricoTurno = caricoCuochi.getMinutiPerCuoco(chiaveTurno(turno));
         return tuttiCuochi.stream()
+            .filter(cuoco -> isCuocoDisponibile(cuoco, turno))
             .filter(cuoco -> {
-                // Usa il metodo deprecated che calcola su tutti gli eventi
-                int tempoGiaAssegnato = getTempoAssegnatoCuoco(cuoco, turno);
-                int tempoRimanente = (int) (durataTurnoMinuti - tempoGiaAssegnato);
+                int tempoGiaAssegnato = caricoTurno.getOrDefault(cuoco.getId(), 0);
+                int tempoRimanente = durataTurnoMinuti - tempoGiaAssegnato;
                 return tempoRimanente >= tempoNecessario; // Ha abbastanza tempo per questo compito
             })
             .collect(Collectors.toList());
@@ -429,15 +973,7 @@ public class CompitoCucinaService {
      */
     @Deprecated
     public int getTempoAssegnatoCuoco(Cuoco cuoco, Turno turno) {
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        
-        return compiti.stream()
-            .filter(compito -> 
-                compito.getCuocoAssegnato() != null && 
-                compito.getCuocoAssegnato().equals(cuoco) && 
-                turnoStr.equals(compito.getTurno()))
-            .mapToInt(Compito::getTempoStimato)
-            .sum();
+        return getTempoAssegnatoCuoco(cuoco, turno, null);
     }
     
     /**
@@ -445,50 +981,56 @@ public class CompitoCucinaService {
      * Deve essere chiamato dopo aver inizializzato tutti i servizi.
      */
     public void risolviRiferimentiCompiti(RicettaService ricettaService, EventoService eventoService, UtenteService utenteService) {
+        risolviRiferimentiCompiti(new RegistroEntita(ricettaService, utenteService, eventoService, this, null));
+    }
+    
+    /**
+     * Risolve i riferimenti nei compiti con le ricerche per ID del registro delle entità.
+     * Deve essere chiamato dopo aver inizializzato tutti i servizi.
+     */
+    public void risolviRiferimentiCompiti(RegistroEntita registro) {
+        this.registro = registro;
         for (Compito compito : compiti) {
-            // Risolvi ricetta
-            if (compito.getRicettaId() != null && ricettaService != null) {
-                Ricetta ricetta = ricettaService.findById(compito.getRicettaId());
-                if (ricetta != null) {
-                    compito.risolviRicetta(ricetta);
-                }
+            Ricetta ricetta = registro.getRicetta(compito.getRicettaId());
+            if (ricetta != null) {
+                compito.risolviRicetta(ricetta);
             }
             
-            // Risolvi cuoco
-            if (compito.getCuocoId() != null && utenteService != null) {
-                Cuoco cuoco = utenteService.getCuochi().stream()
-                    .filter(c -> c.getId() == compito.getCuocoId())
-                    .findFirst()
-                    .orElse(null);
-                if (cuoco != null) {
-                    compito.risolviCuoco(cuoco);
-                }
+            Cuoco cuoco = registro.getCuoco(compito.getCuocoId());
+            if (cuoco != null) {
+                compito.risolviCuoco(cuoco);
             }
             
-            // Risolvi evento
-            if (compito.getEventoId() != null && eventoService != null) {
-                Evento evento = eventoService.getEventi().stream()
-                    .filter(e -> e.getId() == compito.getEventoId())
-                    .findFirst()
-                    .orElse(null);
-                if (evento != null) {
-                    compito.risolviEvento(evento);
-                }
+            Evento evento = registro.getEvento(compito.getEventoId());
+            if (evento != null) {
+                compito.risolviEvento(evento);
             }
             
             // Risolvi turno se disponibile
-            if (compito.getTurnoId() != null) {
-                Turno turno = turni.stream()
-                    .filter(t -> t.getId() == compito.getTurnoId())
-                    .findFirst()
-                    .orElse(null);
-                if (turno != null) {
-                    String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-                    compito.setTurno(turnoStr);
-                }
+            Turno turno = registro.getTurno(compito.getTurnoId());
+            if (turno != null) {
+                compito.risolviTurno(turno);
             }
+            reindicizza(compito);
         }
-        
-
     }
-}
\ No newline at end of file
+    
+    /**
+     * Restituisce il menu di un evento. Se l'evento non è ancora collegato al suo menu, il menu
+     * viene cercato per menuId nel registro con cui sono stati risolti i riferimenti e collegato all'evento.
+     *
+     * @return il menu dell'evento, o null se non è indicato o non è stato trovato
+     */
+    public Menu getMenuEvento(Evento evento) {
+        if (evento == null) {
+            return null;
+        }
+        if (evento.getMenu() == null && registro != null) {
+            Menu menu = registro.getMenu(evento.getMenuId());
+            if (menu != null) {
+                evento.setMenu(menu);
+            }
+        }
+        return evento.getMenu();
+    }
+}
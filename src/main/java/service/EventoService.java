@@ -4,7 +4,13 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import domain.eventi.Evento;
+import domain.menu.Menu;
+import service.indici.IndiceCalendario;
+import service.indici.IndiceId;
 import service.persistence.JsonLoader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -13,6 +19,8 @@ import java.util.List;
  */
 public class EventoService {
     private final ObservableList<Evento> eventi = FXCollections.observableArrayList();
+    private final IndiceId<Evento> eventiPerId = new IndiceId<>(eventi, Evento::getId);
+    private final IndiceCalendario<Evento> calendario = new IndiceCalendario<>(eventi, Evento::getDataInizio, Evento::getDataFine);
     private int nextEventoId = 1;
     
     // Percorso del file JSON degli eventi
@@ -81,6 +89,70 @@ public class EventoService {
         return eventi;
     }
     
+    /**
+     * Trova un evento per ID.
+     */
+    public Evento getEventoById(int id) {
+        return eventiPerId.get(id);
+    }
+    
+    /**
+     * Collega a ogni evento il menu indicato dal suo menuId.
+     */
+    public void risolviMenu(RegistroEntita registro) {
+        for (Evento evento : eventi) {
+            if (evento.getMenu() == null && evento.getMenuId() != null) {
+                Menu menu = registro.getMenu(evento.getMenuId());
+                if (menu != null) {
+                    evento.setMenu(menu);
+                }
+            }
+        }
+    }
+    
+    IndiceId<Evento> getIndiceId() {
+        return eventiPerId;
+    }
+    
+    /**
+     * Restituisce gli eventi che si svolgono, anche in parte, nei giorni indicati (estremi inclusi),
+     * in ordine di inizio.
+     */
+    public List<Evento> getEventiTra(LocalDate primoGiorno, LocalDate ultimoGiorno) {
+        return calendario.getSovrapposte(primoGiorno.atStartOfDay(), ultimoGiorno.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Restituisce gli eventi il cui periodo interseca l'intervallo [inizio, fine).
+     */
+    public List<Evento> getEventiSovrapposti(LocalDateTime inizio, LocalDateTime fine) {
+        return calendario.getSovrapposte(inizio, fine);
+    }
+    
+    /**
+     * Restituisce gli altri eventi che si sovrappongono a un evento.
+     */
+    public List<Evento> getEventiSovrapposti(Evento evento) {
+        if (evento.getDataInizio() == null) {
+            return new ArrayList<>();
+        }
+        LocalDateTime fine = evento.getDataFine() != null && evento.getDataFine().isAfter(evento.getDataInizio())
+            ? evento.getDataFine() : evento.getDataInizio().plusNanos(1);
+        List<Evento> sovrapposti = calendario.getSovrapposte(evento.getDataInizio(), fine);
+        sovrapposti.remove(evento);
+        return sovrapposti;
+    }
+    
+    /**
+     * Riposiziona nel calendario un evento di cui sono cambiate le date e salva la modifica.
+     */
+    public void aggiornaEvento(Evento evento) {
+        if (eventi.contains(evento)) {
+            calendario.aggiorna(evento);
+            salvaEventiInJson();
+        }
+    }
+    
     /**
      * Crea un nuovo evento e lo salva nel file JSON.
      */
@@ -2,7 +2,6 @@ package service;
 
 import domain.compiti.Feedback;
 import service.persistence.JsonLoader;
-import com.fasterxml.jackson.core.type.TypeReference;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -34,18 +33,15 @@ public class FeedbackService {
      * Carica i feedback dal file JSON
      */
     private void loadFeedbacks() {
-        List<Feedback> loadedFeedbacks = JsonLoader.loadFromResources(
-            feedbackFilePath, 
-            new TypeReference<List<Feedback>>() {}
-        );
+        this.feedbacks = FXCollections.observableArrayList();
         
-        this.feedbacks = FXCollections.observableArrayList(loadedFeedbacks);
-        
-        // Calcola il prossimo ID disponibile
-        this.nextId = feedbacks.stream()
-            .mapToInt(Feedback::getId)
-            .max()
-            .orElse(0) + 1;
+        // Legge un feedback alla volta e calcola il prossimo ID disponibile durante la lettura
+        JsonLoader.forEachFromResources(feedbackFilePath, Feedback.class, feedback -> {
+            feedbacks.add(feedback);
+            if (feedback.getId() >= nextId) {
+                nextId = feedback.getId() + 1;
+            }
+        });
     }
     
     /**
@@ -6,9 +6,12 @@ import domain.menu.SezioneMenu;
 import domain.ricette.Ricetta;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import service.indici.IndiceId;
+import service.indici.UtilizziRicette;
 import service.persistence.JsonLoader;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -20,9 +23,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class MenuService {
     @JsonIgnore
     private final ObservableList<Menu> menus = FXCollections.observableArrayList();
+    private final IndiceId<Menu> menuPerId = new IndiceId<>(menus, Menu::getId);
+    // Voci di menu che usano ciascuna ricetta, aggiornate con le modifiche a menu e sezioni
+    private final UtilizziRicette utilizziRicette = new UtilizziRicette(menus);
     private int nextMenuId = 1;
     private final AtomicInteger nextSezioneId = new AtomicInteger(1);
     
+    // Menu letti da correggere o da migrare al solo ID delle ricette, da salvare dopo la risoluzione
+    private boolean daRiscrivere = false;
+    
     // Percorso del file JSON dei menu
     private String jsonPath = "src/main/resources/data/menu.json";
     
@@ -63,6 +72,7 @@ public class MenuService {
                     // Corregge menu con titoli null o vuoti
                     if (menu.getTitolo() == null || menu.getTitolo().trim().isEmpty()) {
                         menu.setTitolo("Menu senza titolo #" + menu.getId());
+                        daRiscrivere = true;
                     }
                     
                     menus.add(menu);
@@ -76,11 +86,12 @@ public class MenuService {
                         if (sezione.getId() >= nextSezioneId.get()) {
                             nextSezioneId.set(sezione.getId() + 1);
                         }
+                        if (sezione.getRicette().stream().anyMatch(domain.menu.RicettaInMenu::haCopiaIncorporata)) {
+                            daRiscrivere = true;
+                        }
                     }
                 }
-                
-                // Salva i menu corretti
-                salvaMenuInJson();
+                // I menu corretti vengono salvati dopo la risoluzione delle ricette (vedi risolviRiferimentiMenu)
             }
         } catch (Exception e) {
             System.err.println("Errore nel caricamento dei menu: " + e.getMessage());
@@ -225,27 +236,133 @@ public class MenuService {
      * @return true se la ricetta è stata modificata con successo, false altrimenti
      */
     public boolean modificaRicetta(Menu menu, Ricetta ricettaDaModificare, Ricetta nuovaRicetta) {
-        boolean ricettaTrovata = false;
+        // Le voci della ricetta vengono dall'indice inverso: si sceglie la prima del menu nell'ordine delle sezioni
+        UtilizziRicette.Posizione trovata = null;
+        for (UtilizziRicette.Posizione posizione : utilizziRicette.get(ricettaDaModificare.getId())) {
+            if (posizione.getMenu() == menu && (trovata == null || precede(menu, posizione, trovata))) {
+                trovata = posizione;
+            }
+        }
+        if (trovata == null) {
+            return false;
+        }
         
-        for (SezioneMenu sezione : menu.getSezioni()) {
-            for (int i = 0; i < sezione.getRicette().size(); i++) {
-                domain.menu.RicettaInMenu ricettaInMenu = sezione.getRicette().get(i);
-                if (ricettaInMenu.getRicettaOriginale().equals(ricettaDaModificare)) {
-                    // Mantiene il nome personalizzato ma cambia la ricetta originale
-                    String nomePersonalizzato = ricettaInMenu.getNomePersonalizzato();
-                    sezione.getRicette().set(i, new domain.menu.RicettaInMenu(nuovaRicetta, nomePersonalizzato));
-                    ricettaTrovata = true;
-                    break;
+        // Mantiene il nome personalizzato ma cambia la ricetta originale
+        domain.menu.RicettaInMenu ricettaInMenu = trovata.getRicettaInMenu();
+        ObservableList<domain.menu.RicettaInMenu> ricette = trovata.getSezione().getRicette();
+        ricette.set(indiceDi(ricette, ricettaInMenu),
+                new domain.menu.RicettaInMenu(nuovaRicetta, ricettaInMenu.getNomePersonalizzato()));
+        salvaMenuInJson();
+        return true;
+    }
+    
+    /**
+     * Sostituisce una ricetta con un'altra in tutti i menu che la usano, mantenendo i nomi personalizzati.
+     *
+     * @return numero di voci di menu modificate
+     */
+    public int sostituisciRicettaNeiMenu(Ricetta ricettaDaModificare, Ricetta nuovaRicetta) {
+        List<UtilizziRicette.Posizione> posizioni = new ArrayList<>(utilizziRicette.get(ricettaDaModificare.getId()));
+        for (UtilizziRicette.Posizione posizione : posizioni) {
+            ObservableList<domain.menu.RicettaInMenu> ricette = posizione.getSezione().getRicette();
+            domain.menu.RicettaInMenu ricettaInMenu = posizione.getRicettaInMenu();
+            ricette.set(indiceDi(ricette, ricettaInMenu),
+                    new domain.menu.RicettaInMenu(nuovaRicetta, ricettaInMenu.getNomePersonalizzato()));
+        }
+        if (!posizioni.isEmpty()) {
+            salvaMenuInJson();
+        }
+        return posizioni.size();
+    }
+    
+    /**
+     * Propaga ai menu la modifica del nome di una ricetta: le voci che usavano il nome originale
+     * prendono il nuovo nome, quelle con un nome personalizzato restano invariate.
+     *
+     * @param ricetta    ricetta modificata
+     * @param vecchioNome nome della ricetta prima della modifica
+     * @return numero di voci di menu aggiornate
+     */
+    public int propagaModificaRicetta(Ricetta ricetta, String vecchioNome) {
+        int aggiornate = 0;
+        for (UtilizziRicette.Posizione posizione : utilizziRicette.get(ricetta.getId())) {
+            domain.menu.RicettaInMenu ricettaInMenu = posizione.getRicettaInMenu();
+            if (vecchioNome != null && vecchioNome.equals(ricettaInMenu.getNomePersonalizzato())) {
+                ricettaInMenu.setNomePersonalizzato(ricetta.getNome());
+                aggiornate++;
+            }
+        }
+        if (aggiornate > 0) {
+            salvaMenuInJson();
+        }
+        return aggiornate;
+    }
+    
+    /**
+     * Restituisce i menu che usano una ricetta.
+     */
+    public List<Menu> getMenuConRicetta(Ricetta ricetta) {
+        return utilizziRicette.getMenu(ricetta.getId());
+    }
+    
+    /**
+     * Verifica se una ricetta è usata in almeno un menu.
+     */
+    public boolean isRicettaInUso(Ricetta ricetta) {
+        return utilizziRicette.isInUso(ricetta.getId());
+    }
+    
+    /**
+     * Ricalcola il flag inUso delle ricette indicate in base ai menu che le usano.
+     */
+    public void aggiornaRicetteInUso(Collection<Ricetta> ricette) {
+        for (Ricetta ricetta : ricette) {
+            ricetta.setInUso(utilizziRicette.isInUso(ricetta.getId()));
+        }
+    }
+    
+    private static boolean precede(Menu menu, UtilizziRicette.Posizione a, UtilizziRicette.Posizione b) {
+        if (a.getSezione() != b.getSezione()) {
+            return menu.getSezioni().indexOf(a.getSezione()) < menu.getSezioni().indexOf(b.getSezione());
+        }
+        List<domain.menu.RicettaInMenu> ricette = a.getSezione().getRicette();
+        return indiceDi(ricette, a.getRicettaInMenu()) < indiceDi(ricette, b.getRicettaInMenu());
+    }
+    
+    // Posizione della voce per identità: voci diverse della stessa ricetta risultano uguali con equals
+    private static int indiceDi(List<domain.menu.RicettaInMenu> ricette, domain.menu.RicettaInMenu ricettaInMenu) {
+        for (int i = 0; i < ricette.size(); i++) {
+            if (ricette.get(i) == ricettaInMenu) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Collega le ricette dei menu alle ricette del ricettario tramite il loro ID.
+     * Deve essere chiamato dopo aver inizializzato il servizio delle ricette; le ricette
+     * non trovate restano quelle lette dal file (se salvate con la copia completa).
+     * I menu corretti o migrati al caricamento vengono salvati solo a questo punto: le voci
+     * risolte passano al solo ID, quelle non trovate conservano la copia completa.
+     */
+    public void risolviRiferimentiMenu(RegistroEntita registro) {
+        for (Menu menu : menus) {
+            for (SezioneMenu sezione : menu.getSezioni()) {
+                for (domain.menu.RicettaInMenu ricettaInMenu : sezione.getRicette()) {
+                    Ricetta ricetta = registro.getRicetta(ricettaInMenu.getRicettaId());
+                    if (ricetta != null) {
+                        ricettaInMenu.risolviRicetta(ricetta);
+                    }
                 }
             }
-            if (ricettaTrovata) break;
         }
-        
-        if (ricettaTrovata) {
+        // Da qui le modifiche ai menu tengono aggiornato il flag inUso delle ricette
+        utilizziRicette.collega(registro::getRicetta);
+        if (daRiscrivere) {
+            daRiscrivere = false;
             salvaMenuInJson();
         }
-        
-        return ricettaTrovata;
     }
     
     public ObservableList<Menu> getMenus() {
@@ -253,12 +370,11 @@ public class MenuService {
     }
     
     public Menu getMenuById(int id) {
-        for (Menu menu : menus) {
-            if (menu.getId() == id) {
-                return menu;
-            }
-        }
-        return null;
+        return menuPerId.get(id);
+    }
+    
+    IndiceId<Menu> getIndiceId() {
+        return menuPerId;
     }
     
     /**
@@ -0,0 +1,55 @@
+package service;
+
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.indici.IndiceId;
+
+/**
+ * Rappresenta il registro condiviso delle entità del sistema di catering indicizzate per ID.
+ * Raccoglie gli indici tenuti dai servizi (ricette, cuochi, eventi, turni e menu), che restano
+ * allineati alle liste dei servizi, e offre ricerche per ID a tempo costante.
+ * I servizi non disponibili possono essere null: le relative ricerche restituiscono null.
+ */
+public class RegistroEntita {
+    private final IndiceId<Ricetta> ricette;
+    private final IndiceId<Cuoco> cuochi;
+    private final IndiceId<Evento> eventi;
+    private final IndiceId<Turno> turni;
+    private final IndiceId<Menu> menu;
+    
+    public RegistroEntita(RicettaService ricettaService, UtenteService utenteService, EventoService eventoService,
+                          CompitoCucinaService compitoCucinaService, MenuService menuService) {
+        this.ricette = ricettaService != null ? ricettaService.getIndiceId() : null;
+        this.cuochi = utenteService != null ? utenteService.getIndiceCuochi() : null;
+        this.eventi = eventoService != null ? eventoService.getIndiceId() : null;
+        this.turni = compitoCucinaService != null ? compitoCucinaService.getIndiceTurni() : null;
+        this.menu = menuService != null ? menuService.getIndiceId() : null;
+    }
+    
+    public Ricetta getRicetta(Integer id) {
+        return cerca(ricette, id);
+    }
+    
+    public Cuoco getCuoco(Integer id) {
+        return cerca(cuochi, id);
+    }
+    
+    public Evento getEvento(Integer id) {
+        return cerca(eventi, id);
+    }
+    
+    public Turno getTurno(Integer id) {
+        return cerca(turni, id);
+    }
+    
+    public Menu getMenu(Integer id) {
+        return cerca(menu, id);
+    }
+    
+    private static <T> T cerca(IndiceId<T> indice, Integer id) {
+        return indice != null && id != null ? indice.get(id) : null;
+    }
+}
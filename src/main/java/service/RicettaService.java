@@ -5,8 +5,14 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import domain.ricette.Ricetta;
+import domain.ricette.Tag;
+import service.indici.IndiceId;
+import service.indici.IndiceTag;
+import service.indici.IndiceTestuale;
 import service.persistence.JsonLoader;
 import ui.viewmodels.RicettaViewModel;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,6 +28,14 @@ import java.util.stream.Collectors;
 public class RicettaService {
     private final ObservableList<Ricetta> ricette = FXCollections.observableArrayList();
     private final ObservableList<RicettaViewModel> ricetteViewModel = FXCollections.observableArrayList();
+    private final IndiceId<Ricetta> ricettePerId = new IndiceId<>(ricette, Ricetta::getId);
+    // Indice per la ricerca su nome, tag e descrizione, in quest'ordine di importanza
+    private final IndiceTestuale<Ricetta> ricercaRicette = new IndiceTestuale<>(ricette, List.of(
+            new IndiceTestuale.Campo<>(Ricetta::getNome, 3),
+            new IndiceTestuale.Campo<>(RicettaService::nomiTag, 2),
+            new IndiceTestuale.Campo<>(Ricetta::getDescrizione, 1)));
+    // Indice dei tag per i filtri con più tag (es. vegetariano e freddo, senza carne)
+    private final IndiceTag<Ricetta> ricettePerTag = new IndiceTag<>(ricette, RicettaService::listaNomiTag);
     private int nextRicettaId = 1;
     
     // Cache per i ViewModel
@@ -107,10 +121,11 @@ public class RicettaService {
      * UTILIZZO: Per recuperare ricette selezionate nei UC
      */
     public Ricetta findById(int id) {
-        return ricette.stream()
-                .filter(r -> r.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return ricettePerId.get(id);
+    }
+    
+    IndiceId<Ricetta> getIndiceId() {
+        return ricettePerId;
     }
     
     /**
@@ -123,6 +138,93 @@ public class RicettaService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Cerca le ricette per nome, tag e descrizione, senza distinguere maiuscole e accenti.
+     * Ogni parola del testo può essere anche solo l'inizio di una parola della ricetta.
+     * UTILIZZO: Per la ricerca durante la digitazione nella selezione delle ricette
+     *
+     * @return ricette trovate dalla più pertinente, tutte le ricette se il testo è vuoto
+     */
+    public List<Ricetta> cercaRicette(String testo) {
+        if (testo == null || testo.isBlank()) {
+            return ricette;
+        }
+        return ricercaRicette.cerca(testo);
+    }
+    
+    /**
+     * Cerca tra le ricette disponibili (pubblicate), nell'ordine di pertinenza.
+     */
+    public List<Ricetta> cercaRicetteDisponibili(String testo) {
+        return cercaRicette(testo).stream()
+                .filter(r -> "Pubblicata".equals(r.getStato()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Cerca tra le ricette disponibili restituendo i loro ViewModel.
+     */
+    public List<RicettaViewModel> cercaRicetteDisponibiliViewModel(String testo) {
+        return cercaRicetteDisponibili(testo).stream()
+                .map(r -> viewModelCache.get(r.getId()))
+                .filter(vm -> vm != null)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Filtra le ricette per tag: devono avere tutti i tag richiesti, almeno uno dei tag alternativi
+     * (se indicati) e nessuno dei tag esclusi. I nomi dei tag non distinguono le maiuscole.
+     * UTILIZZO: Per la composizione dei menu e le verifiche sulle esigenze alimentari degli ospiti
+     *
+     * @param richiesti tag che la ricetta deve avere tutti
+     * @param alternativi tag di cui basta uno, vuoto per non porre la condizione
+     * @param esclusi tag che la ricetta non deve avere
+     */
+    public List<Ricetta> filtraPerTag(Collection<String> richiesti, Collection<String> alternativi, Collection<String> esclusi) {
+        return ricettePerTag.filtra(richiesti, alternativi, esclusi);
+    }
+    
+    /**
+     * Restituisce le ricette con tutti i tag indicati.
+     */
+    public List<Ricetta> getRicetteConTag(String... tag) {
+        return ricettePerTag.filtra(Arrays.asList(tag), List.of(), List.of());
+    }
+    
+    /**
+     * Restituisce le ricette dell'elenco che non hanno il tag indicato
+     * (es. le ricette di un menu non adatte a un ospite celiaco se il tag è "Senza glutine").
+     */
+    public List<Ricetta> getRicetteSenzaTag(Collection<Ricetta> elenco, String tag) {
+        return elenco.stream()
+                .filter(r -> !ricettePerTag.haTag(r, tag))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Restituisce i nomi dei tag usati dalle ricette.
+     */
+    public List<String> getTagDisponibili() {
+        return ricettePerTag.getTag();
+    }
+    
+    /**
+     * Aggiorna gli indici di ricerca e dei tag dopo la modifica di nome, descrizione o tag di una ricetta.
+     */
+    public void aggiornaIndiceRicerca(Ricetta ricetta) {
+        ricercaRicette.aggiorna(ricetta);
+        ricettePerTag.aggiorna(ricetta);
+    }
+    
+    private static String nomiTag(Ricetta ricetta) {
+        return String.join(" ", listaNomiTag(ricetta));
+    }
+    
+    private static List<String> listaNomiTag(Ricetta ricetta) {
+        return ricetta.getTags() == null ? List.of()
+                : ricetta.getTags().stream().map(Tag::getNome).filter(n -> n != null).collect(Collectors.toList());
+    }
+    
     /**
      * Ottiene tutte le ricette caricate.
      */
@@ -139,6 +241,7 @@ public class RicettaService {
         nuovaRicetta.setTempoPreparazione(tempoPreparazione);
         nuovaRicetta.setStato("Pubblicata");
         
+        // L'aggiunta alla lista aggiorna da sola l'indice di ricerca
         ricette.add(nuovaRicetta);
         
         // Crea e aggiungi ViewModel
@@ -3,9 +3,15 @@ package service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import domain.compiti.Disponibilita;
+import domain.compiti.Turno;
 import domain.utenti.Chef;
 import domain.utenti.Cuoco;
+import service.indici.DisponibilitaCuochi;
+import service.indici.IndiceId;
 import service.persistence.JsonLoader;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 
@@ -16,7 +22,10 @@ import java.util.Map;
 public class UtenteService {
     private final ObservableList<Chef> chefs = FXCollections.observableArrayList();
     private final ObservableList<Cuoco> cuochi = FXCollections.observableArrayList();
+    private final IndiceId<Cuoco> cuochiPerId = new IndiceId<>(cuochi, Cuoco::getId);
+    private final DisponibilitaCuochi disponibilitaCuochi = new DisponibilitaCuochi();
     private int nextUtenteId = 1;
+    private int nextDisponibilitaId = 1;
     
     // Percorso del file JSON degli utenti
     private static final String JSON_PATH = "src/main/resources/data/utenti.json";
@@ -62,6 +71,9 @@ public class UtenteService {
                             (String) cuocoData.get("nome"),
                             (String) cuocoData.get("cognome")
                         );
+                        @SuppressWarnings("unchecked")
+                        List<Map<String, Object>> disponibilitaData = (List<Map<String, Object>>) cuocoData.get("disponibilita");
+                        caricaDisponibilita(cuoco, disponibilitaData);
                         cuochi.add(cuoco);
                         updateNextUtenteId(cuoco.getId());
                     }
@@ -75,6 +87,28 @@ public class UtenteService {
         }
     }
     
+    /**
+     * Carica le disponibilità di un cuoco lette dal file JSON e le indicizza.
+     */
+    private void caricaDisponibilita(Cuoco cuoco, List<Map<String, Object>> disponibilitaData) {
+        if (disponibilitaData != null) {
+            for (Map<String, Object> dato : disponibilitaData) {
+                Disponibilita disponibilita = cuoco.fornisceDisponibilita(
+                    (Integer) dato.get("id"),
+                    LocalDate.parse((String) dato.get("data")),
+                    LocalTime.parse((String) dato.get("oraInizio")),
+                    LocalTime.parse((String) dato.get("oraFine"))
+                );
+                disponibilita.setConfermata(Boolean.TRUE.equals(dato.get("confermata")));
+                disponibilita.setRitirata(Boolean.TRUE.equals(dato.get("ritirata")));
+                if (disponibilita.getId() >= nextDisponibilitaId) {
+                    nextDisponibilitaId = disponibilita.getId() + 1;
+                }
+            }
+        }
+        disponibilitaCuochi.aggiorna(cuoco);
+    }
+    
     /**
      * Salva gli utenti nel file JSON.
      */
@@ -122,6 +156,44 @@ public class UtenteService {
         return cuochi;
     }
     
+    /**
+     * Trova un cuoco per ID.
+     */
+    public Cuoco getCuocoById(int id) {
+        return cuochiPerId.get(id);
+    }
+    
+    IndiceId<Cuoco> getIndiceCuochi() {
+        return cuochiPerId;
+    }
+    
+    /**
+     * Registra una finestra di disponibilità di un cuoco e la salva.
+     */
+    public Disponibilita aggiungiDisponibilita(Cuoco cuoco, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        Disponibilita disponibilita = cuoco.fornisceDisponibilita(nextDisponibilitaId++, data, oraInizio, oraFine);
+        disponibilitaCuochi.aggiorna(cuoco);
+        salvaUtentiInJson();
+        return disponibilita;
+    }
+    
+    /**
+     * Ritira una disponibilità data da un cuoco e salva la modifica.
+     */
+    public void ritiraDisponibilita(Cuoco cuoco, Disponibilita disponibilita) {
+        disponibilita.setRitirata(true);
+        disponibilitaCuochi.aggiorna(cuoco);
+        salvaUtentiInJson();
+    }
+    
+    /**
+     * Verifica se un cuoco è presente per l'intero turno secondo le disponibilità che ha dato.
+     * I cuochi che non hanno mai indicato disponibilità sono considerati sempre presenti.
+     */
+    public boolean isDisponibile(Cuoco cuoco, Turno turno) {
+        return disponibilitaCuochi.isDisponibile(cuoco, turno);
+    }
+    
     /**
      * Crea utenti di esempio solo se richiesto esplicitamente.
      * NON viene più chiamato automaticamente.
@@ -0,0 +1,162 @@
+package service.indici;
+
+import domain.compiti.Compito;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta la matrice dei minuti assegnati ai cuochi per turno, e per turno ed evento,
+ * aggiornata in modo incrementale ad ogni aggiunta, rimozione o modifica di un compito.
+ * Le interrogazioni sul carico di un cuoco in un turno sono a tempo costante e non scorrono i compiti.
+ * Quando un compito cambia sul posto (cuoco, turno, evento o durata) va chiamato {@link #aggiorna(Compito)}.
+ *
+ * @param <K> tipo della chiave del turno
+ */
+public class CaricoCuochi<K> {
+
+    /**
+     * Contributo di un compito al carico, come registrato all'ultima indicizzazione.
+     */
+    private static final class Contributo<K> {
+        final K turno;
+        final Integer cuocoId;
+        final Integer eventoId;
+        final int minuti;
+
+        Contributo(K turno, Integer cuocoId, Integer eventoId, int minuti) {
+            this.turno = turno;
+            this.cuocoId = cuocoId;
+            this.eventoId = eventoId;
+            this.minuti = minuti;
+        }
+
+        boolean uguale(Contributo<K> altro) {
+            return Objects.equals(turno, altro.turno) && Objects.equals(cuocoId, altro.cuocoId)
+                    && Objects.equals(eventoId, altro.eventoId) && minuti == altro.minuti;
+        }
+    }
+
+    private final Function<Compito, K> chiaveTurno;
+    private final Map<Compito, Contributo<K>> contributi = new HashMap<>();
+    // turno -> minuti totali (anche dei compiti senza cuoco)
+    private final Map<K, Integer> minutiPerTurno = new HashMap<>();
+    // turno -> cuocoId -> minuti
+    private final Map<K, Map<Integer, Integer>> minutiPerCuoco = new HashMap<>();
+    // turno -> eventoId -> cuocoId -> minuti
+    private final Map<K, Map<Integer, Map<Integer, Integer>>> minutiPerEvento = new HashMap<>();
+
+    /**
+     * Crea la matrice sui compiti presenti nella lista e la collega alle modifiche successive.
+     *
+     * @param compiti     lista osservabile dei compiti
+     * @param chiaveTurno funzione che restituisce la chiave del turno di un compito (null se non ha turno)
+     */
+    public CaricoCuochi(ObservableList<Compito> compiti, Function<Compito, K> chiaveTurno) {
+        this.chiaveTurno = chiaveTurno;
+        compiti.forEach(this::aggiorna);
+        compiti.addListener((ListChangeListener<Compito>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Restituisce i minuti assegnati a un cuoco in un turno, in tutti gli eventi.
+     */
+    public int getMinuti(K turno, int cuocoId) {
+        return minutiPerCuoco.getOrDefault(turno, Collections.emptyMap()).getOrDefault(cuocoId, 0);
+    }
+
+    /**
+     * Restituisce i minuti assegnati a un cuoco in un turno per un evento.
+     */
+    public int getMinuti(K turno, int cuocoId, int eventoId) {
+        return minutiPerEvento.getOrDefault(turno, Collections.emptyMap())
+                .getOrDefault(eventoId, Collections.emptyMap())
+                .getOrDefault(cuocoId, 0);
+    }
+
+    /**
+     * Restituisce i minuti assegnati in un turno per ciascun cuoco (cuocoId -> minuti).
+     * I cuochi senza compiti nel turno non compaiono.
+     */
+    public Map<Integer, Integer> getMinutiPerCuoco(K turno) {
+        return Collections.unmodifiableMap(minutiPerCuoco.getOrDefault(turno, Collections.emptyMap()));
+    }
+
+    /**
+     * Restituisce i minuti totali dei compiti di un turno, assegnati o no.
+     */
+    public int getMinutiTotali(K turno) {
+        return minutiPerTurno.getOrDefault(turno, 0);
+    }
+
+    /**
+     * Ricalcola il contributo di un compito e aggiorna la matrice se è cambiato.
+     */
+    public void aggiorna(Compito compito) {
+        if (compito == null) {
+            return;
+        }
+        K turno = chiaveTurno.apply(compito);
+        Contributo<K> nuovo = turno != null
+                ? new Contributo<>(turno, compito.getCuocoId(), compito.getEventoId(), compito.getTempoStimato())
+                : null;
+        Contributo<K> vecchio = contributi.get(compito);
+        if (vecchio != null && nuovo != null && vecchio.uguale(nuovo)) {
+            return;
+        }
+        rimuovi(compito);
+        if (nuovo != null) {
+            applica(nuovo, 1);
+            contributi.put(compito, nuovo);
+        }
+    }
+
+    private void rimuovi(Compito compito) {
+        Contributo<K> vecchio = contributi.remove(compito);
+        if (vecchio != null) {
+            applica(vecchio, -1);
+        }
+    }
+
+    private void applica(Contributo<K> contributo, int segno) {
+        int delta = segno * contributo.minuti;
+        somma(minutiPerTurno, contributo.turno, delta);
+        if (contributo.cuocoId == null) {
+            return;
+        }
+        Map<Integer, Integer> perCuoco = minutiPerCuoco.computeIfAbsent(contributo.turno, k -> new HashMap<>());
+        somma(perCuoco, contributo.cuocoId, delta);
+        if (perCuoco.isEmpty()) {
+            minutiPerCuoco.remove(contributo.turno);
+        }
+        if (contributo.eventoId != null) {
+            Map<Integer, Map<Integer, Integer>> perEvento =
+                    minutiPerEvento.computeIfAbsent(contributo.turno, k -> new HashMap<>());
+            Map<Integer, Integer> cuochiEvento = perEvento.computeIfAbsent(contributo.eventoId, k -> new HashMap<>());
+            somma(cuochiEvento, contributo.cuocoId, delta);
+            if (cuochiEvento.isEmpty()) {
+                perEvento.remove(contributo.eventoId);
+            }
+            if (perEvento.isEmpty()) {
+                minutiPerEvento.remove(contributo.turno);
+            }
+        }
+    }
+
+    private static <C> void somma(Map<C, Integer> mappa, C chiave, int delta) {
+        // Le voci che tornano a zero vengono eliminate per non accumulare turni passati
+        mappa.merge(chiave, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
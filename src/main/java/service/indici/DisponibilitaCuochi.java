@@ -0,0 +1,63 @@
+package service.indici;
+
+import domain.compiti.Disponibilita;
+import domain.compiti.Turno;
+import domain.utenti.Cuoco;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rappresenta le finestre di disponibilità dei cuochi, con un indice di intervalli per cuoco.
+ * Le disponibilità ritirate non sono considerate. Un cuoco che non ha mai fornito
+ * disponibilità è considerato sempre disponibile, come prima che venissero registrate.
+ */
+public class DisponibilitaCuochi {
+
+    private final Map<Integer, IndiceIntervalli> perCuoco = new HashMap<>();
+
+    /**
+     * Ricostruisce l'indice di un cuoco dalle sue disponibilità.
+     */
+    public void aggiorna(Cuoco cuoco) {
+        IndiceIntervalli intervalli = new IndiceIntervalli();
+        for (Disponibilita disponibilita : cuoco.getDisponibilita()) {
+            if (!disponibilita.isRitirata() && disponibilita.getData() != null
+                    && disponibilita.getOraInizio() != null && disponibilita.getOraFine() != null) {
+                long[] periodo = IndiceIntervalli.intervallo(disponibilita.getData(),
+                    disponibilita.getOraInizio(), disponibilita.getOraFine());
+                intervalli.aggiungi(periodo[0], periodo[1]);
+            }
+        }
+        if (cuoco.getDisponibilita().isEmpty()) {
+            perCuoco.remove(cuoco.getId());
+        } else {
+            perCuoco.put(cuoco.getId(), intervalli);
+        }
+    }
+
+    public void rimuovi(Cuoco cuoco) {
+        perCuoco.remove(cuoco.getId());
+    }
+
+    /**
+     * Verifica se il cuoco ha dato disponibilità per l'intera durata del turno.
+     */
+    public boolean isDisponibile(Cuoco cuoco, Turno turno) {
+        IndiceIntervalli intervalli = perCuoco.get(cuoco.getId());
+        if (intervalli == null) {
+            return true;
+        }
+        if (turno == null || turno.getData() == null || turno.getOraInizio() == null || turno.getOraFine() == null) {
+            return false;
+        }
+        long[] periodo = IndiceIntervalli.intervallo(turno.getData(), turno.getOraInizio(), turno.getOraFine());
+        return intervalli.copre(periodo[0], periodo[1]);
+    }
+
+    /**
+     * Verifica se il cuoco ha registrato delle disponibilità.
+     */
+    public boolean haDisponibilita(Cuoco cuoco) {
+        return perCuoco.containsKey(cuoco.getId());
+    }
+}
@@ -0,0 +1,136 @@
+package service.indici;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta un indice per data e ora su una lista osservabile di entità con un periodo
+ * (es. turni ed eventi). Le entità sono ordinate per inizio in una mappa navigabile, così le
+ * ricerche per intervallo di date leggono solo la porzione di calendario richiesta.
+ * Per le sovrapposizioni l'indice ricorda la durata più lunga incontrata: un periodo che
+ * interseca l'intervallo cercato inizia al più quella durata prima dell'intervallo.
+ *
+ * Aggiunte e rimozioni nella lista aggiornano l'indice da sole; quando il periodo di un'entità
+ * cambia sul posto (es. nuovo orario di un turno) va chiamato {@link #aggiorna(Object)}.
+ * Le entità senza inizio non vengono indicizzate.
+ *
+ * @param <T> tipo delle entità indicizzate
+ */
+public class IndiceCalendario<T> {
+
+    private final NavigableMap<LocalDateTime, Set<T>> perInizio = new TreeMap<>();
+    private final Map<T, LocalDateTime> inizioCorrente = new HashMap<>();
+    private final Function<T, LocalDateTime> estraiInizio;
+    private final Function<T, LocalDateTime> estraiFine;
+    // Durata massima tra le entità indicizzate (non diminuisce con le rimozioni: resta un limite valido)
+    private Duration durataMassima = Duration.ZERO;
+
+    /**
+     * Crea l'indice sulle entità presenti nella lista e lo collega alle modifiche successive.
+     *
+     * @param lista        lista osservabile di cui tenere l'indice
+     * @param estraiInizio funzione che restituisce l'inizio del periodo (null per non indicizzare)
+     * @param estraiFine   funzione che restituisce la fine del periodo (null se coincide con l'inizio)
+     */
+    public IndiceCalendario(ObservableList<T> lista, Function<T, LocalDateTime> estraiInizio,
+                            Function<T, LocalDateTime> estraiFine) {
+        this.estraiInizio = estraiInizio;
+        this.estraiFine = estraiFine;
+        lista.forEach(this::aggiorna);
+        lista.addListener((ListChangeListener<T>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Restituisce le entità che iniziano nell'intervallo [da, a), in ordine di inizio.
+     */
+    public List<T> getInizianoTra(LocalDateTime da, LocalDateTime a) {
+        List<T> risultato = new ArrayList<>();
+        if (da.isBefore(a)) {
+            perInizio.subMap(da, true, a, false).values().forEach(risultato::addAll);
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce le entità il cui periodo interseca l'intervallo [da, a), in ordine di inizio.
+     * Le entità senza durata sono incluse se cadono nell'intervallo.
+     */
+    public List<T> getSovrapposte(LocalDateTime da, LocalDateTime a) {
+        List<T> risultato = new ArrayList<>();
+        if (!da.isBefore(a)) {
+            return risultato;
+        }
+        for (Set<T> entita : perInizio.subMap(da.minus(durataMassima), true, a, false).values()) {
+            for (T singola : entita) {
+                // Inizia prima della fine dell'intervallo: basta che finisca dopo il suo inizio
+                if (fineDi(singola).isAfter(da) || !inizioCorrente.get(singola).isBefore(da)) {
+                    risultato.add(singola);
+                }
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Ricalcola la posizione di un'entità il cui periodo è cambiato.
+     */
+    public void aggiorna(T entita) {
+        if (entita == null) {
+            return;
+        }
+        rimuovi(entita);
+        LocalDateTime inizio = estraiInizio.apply(entita);
+        if (inizio == null) {
+            return;
+        }
+        perInizio.computeIfAbsent(inizio, k -> new LinkedHashSet<>()).add(entita);
+        inizioCorrente.put(entita, inizio);
+        Duration durata = Duration.between(inizio, fineDi(entita));
+        if (durata.compareTo(durataMassima) > 0) {
+            durataMassima = durata;
+        }
+    }
+
+    public int size() {
+        return inizioCorrente.size();
+    }
+
+    private LocalDateTime fineDi(T entita) {
+        LocalDateTime inizio = estraiInizio.apply(entita);
+        LocalDateTime fine = estraiFine.apply(entita);
+        return fine != null && fine.isAfter(inizio) ? fine : inizio;
+    }
+
+    private void rimuovi(T entita) {
+        LocalDateTime vecchio = inizioCorrente.remove(entita);
+        if (vecchio == null) {
+            return;
+        }
+        Set<T> entitaInizio = perInizio.get(vecchio);
+        if (entitaInizio != null) {
+            entitaInizio.remove(entita);
+            if (entitaInizio.isEmpty()) {
+                perInizio.remove(vecchio);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package service.indici;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta un indice per identificativo su una lista osservabile di entità.
+ * L'indice si aggiorna da solo ad ogni aggiunta, rimozione o sostituzione nella lista,
+ * così le ricerche per id non devono scorrere l'intera lista.
+ *
+ * @param <T> tipo delle entità indicizzate
+ */
+public class IndiceId<T> {
+
+    private final Map<Integer, T> perId = new HashMap<>();
+    private final ToIntFunction<T> estraiId;
+
+    /**
+     * Crea l'indice sulle entità presenti nella lista e lo collega alle modifiche successive.
+     *
+     * @param lista    lista osservabile di cui tenere l'indice
+     * @param estraiId funzione che restituisce l'identificativo di un'entità
+     */
+    public IndiceId(ObservableList<T> lista, ToIntFunction<T> estraiId) {
+        this.estraiId = estraiId;
+        lista.forEach(this::aggiungi);
+        lista.addListener((ListChangeListener<T>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiungi);
+            }
+        });
+    }
+
+    /**
+     * Restituisce l'entità con l'identificativo indicato.
+     *
+     * @return l'entità trovata, o null se non esiste
+     */
+    public T get(int id) {
+        return perId.get(id);
+    }
+
+    /**
+     * Restituisce le entità indicizzate, senza ordine garantito.
+     */
+    public Collection<T> valori() {
+        return Collections.unmodifiableCollection(perId.values());
+    }
+
+    public int size() {
+        return perId.size();
+    }
+
+    private void aggiungi(T entita) {
+        if (entita != null) {
+            perId.put(estraiId.applyAsInt(entita), entita);
+        }
+    }
+
+    private void rimuovi(T entita) {
+        if (entita != null) {
+            // Rimuove solo se l'id punta ancora a questa istanza (es. sostituzione con stesso id)
+            perId.remove(estraiId.applyAsInt(entita), entita);
+        }
+    }
+}
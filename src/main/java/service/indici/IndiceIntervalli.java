@@ -0,0 +1,91 @@
+package service.indici;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rappresenta un insieme di intervalli di tempo tenuti ordinati per inizio.
+ * Gli intervalli che si sovrappongono o si toccano vengono fusi all'inserimento, quindi
+ * gli intervalli memorizzati sono disgiunti e verificare se un periodo è coperto o
+ * intersecato richiede una sola ricerca logaritmica nella mappa ordinata.
+ * I tempi sono espressi in minuti dall'epoca (vedi {@link #minuti(LocalDate, LocalTime)}).
+ */
+public class IndiceIntervalli {
+
+    // Inizio -> fine (esclusa) degli intervalli disgiunti
+    private final TreeMap<Long, Long> intervalli = new TreeMap<>();
+
+    /**
+     * Converte data e ora in minuti dall'epoca.
+     */
+    public static long minuti(LocalDate data, LocalTime ora) {
+        return data.toEpochDay() * 24 * 60 + ora.toSecondOfDay() / 60;
+    }
+
+    /**
+     * Converte una fascia oraria di un giorno in un intervallo [inizio, fine) in minuti dall'epoca.
+     * Una fascia che termina prima di iniziare prosegue nel giorno successivo.
+     */
+    public static long[] intervallo(LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        long inizio = minuti(data, oraInizio);
+        long fine = minuti(data, oraFine);
+        if (fine <= inizio) {
+            fine += 24 * 60;
+        }
+        return new long[] {inizio, fine};
+    }
+
+    /**
+     * Aggiunge l'intervallo [inizio, fine), fondendolo con quelli che tocca.
+     */
+    public void aggiungi(long inizio, long fine) {
+        if (fine <= inizio) {
+            return;
+        }
+        Map.Entry<Long, Long> precedente = intervalli.floorEntry(inizio);
+        if (precedente != null && precedente.getValue() >= inizio) {
+            inizio = precedente.getKey();
+            fine = Math.max(fine, precedente.getValue());
+        }
+        Map.Entry<Long, Long> successivo = intervalli.ceilingEntry(inizio);
+        while (successivo != null && successivo.getKey() <= fine) {
+            fine = Math.max(fine, successivo.getValue());
+            intervalli.remove(successivo.getKey());
+            successivo = intervalli.ceilingEntry(inizio);
+        }
+        intervalli.put(inizio, fine);
+    }
+
+    /**
+     * Verifica se l'intervallo [inizio, fine) è interamente coperto.
+     */
+    public boolean copre(long inizio, long fine) {
+        Map.Entry<Long, Long> contenitore = intervalli.floorEntry(inizio);
+        return contenitore != null && contenitore.getValue() >= fine;
+    }
+
+    /**
+     * Verifica se l'intervallo [inizio, fine) interseca almeno un intervallo.
+     */
+    public boolean sovrappone(long inizio, long fine) {
+        Map.Entry<Long, Long> precedente = intervalli.lowerEntry(fine);
+        return precedente != null && precedente.getValue() > inizio;
+    }
+
+    public void svuota() {
+        intervalli.clear();
+    }
+
+    public boolean isVuoto() {
+        return intervalli.isEmpty();
+    }
+
+    /**
+     * Restituisce il numero di intervalli disgiunti dopo le fusioni.
+     */
+    public int size() {
+        return intervalli.size();
+    }
+}
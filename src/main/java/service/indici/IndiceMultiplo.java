@@ -0,0 +1,98 @@
+package service.indici;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta un indice secondario su una lista osservabile: per ogni chiave (es. l'id del cuoco)
+ * raccoglie le entità che la condividono. Aggiunte e rimozioni nella lista aggiornano l'indice da sole;
+ * quando la chiave di un'entità cambia sul posto (es. riassegnazione a un altro cuoco) va chiamato
+ * {@link #aggiorna(Object)}. Le entità con chiave null non vengono indicizzate.
+ *
+ * @param <K> tipo della chiave
+ * @param <T> tipo delle entità indicizzate
+ */
+public class IndiceMultiplo<K, T> {
+
+    private final Map<K, Set<T>> perChiave = new HashMap<>();
+    private final Map<T, K> chiaveCorrente = new HashMap<>();
+    private final Function<T, K> estraiChiave;
+
+    /**
+     * Crea l'indice sulle entità presenti nella lista e lo collega alle modifiche successive.
+     *
+     * @param lista        lista osservabile di cui tenere l'indice
+     * @param estraiChiave funzione che restituisce la chiave di un'entità (null per non indicizzarla)
+     */
+    public IndiceMultiplo(ObservableList<T> lista, Function<T, K> estraiChiave) {
+        this.estraiChiave = estraiChiave;
+        lista.forEach(this::aggiorna);
+        lista.addListener((ListChangeListener<T>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Restituisce le entità con la chiave indicata, nell'ordine di indicizzazione.
+     *
+     * @return vista non modificabile delle entità, vuota se nessuna ha la chiave
+     */
+    public Collection<T> get(K chiave) {
+        Set<T> entita = perChiave.get(chiave);
+        return entita != null ? Collections.unmodifiableSet(entita) : Collections.emptySet();
+    }
+
+    /**
+     * Restituisce il numero di entità con la chiave indicata.
+     */
+    public int conta(K chiave) {
+        Set<T> entita = perChiave.get(chiave);
+        return entita != null ? entita.size() : 0;
+    }
+
+    /**
+     * Ricalcola la chiave di un'entità e la sposta se è cambiata.
+     */
+    public void aggiorna(T entita) {
+        if (entita == null) {
+            return;
+        }
+        K nuova = estraiChiave.apply(entita);
+        if (chiaveCorrente.containsKey(entita) && Objects.equals(chiaveCorrente.get(entita), nuova)) {
+            return;
+        }
+        rimuovi(entita);
+        if (nuova != null) {
+            perChiave.computeIfAbsent(nuova, k -> new LinkedHashSet<>()).add(entita);
+            chiaveCorrente.put(entita, nuova);
+        }
+    }
+
+    private void rimuovi(T entita) {
+        if (!chiaveCorrente.containsKey(entita)) {
+            return;
+        }
+        K vecchia = chiaveCorrente.remove(entita);
+        Set<T> entitaChiave = perChiave.get(vecchia);
+        if (entitaChiave != null) {
+            entitaChiave.remove(entita);
+            if (entitaChiave.isEmpty()) {
+                perChiave.remove(vecchia);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package service.indici;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta un indice dei tag a insiemi di bit su una lista osservabile. Ogni tag distinto riceve
+ * un numero d'ordine e ogni entità una posizione; per ogni tag si tiene l'insieme delle posizioni
+ * delle entità che lo hanno e per ogni entità l'insieme dei suoi tag. Le interrogazioni con più tag
+ * (tutti, almeno uno, nessuno) diventano così AND, OR e AND NOT tra insiemi di bit, senza scorrere
+ * i tag delle entità. I nomi dei tag non distinguono maiuscole e spazi iniziali o finali.
+ *
+ * Aggiunte e rimozioni nella lista aggiornano l'indice da sole; quando i tag di un'entità cambiano
+ * sul posto va chiamato {@link #aggiorna(Object)}.
+ *
+ * @param <T> tipo delle entità indicizzate
+ */
+public class IndiceTag<T> {
+
+    private final Function<T, Collection<String>> estraiTag;
+    // Dizionario dei tag: nome normalizzato -> numero d'ordine, e nome originale per numero d'ordine
+    private final Map<String, Integer> ordinali = new HashMap<>();
+    private final List<String> nomi = new ArrayList<>();
+    private final List<BitSet> entitaPerTag = new ArrayList<>();
+    // Posizioni delle entità, riusate dopo le rimozioni
+    private final Map<T, Integer> posizioni = new HashMap<>();
+    private final List<T> perPosizione = new ArrayList<>();
+    private final Deque<Integer> posizioniLibere = new ArrayDeque<>();
+    private final BitSet occupate = new BitSet();
+    private final Map<T, BitSet> tagPerEntita = new HashMap<>();
+
+    /**
+     * Crea l'indice sulle entità presenti nella lista e lo collega alle modifiche successive.
+     *
+     * @param lista     lista osservabile di cui tenere l'indice
+     * @param estraiTag funzione che restituisce i nomi dei tag di un'entità
+     */
+    public IndiceTag(ObservableList<T> lista, Function<T, Collection<String>> estraiTag) {
+        this.estraiTag = estraiTag;
+        lista.forEach(this::aggiorna);
+        lista.addListener((ListChangeListener<T>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Restituisce le entità che hanno tutti i tag del primo gruppo, almeno uno del secondo
+     * (se non è vuoto) e nessuno del terzo.
+     *
+     * @param tutti     tag richiesti, tutti insieme
+     * @param almenoUno tag alternativi, ne basta uno; vuoto per non porre la condizione
+     * @param nessuno   tag esclusi
+     * @return entità trovate nell'ordine delle loro posizioni
+     */
+    public List<T> filtra(Collection<String> tutti, Collection<String> almenoUno, Collection<String> nessuno) {
+        BitSet risultato = (BitSet) occupate.clone();
+        for (String tag : tutti) {
+            BitSet entita = entitaConTag(tag);
+            if (entita == null) {
+                return Collections.emptyList();
+            }
+            risultato.and(entita);
+        }
+        if (!almenoUno.isEmpty()) {
+            BitSet alternative = new BitSet();
+            for (String tag : almenoUno) {
+                BitSet entita = entitaConTag(tag);
+                if (entita != null) {
+                    alternative.or(entita);
+                }
+            }
+            risultato.and(alternative);
+        }
+        for (String tag : nessuno) {
+            BitSet entita = entitaConTag(tag);
+            if (entita != null) {
+                risultato.andNot(entita);
+            }
+        }
+        List<T> trovate = new ArrayList<>(risultato.cardinality());
+        for (int i = risultato.nextSetBit(0); i >= 0; i = risultato.nextSetBit(i + 1)) {
+            trovate.add(perPosizione.get(i));
+        }
+        return trovate;
+    }
+
+    /**
+     * Verifica se un'entità indicizzata ha il tag indicato.
+     */
+    public boolean haTag(T entita, String tag) {
+        BitSet tagEntita = tagPerEntita.get(entita);
+        Integer ordinale = tag != null ? ordinali.get(normalizza(tag)) : null;
+        return tagEntita != null && ordinale != null && tagEntita.get(ordinale);
+    }
+
+    /**
+     * Restituisce il numero di entità con il tag indicato.
+     */
+    public int conta(String tag) {
+        BitSet entita = entitaConTag(tag);
+        return entita != null ? entita.cardinality() : 0;
+    }
+
+    /**
+     * Restituisce i nomi dei tag usati da almeno un'entità, nell'ordine in cui sono comparsi.
+     */
+    public List<String> getTag() {
+        List<String> usati = new ArrayList<>();
+        for (int i = 0; i < nomi.size(); i++) {
+            if (!entitaPerTag.get(i).isEmpty()) {
+                usati.add(nomi.get(i));
+            }
+        }
+        return usati;
+    }
+
+    /**
+     * Ricalcola i tag di un'entità e aggiorna gli insiemi di bit.
+     */
+    public void aggiorna(T entita) {
+        if (entita == null) {
+            return;
+        }
+        Integer posizione = posizioni.get(entita);
+        if (posizione == null) {
+            posizione = posizioniLibere.isEmpty() ? perPosizione.size() : posizioniLibere.pop();
+            if (posizione == perPosizione.size()) {
+                perPosizione.add(entita);
+            } else {
+                perPosizione.set(posizione, entita);
+            }
+            posizioni.put(entita, posizione);
+            occupate.set(posizione);
+        }
+        BitSet vecchi = tagPerEntita.getOrDefault(entita, new BitSet());
+        BitSet nuovi = new BitSet();
+        Collection<String> tag = estraiTag.apply(entita);
+        if (tag != null) {
+            for (String nome : tag) {
+                if (nome != null && !nome.isBlank()) {
+                    nuovi.set(ordinale(nome));
+                }
+            }
+        }
+        for (int i = vecchi.nextSetBit(0); i >= 0; i = vecchi.nextSetBit(i + 1)) {
+            if (!nuovi.get(i)) {
+                entitaPerTag.get(i).clear(posizione);
+            }
+        }
+        for (int i = nuovi.nextSetBit(0); i >= 0; i = nuovi.nextSetBit(i + 1)) {
+            entitaPerTag.get(i).set(posizione);
+        }
+        tagPerEntita.put(entita, nuovi);
+    }
+
+    private void rimuovi(T entita) {
+        Integer posizione = posizioni.remove(entita);
+        if (posizione == null) {
+            return;
+        }
+        BitSet tag = tagPerEntita.remove(entita);
+        for (int i = tag.nextSetBit(0); i >= 0; i = tag.nextSetBit(i + 1)) {
+            entitaPerTag.get(i).clear(posizione);
+        }
+        occupate.clear(posizione);
+        perPosizione.set(posizione, null);
+        posizioniLibere.push(posizione);
+    }
+
+    private BitSet entitaConTag(String tag) {
+        Integer ordinale = tag != null ? ordinali.get(normalizza(tag)) : null;
+        return ordinale != null ? entitaPerTag.get(ordinale) : null;
+    }
+
+    private int ordinale(String nome) {
+        return ordinali.computeIfAbsent(normalizza(nome), chiave -> {
+            nomi.add(nome.trim());
+            entitaPerTag.add(new BitSet());
+            return nomi.size() - 1;
+        });
+    }
+
+    private static String normalizza(String tag) {
+        return tag.trim().toLowerCase(Locale.ITALIAN);
+    }
+}
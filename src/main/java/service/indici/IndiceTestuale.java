@@ -0,0 +1,193 @@
+package service.indici;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta un indice invertito per la ricerca testuale su una lista osservabile: per ogni parola
+ * dei campi indicizzati raccoglie le entità che la contengono, con il peso del campo più importante
+ * in cui compare. Le parole sono normalizzate senza accenti e in minuscolo, e gli articoli e le
+ * preposizioni italiane più comuni non vengono indicizzati.
+ *
+ * Ogni parola cercata deve comparire, anche solo come prefisso, in un campo dell'entità; i risultati
+ * sono ordinati per punteggio (somma dei pesi, doppi per le parole intere) e poi per ordine di
+ * indicizzazione. Aggiunte e rimozioni nella lista aggiornano l'indice da sole; quando un campo cambia
+ * sul posto va chiamato {@link #aggiorna(Object)}.
+ *
+ * @param <T> tipo delle entità indicizzate
+ */
+public class IndiceTestuale<T> {
+
+    private static final Pattern SEPARATORI = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SEGNI_DIACRITICI = Pattern.compile("\\p{M}+");
+    private static final Set<String> PAROLE_VUOTE = Set.of(
+            "a", "ad", "al", "alla", "alle", "allo", "ai", "agli", "con", "da", "dal", "dalla", "dei", "del",
+            "della", "delle", "dello", "degli", "di", "e", "ed", "gli", "i", "il", "in", "la", "le", "lo",
+            "nel", "nella", "per", "su", "sul", "sulla", "un", "una", "uno");
+
+    /**
+     * Rappresenta un campo di testo indicizzato con il suo peso nel punteggio.
+     *
+     * @param <T> tipo delle entità indicizzate
+     */
+    public static final class Campo<T> {
+        private final Function<T, String> testo;
+        private final int peso;
+
+        /**
+         * @param testo funzione che restituisce il testo del campo (null se assente)
+         * @param peso  peso del campo nel punteggio, maggiore per i campi più importanti
+         */
+        public Campo(Function<T, String> testo, int peso) {
+            this.testo = testo;
+            this.peso = peso;
+        }
+    }
+
+    private final List<Campo<T>> campi;
+    // Parola -> entità che la contengono, con il peso del campo migliore
+    private final NavigableMap<String, Map<T, Integer>> perParola = new TreeMap<>();
+    private final Map<T, Set<String>> paroleCorrenti = new HashMap<>();
+    // Ordine di indicizzazione, usato a parità di punteggio
+    private final Map<T, Long> ordine = new HashMap<>();
+    private long prossimo;
+
+    /**
+     * Crea l'indice sulle entità presenti nella lista e lo collega alle modifiche successive.
+     *
+     * @param lista lista osservabile di cui tenere l'indice
+     * @param campi campi di testo da indicizzare
+     */
+    public IndiceTestuale(ObservableList<T> lista, List<Campo<T>> campi) {
+        this.campi = List.copyOf(campi);
+        lista.forEach(this::aggiorna);
+        lista.addListener((ListChangeListener<T>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Cerca le entità che contengono tutte le parole del testo, anche come prefisso. Articoli e
+     * preposizioni sono ignorati, tranne quando sono l'unica parola cercata.
+     *
+     * @return entità trovate in ordine di punteggio, vuoto se il testo non ha parole da cercare
+     */
+    public List<T> cerca(String testo) {
+        List<String> parole = new ArrayList<>(new LinkedHashSet<>(paroleDi(testo, false)));
+        Map<T, Integer> punteggi = null;
+        for (String parola : parole) {
+            boolean vuota = PAROLE_VUOTE.contains(parola);
+            // Articoli e preposizioni non sono indicizzati: valgono come prefisso solo se sono l'unica parola
+            if (vuota && parole.size() > 1) {
+                continue;
+            }
+            Map<T, Integer> trovate = new HashMap<>();
+            for (Map.Entry<String, Map<T, Integer>> voce : perParola.subMap(parola, true, parola + Character.MAX_VALUE, false).entrySet()) {
+                boolean intera = voce.getKey().equals(parola);
+                for (Map.Entry<T, Integer> entita : voce.getValue().entrySet()) {
+                    if (punteggi == null || punteggi.containsKey(entita.getKey())) {
+                        trovate.merge(entita.getKey(), intera ? entita.getValue() * 2 : entita.getValue(), Math::max);
+                    }
+                }
+            }
+            if (punteggi != null) {
+                Map<T, Integer> precedenti = punteggi;
+                trovate.replaceAll((entita, punteggio) -> punteggio + precedenti.get(entita));
+            }
+            punteggi = trovate;
+            if (punteggi.isEmpty()) {
+                break;
+            }
+        }
+        if (punteggi == null) {
+            return Collections.emptyList();
+        }
+        Map<T, Integer> finali = punteggi;
+        List<T> risultati = new ArrayList<>(finali.keySet());
+        risultati.sort((a, b) -> {
+            int confronto = Integer.compare(finali.get(b), finali.get(a));
+            return confronto != 0 ? confronto : Long.compare(ordine.get(a), ordine.get(b));
+        });
+        return risultati;
+    }
+
+    /**
+     * Ricalcola le parole di un'entità e aggiorna l'indice.
+     */
+    public void aggiorna(T entita) {
+        if (entita == null) {
+            return;
+        }
+        Map<String, Integer> nuove = new HashMap<>();
+        for (Campo<T> campo : campi) {
+            for (String parola : paroleDi(campo.testo.apply(entita), true)) {
+                nuove.merge(parola, campo.peso, Math::max);
+            }
+        }
+        Long posizione = ordine.get(entita);
+        rimuovi(entita);
+        ordine.put(entita, posizione != null ? posizione : prossimo++);
+        nuove.forEach((parola, peso) -> perParola.computeIfAbsent(parola, p -> new HashMap<>()).put(entita, peso));
+        paroleCorrenti.put(entita, nuove.keySet());
+    }
+
+    /**
+     * Restituisce il numero di parole distinte indicizzate.
+     */
+    public int size() {
+        return perParola.size();
+    }
+
+    private void rimuovi(T entita) {
+        ordine.remove(entita);
+        Set<String> vecchie = paroleCorrenti.remove(entita);
+        if (vecchie == null) {
+            return;
+        }
+        for (String parola : vecchie) {
+            Map<T, Integer> entitaParola = perParola.get(parola);
+            entitaParola.remove(entita);
+            if (entitaParola.isEmpty()) {
+                perParola.remove(parola);
+            }
+        }
+    }
+
+    /**
+     * Divide un testo in parole senza accenti e in minuscolo.
+     *
+     * @param senzaParoleVuote true per escludere articoli e preposizioni
+     */
+    static List<String> paroleDi(String testo, boolean senzaParoleVuote) {
+        List<String> parole = new ArrayList<>();
+        if (testo == null || testo.isBlank()) {
+            return parole;
+        }
+        String normalizzato = SEGNI_DIACRITICI.matcher(Normalizer.normalize(testo, Normalizer.Form.NFD)).replaceAll("");
+        for (String parola : SEPARATORI.split(normalizzato.toLowerCase(Locale.ITALIAN))) {
+            if (!parola.isEmpty() && !(senzaParoleVuote && PAROLE_VUOTE.contains(parola))) {
+                parole.add(parola);
+            }
+        }
+        return parole;
+    }
+}
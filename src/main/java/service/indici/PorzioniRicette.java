@@ -0,0 +1,159 @@
+package service.indici;
+
+import domain.compiti.Compito;
+import java.util.HashMap;
+import java.util.Map;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta le porzioni dei compiti aggregate per evento e ricetta, divise tra pianificate
+ * (non ancora iniziate, anche se bloccate), in corso e completate. L'aggregato viene aggiornato
+ * in modo incrementale ad ogni aggiunta, rimozione o modifica di un compito, così le interrogazioni
+ * sono a tempo costante e non scorrono i compiti.
+ * Quando un compito cambia sul posto (stato, quantità, evento o ricetta) va chiamato {@link #aggiorna(Compito)}.
+ */
+public class PorzioniRicette {
+
+    static final String STATO_IN_CORSO = "In corso";
+    static final String STATO_COMPLETATO = "Completato";
+
+    private static final int PIANIFICATE = 0;
+    private static final int IN_CORSO = 1;
+    private static final int COMPLETATE = 2;
+
+    /**
+     * Rappresenta le porzioni di una ricetta in un evento.
+     */
+    public static final class Porzioni {
+        static final Porzioni NESSUNA = new Porzioni();
+
+        private final double[] quantita = new double[3];
+        private int compiti;
+
+        /**
+         * Restituisce le porzioni dei compiti non ancora iniziati.
+         */
+        public double getPianificate() {
+            return quantita[PIANIFICATE];
+        }
+
+        public double getInCorso() {
+            return quantita[IN_CORSO];
+        }
+
+        public double getCompletate() {
+            return quantita[COMPLETATE];
+        }
+
+        /**
+         * Restituisce le porzioni dei compiti non ancora completati.
+         */
+        public double getDaCompletare() {
+            return quantita[PIANIFICATE] + quantita[IN_CORSO];
+        }
+
+        public double getTotale() {
+            return quantita[PIANIFICATE] + quantita[IN_CORSO] + quantita[COMPLETATE];
+        }
+
+        public int getNumeroCompiti() {
+            return compiti;
+        }
+    }
+
+    /**
+     * Contributo di un compito all'aggregato, come registrato all'ultima indicizzazione.
+     */
+    private static final class Contributo {
+        final long chiave;
+        final int categoria;
+        final double quantita;
+
+        Contributo(long chiave, int categoria, double quantita) {
+            this.chiave = chiave;
+            this.categoria = categoria;
+            this.quantita = quantita;
+        }
+
+        boolean uguale(Contributo altro) {
+            return chiave == altro.chiave && categoria == altro.categoria
+                    && Double.compare(quantita, altro.quantita) == 0;
+        }
+    }
+
+    private final Map<Compito, Contributo> contributi = new HashMap<>();
+    private final Map<Long, Porzioni> porzioni = new HashMap<>();
+
+    /**
+     * Crea l'aggregato sui compiti presenti nella lista e lo collega alle modifiche successive.
+     */
+    public PorzioniRicette(ObservableList<Compito> compiti) {
+        compiti.forEach(this::aggiorna);
+        compiti.addListener((ListChangeListener<Compito>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(this::aggiorna);
+            }
+        });
+    }
+
+    /**
+     * Restituisce le porzioni di una ricetta in un evento (tutte a zero se non ci sono compiti).
+     */
+    public Porzioni get(int eventoId, int ricettaId) {
+        return porzioni.getOrDefault(chiave(eventoId, ricettaId), Porzioni.NESSUNA);
+    }
+
+    /**
+     * Ricalcola il contributo di un compito e aggiorna l'aggregato se è cambiato.
+     */
+    public void aggiorna(Compito compito) {
+        if (compito == null) {
+            return;
+        }
+        Contributo nuovo = compito.getEventoId() != null && compito.getRicettaId() != null
+                ? new Contributo(chiave(compito.getEventoId(), compito.getRicettaId()),
+                        categoria(compito.getStato()), compito.getQuantita())
+                : null;
+        Contributo vecchio = contributi.get(compito);
+        if (vecchio != null && nuovo != null && vecchio.uguale(nuovo)) {
+            return;
+        }
+        rimuovi(compito);
+        if (nuovo != null) {
+            Porzioni voce = porzioni.computeIfAbsent(nuovo.chiave, k -> new Porzioni());
+            voce.quantita[nuovo.categoria] += nuovo.quantita;
+            voce.compiti++;
+            contributi.put(compito, nuovo);
+        }
+    }
+
+    private void rimuovi(Compito compito) {
+        Contributo vecchio = contributi.remove(compito);
+        if (vecchio == null) {
+            return;
+        }
+        Porzioni voce = porzioni.get(vecchio.chiave);
+        // L'ultima rimozione elimina la voce, senza lasciare residui di arrotondamento
+        if (--voce.compiti == 0) {
+            porzioni.remove(vecchio.chiave);
+        } else {
+            voce.quantita[vecchio.categoria] -= vecchio.quantita;
+        }
+    }
+
+    private static int categoria(String stato) {
+        if (STATO_COMPLETATO.equals(stato)) {
+            return COMPLETATE;
+        }
+        return STATO_IN_CORSO.equals(stato) ? IN_CORSO : PIANIFICATE;
+    }
+
+    private static long chiave(int eventoId, int ricettaId) {
+        return ((long) eventoId << 32) | (ricettaId & 0xffffffffL);
+    }
+}
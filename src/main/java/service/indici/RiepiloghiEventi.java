@@ -0,0 +1,180 @@
+package service.indici;
+
+import domain.compiti.Compito;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.menu.RicettaInMenu;
+import domain.menu.SezioneMenu;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta la cache dei riepiloghi dei compiti per evento. Il riepilogo di un evento contiene
+ * i suoi compiti e i compiti senza evento (salvati prima del collegamento tramite eventoId)
+ * di una ricetta del suo menu; viene calcolato alla prima richiesta e poi restituito dalla cache.
+ *
+ * Un riepilogo viene scartato solo quando cambiano i compiti dell'evento, il menu assegnato
+ * all'evento o le sezioni e le ricette di quel menu. Le modifiche dei compiti dalla lista
+ * osservabile sono seguite da sole; quando un compito cambia sul posto (es. evento o ricetta)
+ * va chiamato {@link #invalida(Compito)}.
+ */
+public class RiepiloghiEventi {
+
+    /**
+     * Riepilogo calcolato di un evento con gli ID dei compiti che contiene.
+     */
+    private static final class Riepilogo {
+        final ObservableList<Compito> compiti;
+        final Set<Integer> ids = new HashSet<>();
+        final Set<Integer> ricette;
+
+        Riepilogo(List<Compito> compiti, Set<Integer> ricette) {
+            this.compiti = FXCollections.unmodifiableObservableList(FXCollections.observableArrayList(compiti));
+            compiti.forEach(c -> ids.add(c.getId()));
+            this.ricette = ricette;
+        }
+    }
+
+    private final Function<Integer, Collection<Compito>> compitiPerEvento;
+    private final Function<Integer, Collection<Compito>> compitiPerRicetta;
+    private final Map<Integer, Riepilogo> perEvento = new HashMap<>();
+    // Eventi che usano ciascun menu, e menu, sezioni ed eventi già osservati
+    private final Map<Menu, Set<Integer>> eventiPerMenu = new IdentityHashMap<>();
+    private final Set<Object> osservati = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * @param compiti           lista osservabile dei compiti
+     * @param compitiPerEvento  funzione che restituisce i compiti di un evento dato il suo ID
+     * @param compitiPerRicetta funzione che restituisce i compiti di una ricetta dato il suo ID
+     */
+    public RiepiloghiEventi(ObservableList<Compito> compiti,
+                            Function<Integer, Collection<Compito>> compitiPerEvento,
+                            Function<Integer, Collection<Compito>> compitiPerRicetta) {
+        this.compitiPerEvento = compitiPerEvento;
+        this.compitiPerRicetta = compitiPerRicetta;
+        compiti.addListener((ListChangeListener<Compito>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::invalida);
+                modifica.getAddedSubList().forEach(this::invalida);
+            }
+        });
+    }
+
+    /**
+     * Restituisce il riepilogo dei compiti di un evento, calcolandolo se non è in cache.
+     *
+     * @return vista non modificabile dei compiti
+     */
+    public ObservableList<Compito> get(Evento evento) {
+        Riepilogo riepilogo = perEvento.get(evento.getId());
+        if (riepilogo == null) {
+            riepilogo = calcola(evento);
+            perEvento.put(evento.getId(), riepilogo);
+        }
+        return riepilogo.compiti;
+    }
+
+    /**
+     * Verifica se un compito fa parte del riepilogo in cache di un evento.
+     */
+    public boolean contiene(Evento evento, Compito compito) {
+        Riepilogo riepilogo = perEvento.get(evento.getId());
+        return riepilogo != null ? riepilogo.ids.contains(compito.getId()) : get(evento).contains(compito);
+    }
+
+    /**
+     * Scarta i riepiloghi che contengono il compito o in cui il compito potrebbe entrare.
+     */
+    public void invalida(Compito compito) {
+        if (compito.getEventoId() != null) {
+            perEvento.remove(compito.getEventoId());
+        }
+        Integer ricettaId = compito.getRicettaId();
+        perEvento.values().removeIf(r -> r.ids.contains(compito.getId())
+                || (compito.getEventoId() == null && ricettaId != null && r.ricette.contains(ricettaId)));
+    }
+
+    public void invalida(int eventoId) {
+        perEvento.remove(eventoId);
+    }
+
+    public int size() {
+        return perEvento.size();
+    }
+
+    private Riepilogo calcola(Evento evento) {
+        Menu menu = evento.getMenu();
+        osserva(evento, menu);
+        Set<Integer> ricette = new HashSet<>();
+        if (menu != null) {
+            for (SezioneMenu sezione : menu.getSezioni()) {
+                for (RicettaInMenu ricetta : sezione.getRicette()) {
+                    if (ricetta.getRicettaId() != null) {
+                        ricette.add(ricetta.getRicettaId());
+                    }
+                }
+            }
+        }
+        Set<Compito> compiti = new LinkedHashSet<>(compitiPerEvento.apply(evento.getId()));
+        for (Integer ricettaId : ricette) {
+            for (Compito compito : compitiPerRicetta.apply(ricettaId)) {
+                if (compito.getEventoId() == null) {
+                    compiti.add(compito);
+                }
+            }
+        }
+        return new Riepilogo(new ArrayList<>(compiti), ricette);
+    }
+
+    /**
+     * Collega i listener che scartano il riepilogo quando cambia il menu dell'evento o il suo contenuto.
+     */
+    private void osserva(Evento evento, Menu menu) {
+        if (osservati.add(evento)) {
+            evento.menuProperty().addListener((obs, vecchio, nuovo) -> {
+                if (vecchio != null) {
+                    eventiPerMenu.getOrDefault(vecchio, Collections.emptySet()).remove(evento.getId());
+                }
+                invalida(evento.getId());
+            });
+        }
+        if (menu == null) {
+            return;
+        }
+        eventiPerMenu.computeIfAbsent(menu, m -> new HashSet<>()).add(evento.getId());
+        if (osservati.add(menu)) {
+            menu.getSezioni().addListener((ListChangeListener<SezioneMenu>) modifica -> {
+                while (modifica.next()) {
+                    modifica.getAddedSubList().forEach(sezione -> osserva(menu, sezione));
+                }
+                invalidaMenu(menu);
+            });
+        }
+        menu.getSezioni().forEach(sezione -> osserva(menu, sezione));
+    }
+
+    private void osserva(Menu menu, SezioneMenu sezione) {
+        if (osservati.add(sezione)) {
+            sezione.getRicette().addListener((ListChangeListener<RicettaInMenu>) modifica -> invalidaMenu(menu));
+        }
+    }
+
+    private void invalidaMenu(Menu menu) {
+        eventiPerMenu.getOrDefault(menu, Collections.emptySet()).forEach(perEvento::remove);
+    }
+}
@@ -0,0 +1,203 @@
+package service.indici;
+
+import domain.menu.Menu;
+import domain.menu.RicettaInMenu;
+import domain.menu.SezioneMenu;
+import domain.ricette.Ricetta;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Rappresenta l'indice inverso dalle ricette ai punti dei menu in cui sono usate (menu, sezione e voce).
+ * L'indice segue da solo i menu aggiunti o rimossi, le sezioni definite o eliminate e le ricette
+ * aggiunte, rimosse o spostate tra le sezioni, perché osserva le rispettive liste.
+ *
+ * Quando è collegato al ricettario tiene aggiornato il flag inUso delle ricette: diventa vero
+ * alla prima voce di menu che usa la ricetta e falso quando l'ultima viene rimossa.
+ */
+public class UtilizziRicette {
+
+    /**
+     * Rappresenta una voce di menu che usa una ricetta.
+     */
+    public static final class Posizione {
+        private final Menu menu;
+        private final SezioneMenu sezione;
+        private final RicettaInMenu ricettaInMenu;
+
+        Posizione(Menu menu, SezioneMenu sezione, RicettaInMenu ricettaInMenu) {
+            this.menu = menu;
+            this.sezione = sezione;
+            this.ricettaInMenu = ricettaInMenu;
+        }
+
+        public Menu getMenu() {
+            return menu;
+        }
+
+        public SezioneMenu getSezione() {
+            return sezione;
+        }
+
+        public RicettaInMenu getRicettaInMenu() {
+            return ricettaInMenu;
+        }
+    }
+
+    private final Map<Integer, List<Posizione>> perRicetta = new HashMap<>();
+    // Listener collegati a ogni menu e sezione, per scollegarli quando vengono rimossi
+    private final Map<Menu, ListChangeListener<SezioneMenu>> listenerMenu = new IdentityHashMap<>();
+    private final Map<SezioneMenu, ListChangeListener<RicettaInMenu>> listenerSezioni = new IdentityHashMap<>();
+    private Function<Integer, Ricetta> ricettario;
+
+    /**
+     * Crea l'indice sui menu presenti nella lista e lo collega alle modifiche successive.
+     */
+    public UtilizziRicette(ObservableList<Menu> menus) {
+        menus.forEach(this::aggiungiMenu);
+        menus.addListener((ListChangeListener<Menu>) modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuoviMenu);
+                modifica.getAddedSubList().forEach(this::aggiungiMenu);
+            }
+        });
+    }
+
+    /**
+     * Collega l'indice al ricettario per tenere aggiornato il flag inUso delle ricette,
+     * segnando subito come in uso le ricette presenti nei menu.
+     *
+     * @param ricettario funzione che restituisce la ricetta dato il suo ID (null se non esiste)
+     */
+    public void collega(Function<Integer, Ricetta> ricettario) {
+        this.ricettario = ricettario;
+        perRicetta.keySet().forEach(ricettaId -> impostaInUso(ricettaId, true));
+    }
+
+    /**
+     * Restituisce le voci di menu che usano una ricetta, nell'ordine in cui sono state indicizzate.
+     *
+     * @return vista non modificabile delle voci, vuota se la ricetta non è usata
+     */
+    public List<Posizione> get(int ricettaId) {
+        List<Posizione> posizioni = perRicetta.get(ricettaId);
+        return posizioni != null ? Collections.unmodifiableList(posizioni) : Collections.emptyList();
+    }
+
+    /**
+     * Restituisce i menu distinti che usano una ricetta.
+     */
+    public List<Menu> getMenu(int ricettaId) {
+        Set<Menu> menu = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Menu> risultato = new ArrayList<>();
+        for (Posizione posizione : get(ricettaId)) {
+            if (menu.add(posizione.getMenu())) {
+                risultato.add(posizione.getMenu());
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Verifica se almeno una voce di menu usa la ricetta.
+     */
+    public boolean isInUso(int ricettaId) {
+        return perRicetta.containsKey(ricettaId);
+    }
+
+    private void aggiungiMenu(Menu menu) {
+        if (listenerMenu.containsKey(menu)) {
+            return;
+        }
+        ListChangeListener<SezioneMenu> listener = modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuoviSezione);
+                modifica.getAddedSubList().forEach(sezione -> aggiungiSezione(menu, sezione));
+            }
+        };
+        listenerMenu.put(menu, listener);
+        menu.getSezioni().addListener(listener);
+        menu.getSezioni().forEach(sezione -> aggiungiSezione(menu, sezione));
+    }
+
+    private void rimuoviMenu(Menu menu) {
+        ListChangeListener<SezioneMenu> listener = listenerMenu.remove(menu);
+        if (listener != null) {
+            menu.getSezioni().removeListener(listener);
+            menu.getSezioni().forEach(this::rimuoviSezione);
+        }
+    }
+
+    private void aggiungiSezione(Menu menu, SezioneMenu sezione) {
+        if (listenerSezioni.containsKey(sezione)) {
+            return;
+        }
+        ListChangeListener<RicettaInMenu> listener = modifica -> {
+            while (modifica.next()) {
+                if (modifica.wasPermutated()) {
+                    continue;
+                }
+                modifica.getRemoved().forEach(this::rimuovi);
+                modifica.getAddedSubList().forEach(ricetta -> aggiungi(new Posizione(menu, sezione, ricetta)));
+            }
+        };
+        listenerSezioni.put(sezione, listener);
+        sezione.getRicette().addListener(listener);
+        sezione.getRicette().forEach(ricetta -> aggiungi(new Posizione(menu, sezione, ricetta)));
+    }
+
+    private void rimuoviSezione(SezioneMenu sezione) {
+        ListChangeListener<RicettaInMenu> listener = listenerSezioni.remove(sezione);
+        if (listener != null) {
+            sezione.getRicette().removeListener(listener);
+            sezione.getRicette().forEach(this::rimuovi);
+        }
+    }
+
+    private void aggiungi(Posizione posizione) {
+        Integer ricettaId = posizione.getRicettaInMenu().getRicettaId();
+        if (ricettaId == null) {
+            return;
+        }
+        List<Posizione> posizioni = perRicetta.computeIfAbsent(ricettaId, id -> new ArrayList<>());
+        posizioni.add(posizione);
+        if (posizioni.size() == 1) {
+            impostaInUso(ricettaId, true);
+        }
+    }
+
+    private void rimuovi(RicettaInMenu ricettaInMenu) {
+        Integer ricettaId = ricettaInMenu.getRicettaId();
+        List<Posizione> posizioni = ricettaId != null ? perRicetta.get(ricettaId) : null;
+        if (posizioni == null) {
+            return;
+        }
+        // Confronto per identità: più voci possono usare la stessa ricetta
+        posizioni.removeIf(posizione -> posizione.getRicettaInMenu() == ricettaInMenu);
+        if (posizioni.isEmpty()) {
+            perRicetta.remove(ricettaId);
+            impostaInUso(ricettaId, false);
+        }
+    }
+
+    private void impostaInUso(Integer ricettaId, boolean inUso) {
+        Ricetta ricetta = ricettario != null ? ricettario.apply(ricettaId) : null;
+        if (ricetta != null) {
+            ricetta.setInUso(inUso);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package service.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rappresenta un archivio a journal per una collezione di entità del sistema di catering.
+ * Ogni creazione, modifica o eliminazione viene aggiunta in coda al journal come un singolo
+ * record JSON su una riga; periodicamente il journal viene compattato in un nuovo snapshot.
+ * All'avvio lo stato viene ricostruito leggendo lo snapshot e rieseguendo il journal.
+ */
+public class JsonJournal<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(JsonJournal.class.getName());
+    private static final int SOGLIA_COMPATTAZIONE_DEFAULT = 1000;
+
+    private static final String OP = "op";
+    private static final String OP_SALVA = "PUT";
+    private static final String OP_ELIMINA = "DEL";
+    private static final String CAMPO_ID = "id";
+    private static final String CAMPO_DATO = "dato";
+
+    private final String snapshotPath;
+    private final String journalPath;
+    private final Class<T> tipo;
+    private final ToIntFunction<T> estraiId;
+    private final int sogliaCompattazione;
+    private final ObjectMapper mapper = JsonLoader.getMapper();
+    private final ObjectWriter writerRiga = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+    // Stato corrente (stessi oggetti gestiti dal servizio), usato per la compattazione
+    private final Map<Integer, T> stato = new LinkedHashMap<>();
+    private BufferedWriter journalWriter;
+    private int recordNelJournal = 0;
+
+    /**
+     * Crea un archivio a journal con la soglia di compattazione predefinita.
+     *
+     * @param snapshotPath percorso del file JSON con lo snapshot completo
+     * @param journalPath  percorso del file di journal
+     * @param tipo         classe delle entità
+     * @param estraiId     funzione che restituisce l'identificativo di un'entità
+     */
+    public JsonJournal(String snapshotPath, String journalPath, Class<T> tipo, ToIntFunction<T> estraiId) {
+        this(snapshotPath, journalPath, tipo, estraiId, SOGLIA_COMPATTAZIONE_DEFAULT);
+    }
+
+    /**
+     * Crea un archivio a journal.
+     *
+     * @param snapshotPath        percorso del file JSON con lo snapshot completo
+     * @param journalPath         percorso del file di journal
+     * @param tipo                classe delle entità
+     * @param estraiId            funzione che restituisce l'identificativo di un'entità
+     * @param sogliaCompattazione numero di record nel journal oltre il quale viene creato un nuovo snapshot
+     */
+    public JsonJournal(String snapshotPath, String journalPath, Class<T> tipo,
+                       ToIntFunction<T> estraiId, int sogliaCompattazione) {
+        if (sogliaCompattazione <= 0) {
+            throw new IllegalArgumentException("La soglia di compattazione deve essere positiva");
+        }
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+        this.tipo = tipo;
+        this.estraiId = estraiId;
+        this.sogliaCompattazione = sogliaCompattazione;
+    }
+
+    /**
+     * Carica lo snapshot e riesegue i record del journal.
+     * Un'eventuale ultima riga incompleta (scrittura interrotta) viene ignorata.
+     *
+     * @return le entità nello stato più recente, nell'ordine di inserimento
+     */
+    public synchronized List<T> load() {
+        stato.clear();
+        recordNelJournal = 0;
+
+        if (JsonLoader.exists(snapshotPath)) {
+            for (T entita : JsonLoader.loadFromFile(snapshotPath, tipo)) {
+                stato.put(estraiId.applyAsInt(entita), entita);
+            }
+        }
+
+        Path journal = Paths.get(journalPath);
+        if (Files.exists(journal)) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String riga;
+                int numeroRiga = 0;
+                while ((riga = reader.readLine()) != null) {
+                    numeroRiga++;
+                    if (riga.trim().isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        applicaRecord(mapper.readTree(riga));
+                        recordNelJournal++;
+                    } catch (IOException e) {
+                        LOGGER.warning("Record del journal non valido ignorato (" + journalPath + ":" + numeroRiga + ")");
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Errore nella lettura del journal: " + journalPath, e);
+            }
+        }
+
+        return new ArrayList<>(stato.values());
+    }
+
+    /**
+     * Registra la creazione o la modifica di un'entità.
+     *
+     * @param entita entità creata o modificata
+     */
+    public synchronized void appendPut(T entita) {
+        int id = estraiId.applyAsInt(entita);
+        stato.put(id, entita);
+        ObjectNode record = mapper.createObjectNode();
+        record.put(OP, OP_SALVA);
+        record.set(CAMPO_DATO, mapper.valueToTree(entita));
+        scriviRecord(record);
+    }
+
+    /**
+     * Registra la modifica di più entità con un'unica scrittura del journal.
+     *
+     * @param entita entità create o modificate
+     */
+    public synchronized void appendPutAll(Collection<T> entita) {
+        List<ObjectNode> records = new ArrayList<>();
+        for (T singola : entita) {
+            stato.put(estraiId.applyAsInt(singola), singola);
+            ObjectNode record = mapper.createObjectNode();
+            record.put(OP, OP_SALVA);
+            record.set(CAMPO_DATO, mapper.valueToTree(singola));
+            records.add(record);
+        }
+        scriviRecord(records);
+    }
+
+    /**
+     * Registra l'eliminazione di un'entità.
+     *
+     * @param id identificativo dell'entità eliminata
+     */
+    public synchronized void appendDelete(int id) {
+        stato.remove(id);
+        ObjectNode record = mapper.createObjectNode();
+        record.put(OP, OP_ELIMINA);
+        record.put(CAMPO_ID, id);
+        scriviRecord(record);
+    }
+
+    /**
+     * Scrive un nuovo snapshot con lo stato corrente e svuota il journal.
+     *
+     * @return true se la compattazione è riuscita
+     */
+    public synchronized boolean compact() {
+        // Lo snapshot viene scritto nel formato attivo (es. compiti.smile)
+        Path snapshot = Paths.get(JsonLoader.resolvePath(snapshotPath));
+        Path temporaneo = Paths.get(snapshot + ".tmp");
+        if (!JsonLoader.saveToFile(temporaneo.toString(), new ArrayList<>(stato.values()))) {
+            return false;
+        }
+        try {
+            try {
+                Files.move(temporaneo, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Lo snapshot contiene già tutti i record: il journal può ripartire vuoto
+            chiudiWriter();
+            journalWriter = Files.newBufferedWriter(Paths.get(journalPath), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            recordNelJournal = 0;
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella compattazione del journal: " + journalPath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Compatta il journal e rilascia il file.
+     */
+    public synchronized void close() {
+        if (recordNelJournal > 0) {
+            compact();
+        }
+        chiudiWriter();
+    }
+
+    /**
+     * Restituisce il numero di record presenti nel journal dall'ultimo snapshot.
+     */
+    public synchronized int getRecordNelJournal() {
+        return recordNelJournal;
+    }
+
+    private void applicaRecord(JsonNode record) throws IOException {
+        String op = record.path(OP).asText();
+        if (OP_SALVA.equals(op)) {
+            T entita = mapper.treeToValue(record.get(CAMPO_DATO), tipo);
+            stato.put(estraiId.applyAsInt(entita), entita);
+        } else if (OP_ELIMINA.equals(op)) {
+            stato.remove(record.path(CAMPO_ID).asInt());
+        } else {
+            throw new IOException("Operazione sconosciuta: " + op);
+        }
+    }
+
+    private void scriviRecord(ObjectNode record) {
+        scriviRecord(List.of(record));
+    }
+
+    private void scriviRecord(List<ObjectNode> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            if (journalWriter == null) {
+                File file = new File(journalPath);
+                if (file.getParentFile() != null) {
+                    file.getParentFile().mkdirs();
+                }
+                journalWriter = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            }
+            for (ObjectNode record : records) {
+                journalWriter.write(writerRiga.writeValueAsString(record));
+                journalWriter.newLine();
+            }
+            journalWriter.flush();
+            recordNelJournal += records.size();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella scrittura del journal: " + journalPath, e);
+            return;
+        }
+
+        if (recordNelJournal >= sogliaCompattazione) {
+            compact();
+        }
+    }
+
+    private void chiudiWriter() {
+        if (journalWriter != null) {
+            try {
+                journalWriter.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Errore nella chiusura del journal: " + journalPath, e);
+            }
+            journalWriter = null;
+        }
+    }
+}
@@ -1,31 +1,76 @@
 package service.persistence;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Rappresenta un loader per caricare dati da file JSON nel sistema di catering.
  * Ideale per prototipi e testing, permette di avere dati di esempio preconfigurati.
+ * I percorsi sono sempre espressi con estensione .json: se è attivo un formato binario
+ * per gli snapshot, i dati vengono scritti nel file equivalente (es. menu.smile) e in lettura
+ * il file binario ha la precedenza, con il file JSON come ripiego per la migrazione.
  */
 public class JsonLoader {
-    
+
     private static final Logger LOGGER = Logger.getLogger(JsonLoader.class.getName());
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .enable(SerializationFeature.INDENT_OUTPUT)
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    
+    private static final ObjectMapper MAPPER = SnapshotFormat.JSON.getMapper();
+
+    // Formato degli snapshot di lavoro, configurabile con -Dcatring.formato=smile
+    private static volatile SnapshotFormat snapshotFormat = SnapshotFormat.daNome(System.getProperty("catring.formato"));
+
+    /**
+     * Imposta il formato con cui vengono scritti gli snapshot dei dati.
+     *
+     * @param formato formato da usare per i salvataggi successivi
+     */
+    public static void setSnapshotFormat(SnapshotFormat formato) {
+        snapshotFormat = formato != null ? formato : SnapshotFormat.JSON;
+    }
+
+    /**
+     * Restituisce il formato con cui vengono scritti gli snapshot dei dati.
+     */
+    public static SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    /**
+     * Restituisce il percorso effettivo dello snapshot nel formato attivo.
+     *
+     * @param filePath Percorso del file JSON (es. "src/main/resources/data/menu.json")
+     * @return Percorso del file nel formato attivo (es. "src/main/resources/data/menu.smile")
+     */
+    public static String resolvePath(String filePath) {
+        return snapshotFormat.percorsoPer(filePath);
+    }
+
+    /**
+     * Verifica se esistono dati nel filesystem per il percorso indicato, in qualsiasi formato.
+     *
+     * @param filePath Percorso del file JSON
+     * @return true se esiste lo snapshot nel formato attivo o il file JSON
+     */
+    public static boolean exists(String filePath) {
+        return fileDaLeggere(filePath) != null;
+    }
+
     /**
      * Carica dati da un file JSON nella cartella resources.
      *
@@ -34,19 +79,20 @@ public class JsonLoader {
      * @return Lista degli oggetti caricati, o lista vuota in caso di errore
      */
     public static <T> List<T> loadFromResources(String jsonPath, TypeReference<List<T>> typeReference) {
-        try (InputStream is = JsonLoader.class.getClassLoader().getResourceAsStream(jsonPath)) {
+        String risorsa = risorsaDaLeggere(jsonPath);
+        try (InputStream is = JsonLoader.class.getClassLoader().getResourceAsStream(risorsa)) {
             if (is == null) {
                 LOGGER.warning("File JSON non trovato: " + jsonPath);
                 return Collections.emptyList();
             }
-            
-            return MAPPER.readValue(is, typeReference);
+
+            return mapperPer(risorsa).readValue(is, typeReference);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + jsonPath, e);
             return Collections.emptyList();
         }
     }
-    
+
     /**
      * Carica dati generici da un file JSON nella cartella resources.
      *
@@ -55,13 +101,14 @@ public class JsonLoader {
      * @return Oggetto caricato, o null in caso di errore
      */
     public static <T> T loadFromResourcesGeneric(String jsonPath, TypeReference<T> typeReference) {
-        try (InputStream is = JsonLoader.class.getClassLoader().getResourceAsStream(jsonPath)) {
+        String risorsa = risorsaDaLeggere(jsonPath);
+        try (InputStream is = JsonLoader.class.getClassLoader().getResourceAsStream(risorsa)) {
             if (is == null) {
                 LOGGER.warning("File JSON non trovato: " + jsonPath);
                 return null;
             }
-            
-            return MAPPER.readValue(is, typeReference);
+
+            return mapperPer(risorsa).readValue(is, typeReference);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + jsonPath, e);
             return null;
@@ -77,19 +124,41 @@ public class JsonLoader {
      */
     public static <T> List<T> loadFromFile(String filePath, TypeReference<List<T>> typeReference) {
         try {
-            File file = new File(filePath);
-            if (!file.exists()) {
+            File file = fileDaLeggere(filePath);
+            if (file == null) {
+                LOGGER.warning("File JSON non trovato: " + filePath);
+                return Collections.emptyList();
+            }
+
+            return mapperPer(file.getPath()).readValue(file, typeReference);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + filePath, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Carica una lista di oggetti di una classe nota da un file JSON nel filesystem.
+     *
+     * @param filePath Percorso assoluto o relativo al file JSON
+     * @param tipo Classe degli elementi della lista
+     * @return Lista degli oggetti caricati, o lista vuota in caso di errore
+     */
+    public static <T> List<T> loadFromFile(String filePath, Class<T> tipo) {
+        try {
+            File file = fileDaLeggere(filePath);
+            if (file == null) {
                 LOGGER.warning("File JSON non trovato: " + filePath);
                 return Collections.emptyList();
             }
-            
-            return MAPPER.readValue(file, typeReference);
+
+            return mapperPer(file.getPath()).readValue(file, MAPPER.getTypeFactory().constructCollectionType(List.class, tipo));
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + filePath, e);
             return Collections.emptyList();
         }
     }
-    
+
     /**
      * Carica dati generici da un file JSON nel filesystem.
      *
@@ -99,13 +168,13 @@ public class JsonLoader {
      */
     public static <T> T loadFromFileGeneric(String filePath, TypeReference<T> typeReference) {
         try {
-            File file = new File(filePath);
-            if (!file.exists()) {
+            File file = fileDaLeggere(filePath);
+            if (file == null) {
                 LOGGER.warning("File JSON non trovato: " + filePath);
                 return null;
             }
-            
-            return MAPPER.readValue(file, typeReference);
+
+            return mapperPer(file.getPath()).readValue(file, typeReference);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + filePath, e);
             return null;
@@ -113,49 +182,211 @@ public class JsonLoader {
     }
 
     /**
-     * Salva dati in un file JSON.
+     * Legge in streaming un array JSON nella cartella resources, consegnando un elemento alla volta
+     * senza costruire la lista completa in memoria.
+     *
+     * @param jsonPath Percorso relativo al file JSON in resources (es. "data/compiti.json")
+     * @param tipo Classe degli elementi dell'array
+     * @param azione Azione eseguita su ogni elemento letto
+     * @return Numero di elementi consegnati all'azione
+     */
+    public static <T> int forEachFromResources(String jsonPath, Class<T> tipo, Consumer<? super T> azione) {
+        String risorsa = risorsaDaLeggere(jsonPath);
+        try (InputStream is = JsonLoader.class.getClassLoader().getResourceAsStream(risorsa)) {
+            if (is == null) {
+                LOGGER.warning("File JSON non trovato: " + jsonPath);
+                return 0;
+            }
+
+            ObjectMapper mapper = mapperPer(risorsa);
+            return leggiElementi(mapper, mapper.getFactory().createParser(is), jsonPath, tipo, null, azione);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + jsonPath, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Legge in streaming un array JSON dal filesystem, consegnando un elemento alla volta.
+     *
+     * @param filePath Percorso assoluto o relativo al file JSON
+     * @param tipo Classe degli elementi dell'array
+     * @param azione Azione eseguita su ogni elemento letto
+     * @return Numero di elementi consegnati all'azione
+     */
+    public static <T> int forEachFromFile(String filePath, Class<T> tipo, Consumer<? super T> azione) {
+        return forEachFromFile(filePath, tipo, null, azione);
+    }
+
+    /**
+     * Legge in streaming un array JSON dal filesystem, consegnando solo gli elementi che superano il filtro.
+     * Il filtro lavora sul nodo JSON grezzo: gli elementi scartati non vengono convertiti in oggetti di dominio.
+     *
+     * @param filePath Percorso assoluto o relativo al file JSON
+     * @param tipo Classe degli elementi dell'array
+     * @param filtro Filtro sul nodo JSON dell'elemento (null per accettare tutti gli elementi)
+     * @param azione Azione eseguita su ogni elemento accettato
+     * @return Numero di elementi consegnati all'azione
+     */
+    public static <T> int forEachFromFile(String filePath, Class<T> tipo, Predicate<JsonNode> filtro,
+                                          Consumer<? super T> azione) {
+        File file = fileDaLeggere(filePath);
+        if (file == null) {
+            LOGGER.warning("File JSON non trovato: " + filePath);
+            return 0;
+        }
+
+        try {
+            ObjectMapper mapper = mapperPer(file.getPath());
+            return leggiElementi(mapper, mapper.getFactory().createParser(file), filePath, tipo, filtro, azione);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + filePath, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Scorre gli elementi di un array JSON con il parser a token di Jackson.
+     * In caso di errore a metà file restituisce gli elementi già consegnati.
+     */
+    private static <T> int leggiElementi(ObjectMapper mapper, JsonParser parser, String percorso, Class<T> tipo,
+                                         Predicate<JsonNode> filtro, Consumer<? super T> azione) {
+        int consegnati = 0;
+        try (JsonParser p = parser) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                LOGGER.warning("Il file JSON non contiene un array: " + percorso);
+                return 0;
+            }
+
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (filtro == null) {
+                    azione.accept(mapper.readValue(p, tipo));
+                    consegnati++;
+                } else {
+                    JsonNode nodo = mapper.readTree(p);
+                    if (filtro.test(nodo)) {
+                        azione.accept(mapper.treeToValue(nodo, tipo));
+                        consegnati++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nel caricamento del file JSON: " + percorso, e);
+        }
+        return consegnati;
+    }
+
+    /**
+     * Salva dati in un file JSON (o nel suo equivalente nel formato attivo).
      *
      * @param filePath Percorso assoluto o relativo dove salvare il file JSON
      * @param data Dati da salvare
      */
     public static <T> boolean saveToFile(String filePath, List<T> data) {
+        return saveToFileGeneric(filePath, data);
+    }
+
+    /**
+     * Salva dati generici in un file JSON (o nel suo equivalente nel formato attivo).
+     *
+     * @param filePath Percorso assoluto o relativo dove salvare il file JSON
+     * @param data Dati da salvare (qualsiasi tipo)
+     */
+    public static boolean saveToFileGeneric(String filePath, Object data) {
+        SnapshotFormat formato = snapshotFormat;
+        String percorso = formato.percorsoPer(filePath);
         try {
-            File file = new File(filePath);
+            File file = new File(percorso);
             // Crea le cartelle se non esistono
             if (file.getParentFile() != null) {
                 file.getParentFile().mkdirs();
             }
-            
-            MAPPER.writeValue(file, data);
+
+            formato.getMapper().writeValue(file, data);
             return true;
         } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Errore nel salvataggio del file JSON: " + filePath, e);
+            LOGGER.log(Level.SEVERE, "Errore nel salvataggio del file JSON: " + percorso, e);
             return false;
         }
     }
 
     /**
-     * Salva dati generici in un file JSON.
+     * Serializza dati nel formato attivo degli snapshot, senza scriverli su file.
+     * Serve a fissare lo stato dei dati sul thread che li possiede prima di una scrittura differita.
      *
-     * @param filePath Percorso assoluto o relativo dove salvare il file JSON
-     * @param data Dati da salvare (qualsiasi tipo)
+     * @param data Dati da serializzare
+     * @return byte serializzati, o null in caso di errore
      */
-    public static boolean saveToFileGeneric(String filePath, Object data) {
+    public static byte[] toBytes(Object data) {
         try {
-            File file = new File(filePath);
-            // Crea le cartelle se non esistono
+            return snapshotFormat.getMapper().writeValueAsBytes(data);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella serializzazione dei dati", e);
+            return null;
+        }
+    }
+
+    /**
+     * Salva su file dati già serializzati con {@link #toBytes(Object)}.
+     * I byte vengono scritti in un file temporaneo che poi sostituisce quello esistente,
+     * così un'interruzione durante la scrittura non lascia un file troncato.
+     *
+     * @param filePath Percorso del file JSON (il file effettivo dipende dal formato attivo)
+     * @param dati Byte serializzati
+     */
+    public static boolean saveBytesToFile(String filePath, byte[] dati) {
+        String percorso = snapshotFormat.percorsoPer(filePath);
+        try {
+            File file = new File(percorso);
             if (file.getParentFile() != null) {
                 file.getParentFile().mkdirs();
             }
-            
-            MAPPER.writeValue(file, data);
+            Path destinazione = file.toPath();
+            Path temporaneo = Paths.get(percorso + ".tmp");
+            Files.write(temporaneo, dati);
+            try {
+                Files.move(temporaneo, destinazione, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, destinazione, StandardCopyOption.REPLACE_EXISTING);
+            }
             return true;
         } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Errore nel salvataggio del file JSON: " + filePath, e);
+            LOGGER.log(Level.SEVERE, "Errore nel salvataggio del file JSON: " + percorso, e);
             return false;
         }
     }
-    
+
+    /**
+     * Converte un file di dati da un formato all'altro, in base alle estensioni dei percorsi
+     * (.json o .smile). La conversione passa per l'albero JSON e non richiede di conoscere il tipo dei dati.
+     *
+     * @param sorgente Percorso del file da convertire
+     * @param destinazione Percorso del file convertito
+     * @return true se la conversione è riuscita
+     */
+    public static boolean convertFile(String sorgente, String destinazione) {
+        try {
+            JsonNode dati = mapperPer(sorgente).readTree(new File(sorgente));
+            File file = new File(destinazione);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            mapperPer(destinazione).writeValue(file, dati);
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella conversione del file: " + sorgente, e);
+            return false;
+        }
+    }
+
+    /**
+     * Restituisce il mapper JSON condiviso, per le classi di persistenza che scrivono
+     * formati derivati dal JSON (es. il journal delle modifiche).
+     */
+    static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
     /**
      * Inizializza un file JSON con dati di esempio se non esiste già.
      *
@@ -163,10 +394,48 @@ public class JsonLoader {
      * @param defaultData Dati di default da scrivere se il file non esiste
      */
     public static <T> void initializeFileIfNotExists(String filePath, List<T> defaultData) {
-        File file = new File(filePath);
-        if (!file.exists()) {
+        if (!exists(filePath)) {
             saveToFile(filePath, defaultData);
             LOGGER.info("Creato file JSON con dati di esempio: " + filePath);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Restituisce il file da leggere: lo snapshot nel formato attivo se presente, altrimenti il file JSON.
+     */
+    private static File fileDaLeggere(String filePath) {
+        String percorsoAttivo = snapshotFormat.percorsoPer(filePath);
+        if (!percorsoAttivo.equals(filePath)) {
+            File snapshot = new File(percorsoAttivo);
+            if (snapshot.exists()) {
+                return snapshot;
+            }
+        }
+        File file = new File(filePath);
+        return file.exists() ? file : null;
+    }
+
+    /**
+     * Restituisce la risorsa da leggere: lo snapshot nel formato attivo se presente, altrimenti il file JSON.
+     */
+    private static String risorsaDaLeggere(String jsonPath) {
+        String percorsoAttivo = snapshotFormat.percorsoPer(jsonPath);
+        if (!percorsoAttivo.equals(jsonPath)
+                && JsonLoader.class.getClassLoader().getResource(percorsoAttivo) != null) {
+            return percorsoAttivo;
+        }
+        return jsonPath;
+    }
+
+    /**
+     * Restituisce il mapper adatto all'estensione del file.
+     */
+    private static ObjectMapper mapperPer(String percorso) {
+        for (SnapshotFormat formato : SnapshotFormat.values()) {
+            if (formato != SnapshotFormat.JSON && percorso.endsWith(formato.getEstensione())) {
+                return formato.getMapper();
+            }
+        }
+        return MAPPER;
+    }
+}
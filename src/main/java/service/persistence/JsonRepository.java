@@ -0,0 +1,146 @@
+package service.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rappresenta un archivio basato su un file JSON completo, come gli altri dati dell'applicazione.
+ * Le entità sono tenute in memoria e ogni modifica riscrive l'intero file;
+ * gli indici secondari sono mappe in memoria aggiornate ad ogni salvataggio.
+ *
+ * @param <T>  tipo delle entità
+ * @param <ID> tipo dell'identificativo
+ */
+public class JsonRepository<T, ID> implements Repository<T, ID> {
+
+    private final String filePath;
+    private final Function<T, ID> estraiId;
+    private final Map<String, Function<T, Integer>> indici;
+
+    private final Map<ID, T> entita = new LinkedHashMap<>();
+    // Per ogni indice: valore -> identificativi delle entità con quel valore
+    private final Map<String, Map<Integer, Set<ID>>> valoriIndicizzati = new HashMap<>();
+    // Per ogni indice: identificativo -> valore con cui l'entità è indicizzata
+    private final Map<String, Map<ID, Integer>> chiaviCorrenti = new HashMap<>();
+
+    /**
+     * Crea un archivio JSON e carica le entità presenti nel file.
+     *
+     * @param filePath percorso del file JSON
+     * @param tipo     classe delle entità
+     * @param estraiId funzione che restituisce l'identificativo di un'entità
+     * @param indici   indici secondari, per nome
+     */
+    public JsonRepository(String filePath, Class<T> tipo, Function<T, ID> estraiId,
+                          Map<String, Function<T, Integer>> indici) {
+        this.filePath = filePath;
+        this.estraiId = estraiId;
+        this.indici = new LinkedHashMap<>(indici);
+        for (String indice : this.indici.keySet()) {
+            valoriIndicizzati.put(indice, new HashMap<>());
+            chiaviCorrenti.put(indice, new HashMap<>());
+        }
+
+        if (JsonLoader.exists(filePath)) {
+            for (T caricata : JsonLoader.loadFromFile(filePath, tipo)) {
+                inserisci(caricata);
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<T> findAll() {
+        return new ArrayList<>(entita.values());
+    }
+
+    @Override
+    public synchronized T findById(ID id) {
+        return entita.get(id);
+    }
+
+    @Override
+    public synchronized List<T> findBy(String indice, Integer valore) {
+        Map<Integer, Set<ID>> valori = valoriIndicizzati.get(indice);
+        if (valori == null) {
+            throw new IllegalArgumentException("Indice non dichiarato: " + indice);
+        }
+        List<T> risultato = new ArrayList<>();
+        for (ID id : valori.getOrDefault(valore, Collections.emptySet())) {
+            risultato.add(entita.get(id));
+        }
+        return risultato;
+    }
+
+    @Override
+    public synchronized void save(T nuova) {
+        inserisci(nuova);
+        scrivi();
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<T> nuove) {
+        for (T nuova : nuove) {
+            inserisci(nuova);
+        }
+        scrivi();
+    }
+
+    @Override
+    public synchronized boolean deleteById(ID id) {
+        if (entita.remove(id) == null) {
+            return false;
+        }
+        rimuoviDaIndici(id);
+        scrivi();
+        return true;
+    }
+
+    @Override
+    public synchronized int count() {
+        return entita.size();
+    }
+
+    @Override
+    public void close() {
+        // Ogni modifica è già stata scritta su file
+    }
+
+    private void inserisci(T nuova) {
+        ID id = estraiId.apply(nuova);
+        entita.put(id, nuova);
+        // L'entità può essere stata modificata sul posto: si riallineano le chiavi degli indici
+        rimuoviDaIndici(id);
+        for (Map.Entry<String, Function<T, Integer>> indice : indici.entrySet()) {
+            Integer valore = indice.getValue().apply(nuova);
+            if (valore != null) {
+                valoriIndicizzati.get(indice.getKey()).computeIfAbsent(valore, v -> new LinkedHashSet<>()).add(id);
+                chiaviCorrenti.get(indice.getKey()).put(id, valore);
+            }
+        }
+    }
+
+    private void rimuoviDaIndici(ID id) {
+        for (String indice : indici.keySet()) {
+            Integer vecchio = chiaviCorrenti.get(indice).remove(id);
+            if (vecchio != null) {
+                Set<ID> ids = valoriIndicizzati.get(indice).get(vecchio);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    valoriIndicizzati.get(indice).remove(vecchio);
+                }
+            }
+        }
+    }
+
+    private void scrivi() {
+        JsonLoader.saveToFile(filePath, new ArrayList<>(entita.values()));
+    }
+}
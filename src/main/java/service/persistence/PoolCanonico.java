@@ -0,0 +1,121 @@
+package service.persistence;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import domain.ricette.Tag;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rappresenta il pool delle istanze canoniche create durante il caricamento dei dati.
+ * Ogni tag distinto (stesso nome, descrizione e colore) e ogni stringa breve ricorrente
+ * (stati, nomi dei tag, ruoli e luoghi dei turni) viene tenuto una sola volta in memoria:
+ * i file letti con i mapper di {@link SnapshotFormat} restituiscono sempre l'istanza del pool.
+ *
+ * I tag del pool sono condivisi tra tutte le ricette che li usano e non vanno modificati sul posto.
+ */
+public final class PoolCanonico {
+
+    // Le stringhe più lunghe (descrizioni, note) sono quasi sempre uniche e non vengono messe nel pool
+    static final int LUNGHEZZA_MASSIMA_STRINGA = 40;
+
+    private static final Map<String, String> STRINGHE = new ConcurrentHashMap<>();
+    private static final Map<List<String>, Tag> TAG = new ConcurrentHashMap<>();
+
+    private PoolCanonico() {
+    }
+
+    /**
+     * Restituisce l'istanza canonica di una stringa breve, la stringa stessa se è lunga o null.
+     */
+    public static String stringa(String valore) {
+        if (valore == null || valore.length() > LUNGHEZZA_MASSIMA_STRINGA) {
+            return valore;
+        }
+        String canonica = STRINGHE.putIfAbsent(valore, valore);
+        return canonica != null ? canonica : valore;
+    }
+
+    /**
+     * Restituisce l'istanza canonica di un tag con lo stesso nome, descrizione e colore.
+     */
+    public static Tag tag(Tag tag) {
+        if (tag == null) {
+            return null;
+        }
+        List<String> chiave = Arrays.asList(tag.getNome(), tag.getDescrizione(), tag.getColore());
+        Tag canonico = TAG.putIfAbsent(chiave, tag);
+        return canonico != null ? canonico : tag;
+    }
+
+    /**
+     * Restituisce il numero di stringhe e tag distinti nel pool.
+     */
+    public static int size() {
+        return STRINGHE.size() + TAG.size();
+    }
+
+    /**
+     * Restituisce il modulo Jackson che applica il pool alle stringhe e ai tag deserializzati.
+     */
+    static SimpleModule modulo() {
+        SimpleModule modulo = new SimpleModule("PoolCanonico");
+        modulo.addDeserializer(String.class, new StringaCanonica());
+        modulo.setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription descrizione,
+                                                          JsonDeserializer<?> deserializer) {
+                return descrizione.getBeanClass() == Tag.class ? new TagCanonico(deserializer) : deserializer;
+            }
+        });
+        return modulo;
+    }
+
+    /**
+     * Deserializza le stringhe come il deserializzatore standard e le sostituisce con l'istanza del pool.
+     */
+    private static final class StringaCanonica extends StdScalarDeserializer<String> {
+        private static final long serialVersionUID = 1L;
+
+        StringaCanonica() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return stringa(StringDeserializer.instance.deserialize(p, ctxt));
+        }
+    }
+
+    /**
+     * Deserializza i tag con il deserializzatore di Jackson e li sostituisce con l'istanza del pool.
+     */
+    private static final class TagCanonico extends DelegatingDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        TagCanonico(JsonDeserializer<?> delegato) {
+            super(delegato);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> delegato) {
+            return new TagCanonico(delegato);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return tag((Tag) super.deserialize(p, ctxt));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package service.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rappresenta un archivio persistente di entità del sistema di catering.
+ * Oltre alla ricerca per identificativo supporta gli indici secondari dichiarati alla creazione
+ * (es. i compiti per cuocoId, turnoId o eventoId), così che il filtraggio avvenga nell'archivio
+ * invece che scorrendo in Java l'intera collezione.
+ *
+ * @param <T>  tipo delle entità
+ * @param <ID> tipo dell'identificativo
+ */
+public interface Repository<T, ID> {
+
+    /**
+     * Restituisce tutte le entità dell'archivio.
+     */
+    List<T> findAll();
+
+    /**
+     * Restituisce l'entità con l'identificativo indicato.
+     *
+     * @return l'entità trovata, o null se non esiste
+     */
+    T findById(ID id);
+
+    /**
+     * Restituisce le entità che hanno il valore indicato sull'indice secondario.
+     *
+     * @param indice nome dell'indice secondario (es. "cuocoId")
+     * @param valore valore cercato
+     * @return le entità trovate, o lista vuota se nessuna corrisponde
+     * @throws IllegalArgumentException se l'indice non è stato dichiarato
+     */
+    List<T> findBy(String indice, Integer valore);
+
+    /**
+     * Inserisce o aggiorna un'entità.
+     */
+    void save(T entita);
+
+    /**
+     * Inserisce o aggiorna più entità con un'unica scrittura.
+     */
+    void saveAll(Collection<T> entita);
+
+    /**
+     * Elimina l'entità con l'identificativo indicato.
+     *
+     * @return true se l'entità era presente
+     */
+    boolean deleteById(ID id);
+
+    /**
+     * Restituisce il numero di entità nell'archivio.
+     */
+    int count();
+
+    /**
+     * Rilascia le risorse dell'archivio. Da chiamare alla chiusura dell'applicazione.
+     */
+    void close();
+}
@@ -0,0 +1,81 @@
+package service.persistence;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+/**
+ * Rappresenta lo strumento di conversione dei file di dati tra JSON e il formato binario degli snapshot.
+ * Permette di migrare la cartella dei dati in entrambe le direzioni: JSON resta il formato
+ * di importazione ed esportazione, il formato binario quello di lavoro.
+ *
+ * Uso: {@code SnapshotConverter <cartella> <formato>}, ad esempio
+ * {@code SnapshotConverter src/main/resources/data smile}.
+ */
+public class SnapshotConverter {
+
+    private static final Logger LOGGER = Logger.getLogger(SnapshotConverter.class.getName());
+
+    private SnapshotConverter() {
+    }
+
+    /**
+     * Converte tutti i file di dati di una cartella nel formato indicato.
+     * I file sorgente non vengono eliminati.
+     *
+     * @param cartella cartella contenente i file di dati
+     * @param destinazione formato in cui convertire i file
+     * @return numero di file convertiti
+     */
+    public static int convertiCartella(String cartella, SnapshotFormat destinazione) {
+        File dir = new File(cartella);
+        File[] files = dir.listFiles(File::isFile);
+        if (files == null) {
+            LOGGER.warning("Cartella dei dati non trovata: " + cartella);
+            return 0;
+        }
+
+        int convertiti = 0;
+        for (File file : files) {
+            SnapshotFormat sorgente = formatoDi(file.getName());
+            if (sorgente == null || sorgente == destinazione) {
+                continue;
+            }
+            if (convertiFile(file.getPath(), sorgente, destinazione)) {
+                convertiti++;
+            }
+        }
+        return convertiti;
+    }
+
+    /**
+     * Converte un singolo file di dati da un formato all'altro.
+     *
+     * @param percorso percorso del file da convertire
+     * @param sorgente formato del file da convertire
+     * @param destinazione formato del file convertito
+     * @return true se la conversione è riuscita
+     */
+    public static boolean convertiFile(String percorso, SnapshotFormat sorgente, SnapshotFormat destinazione) {
+        String base = percorso.substring(0, percorso.length() - sorgente.getEstensione().length());
+        return JsonLoader.convertFile(percorso, base + destinazione.getEstensione());
+    }
+
+    private static SnapshotFormat formatoDi(String nomeFile) {
+        for (SnapshotFormat formato : SnapshotFormat.values()) {
+            if (nomeFile.endsWith(formato.getEstensione())) {
+                return formato;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Uso: SnapshotConverter <cartella> <json|smile>");
+            System.exit(1);
+        }
+        SnapshotFormat destinazione = SnapshotFormat.daNome(args[1]);
+        int convertiti = convertiCartella(args[0], destinazione);
+        System.out.println("File convertiti in " + destinazione.name().toLowerCase() + ": " + convertiti);
+    }
+}
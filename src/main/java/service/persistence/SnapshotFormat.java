@@ -0,0 +1,74 @@
+package service.persistence;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Rappresenta il formato con cui vengono scritti i file di dati del sistema di catering.
+ * JSON resta il formato leggibile per importazione ed esportazione; SMILE è la codifica
+ * binaria di Jackson, più compatta e veloce da leggere per gli snapshot di lavoro.
+ */
+public enum SnapshotFormat {
+    JSON(".json", new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)),
+    SMILE(".smile", new ObjectMapper(new SmileFactory()));
+
+    private final String estensione;
+    private final ObjectMapper mapper;
+
+    SnapshotFormat(String estensione, ObjectMapper mapper) {
+        this.estensione = estensione;
+        this.mapper = mapper
+                .registerModule(new JavaTimeModule())
+                .registerModule(PoolCanonico.modulo())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Restituisce l'estensione dei file in questo formato (es. ".smile").
+     */
+    public String getEstensione() {
+        return estensione;
+    }
+
+    /**
+     * Restituisce il mapper Jackson configurato per questo formato.
+     */
+    ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Sostituisce l'estensione .json di un percorso con quella di questo formato.
+     * I percorsi senza estensione .json restano invariati.
+     *
+     * @param percorso percorso di un file JSON (es. "data/menu.json")
+     * @return percorso del file equivalente in questo formato
+     */
+    public String percorsoPer(String percorso) {
+        if (this == JSON || !percorso.endsWith(JSON.estensione)) {
+            return percorso;
+        }
+        return percorso.substring(0, percorso.length() - JSON.estensione.length()) + estensione;
+    }
+
+    /**
+     * Interpreta il nome di un formato (es. da proprietà di sistema), con JSON come predefinito.
+     *
+     * @param nome nome del formato, senza distinzione tra maiuscole e minuscole
+     * @return il formato corrispondente, o JSON se il nome è nullo o sconosciuto
+     */
+    public static SnapshotFormat daNome(String nome) {
+        if (nome != null) {
+            for (SnapshotFormat formato : values()) {
+                if (formato.name().equalsIgnoreCase(nome.trim())) {
+                    return formato;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,214 @@
+package service.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Rappresenta un archivio su database embedded H2 salvato su file.
+ * Ogni entità occupa una riga con l'identificativo come chiave primaria, una colonna indicizzata
+ * per ogni indice secondario e il documento JSON dell'entità. Le ricerche per identificativo
+ * e per indice vengono eseguite dal database, senza caricare in memoria l'intera collezione,
+ * e ogni modifica scrive una sola riga.
+ *
+ * @param <T> tipo delle entità
+ */
+public class SqlRepository<T> implements Repository<T, Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(SqlRepository.class.getName());
+    private static final Pattern IDENTIFICATORE = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+
+    private final String tabella;
+    private final Class<T> tipo;
+    private final ToIntFunction<T> estraiId;
+    private final Map<String, Function<T, Integer>> indici;
+    private final ObjectMapper mapper = JsonLoader.getMapper();
+    private final ObjectWriter writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private final Connection connessione;
+    private final String sqlSalva;
+
+    /**
+     * Apre (o crea) l'archivio e la tabella delle entità con i relativi indici.
+     *
+     * @param jdbcUrl  URL JDBC del database (es. "jdbc:h2:./src/main/resources/data/catring")
+     * @param tabella  nome della tabella
+     * @param tipo     classe delle entità
+     * @param estraiId funzione che restituisce l'identificativo di un'entità
+     * @param indici   indici secondari, per nome; ogni nome diventa una colonna indicizzata
+     * @throws IllegalStateException se il database non può essere aperto
+     */
+    public SqlRepository(String jdbcUrl, String tabella, Class<T> tipo, ToIntFunction<T> estraiId,
+                         Map<String, Function<T, Integer>> indici) {
+        verificaIdentificatore(tabella);
+        indici.keySet().forEach(SqlRepository::verificaIdentificatore);
+        this.tabella = tabella;
+        this.tipo = tipo;
+        this.estraiId = estraiId;
+        this.indici = new LinkedHashMap<>(indici);
+
+        StringBuilder colonne = new StringBuilder("id");
+        StringBuilder parametri = new StringBuilder("?");
+        for (String indice : this.indici.keySet()) {
+            colonne.append(", ").append(indice);
+            parametri.append(", ?");
+        }
+        this.sqlSalva = "MERGE INTO " + tabella + " (" + colonne + ", dato) KEY(id) VALUES (" + parametri + ", ?)";
+
+        try {
+            this.connessione = DriverManager.getConnection(jdbcUrl);
+            creaSchema();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Impossibile aprire l'archivio " + jdbcUrl, e);
+        }
+    }
+
+    @Override
+    public synchronized List<T> findAll() {
+        return interroga("SELECT dato FROM " + tabella + " ORDER BY id", null);
+    }
+
+    @Override
+    public synchronized T findById(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        List<T> trovate = interroga("SELECT dato FROM " + tabella + " WHERE id = ?", id);
+        return trovate.isEmpty() ? null : trovate.get(0);
+    }
+
+    @Override
+    public synchronized List<T> findBy(String indice, Integer valore) {
+        if (!indici.containsKey(indice)) {
+            throw new IllegalArgumentException("Indice non dichiarato: " + indice);
+        }
+        if (valore == null) {
+            return Collections.emptyList();
+        }
+        return interroga("SELECT dato FROM " + tabella + " WHERE " + indice + " = ? ORDER BY id", valore);
+    }
+
+    @Override
+    public synchronized void save(T entita) {
+        saveAll(Collections.singletonList(entita));
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<T> entita) {
+        if (entita.isEmpty()) {
+            return;
+        }
+        try {
+            connessione.setAutoCommit(false);
+            try (PreparedStatement ps = connessione.prepareStatement(sqlSalva)) {
+                for (T singola : entita) {
+                    int parametro = 1;
+                    ps.setInt(parametro++, estraiId.applyAsInt(singola));
+                    for (Function<T, Integer> indice : indici.values()) {
+                        Integer valore = indice.apply(singola);
+                        if (valore != null) {
+                            ps.setInt(parametro++, valore);
+                        } else {
+                            ps.setNull(parametro++, Types.INTEGER);
+                        }
+                    }
+                    ps.setString(parametro, writer.writeValueAsString(singola));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connessione.commit();
+            } catch (SQLException | IOException e) {
+                connessione.rollback();
+                LOGGER.log(Level.SEVERE, "Errore nel salvataggio nella tabella " + tabella, e);
+            } finally {
+                connessione.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella transazione sulla tabella " + tabella, e);
+        }
+    }
+
+    @Override
+    public synchronized boolean deleteById(Integer id) {
+        try (PreparedStatement ps = connessione.prepareStatement("DELETE FROM " + tabella + " WHERE id = ?")) {
+            ps.setInt(1, id);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Errore nell'eliminazione dalla tabella " + tabella, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized int count() {
+        try (Statement st = connessione.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + tabella)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Errore nel conteggio della tabella " + tabella, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connessione.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Errore nella chiusura dell'archivio " + tabella, e);
+        }
+    }
+
+    private void creaSchema() throws SQLException {
+        try (Statement st = connessione.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS " + tabella + " (id INT PRIMARY KEY, dato CLOB NOT NULL)");
+            for (String indice : indici.keySet()) {
+                // Gli indici aggiunti dopo la creazione della tabella diventano nuove colonne
+                st.execute("ALTER TABLE " + tabella + " ADD COLUMN IF NOT EXISTS " + indice + " INT");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_" + tabella + "_" + indice
+                        + " ON " + tabella + " (" + indice + ")");
+            }
+        }
+    }
+
+    private List<T> interroga(String sql, Integer parametro) {
+        List<T> risultato = new ArrayList<>();
+        try (PreparedStatement ps = connessione.prepareStatement(sql)) {
+            if (parametro != null) {
+                ps.setInt(1, parametro);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    risultato.add(mapper.readValue(rs.getString(1), tipo));
+                }
+            }
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Errore nella lettura dalla tabella " + tabella, e);
+        }
+        return risultato;
+    }
+
+    private static void verificaIdentificatore(String nome) {
+        if (!IDENTIFICATORE.matcher(nome).matches()) {
+            throw new IllegalArgumentException("Nome non valido per l'archivio: " + nome);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package service.persistence;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rappresenta un salvataggio differito (write-behind) per i file JSON del sistema di catering.
+ * Ogni modifica segna soltanto i dati come da salvare; una volta per intervallo l'istantanea dei dati
+ * (es. i byte serializzati) viene presa sul thread che possiede i dati (es. il thread JavaFX) e scritta
+ * su file da un thread in background. Tutte le modifiche dell'intervallo costano così una sola
+ * serializzazione e una sola scrittura, e il thread in background non legge mai i dati in memoria.
+ *
+ * @param <T> tipo dell'istantanea, da non modificare dopo averla creata
+ */
+public class WriteBehindSaver<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(WriteBehindSaver.class.getName());
+
+    private final String nome;
+    private final Supplier<T> istantanea;
+    private final Predicate<T> scrittura;
+    private final Executor threadDati;
+    private final long intervalloMillis;
+    private final ScheduledExecutorService executor;
+    // Modifiche non ancora fissate in un'istantanea
+    private final AtomicBoolean sporco = new AtomicBoolean(false);
+    // Ultima istantanea non ancora scritta (null se non ce ne sono)
+    private final AtomicReference<T> pendente = new AtomicReference<>();
+    private final AtomicBoolean pianificato = new AtomicBoolean(false);
+    private final Object lockScrittura = new Object();
+    private volatile boolean chiuso = false;
+
+    /**
+     * Crea un salvataggio differito.
+     *
+     * @param nome             nome descrittivo dei dati salvati (usato per log e nome del thread)
+     * @param istantanea       operazione che fissa lo stato corrente dei dati (null se non riesce)
+     * @param scrittura        operazione che scrive un'istantanea su file e restituisce true in caso di successo
+     * @param threadDati       esecutore del thread che possiede i dati, su cui viene presa l'istantanea
+     *                         (es. {@code Platform::runLater})
+     * @param intervalloMillis intervallo di accorpamento delle scritture in millisecondi
+     */
+    public WriteBehindSaver(String nome, Supplier<T> istantanea, Predicate<T> scrittura,
+                            Executor threadDati, long intervalloMillis) {
+        if (intervalloMillis <= 0) {
+            throw new IllegalArgumentException("L'intervallo di salvataggio deve essere positivo");
+        }
+        this.nome = nome;
+        this.istantanea = istantanea;
+        this.scrittura = scrittura;
+        this.threadDati = threadDati;
+        this.intervalloMillis = intervalloMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "salvataggio-" + nome);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Segnala che i dati sono stati modificati e vanno salvati. Non serializza né scrive nulla:
+     * l'istantanea viene presa al più una volta per intervallo, indipendentemente dal numero di modifiche.
+     * Dopo la chiusura i dati vengono salvati subito sul thread chiamante.
+     */
+    public void markDirty() {
+        sporco.set(true);
+        if (chiuso) {
+            flush();
+            return;
+        }
+        pianifica();
+    }
+
+    /**
+     * Prende subito l'istantanea delle modifiche e la scrive su file.
+     * Va chiamato dal thread che possiede i dati.
+     *
+     * @return true se non restano modifiche da salvare
+     */
+    public boolean flush() {
+        prendiIstantanea();
+        return scriviPendente();
+    }
+
+    /**
+     * Indica se ci sono modifiche non ancora scritte su file.
+     */
+    public boolean isDirty() {
+        return sporco.get() || pendente.get() != null;
+    }
+
+    /**
+     * Ferma il thread in background ed esegue un ultimo salvataggio delle modifiche pendenti.
+     * Va chiamato dal thread che possiede i dati.
+     */
+    public void shutdown() {
+        chiuso = true;
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(intervalloMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void prendiIstantanea() {
+        if (!sporco.getAndSet(false)) {
+            return;
+        }
+        T dati = istantanea.get();
+        if (dati == null) {
+            // Resta pendente l'istantanea precedente, se c'è: verrà sostituita alla prossima modifica
+            LOGGER.log(Level.WARNING, "Istantanea non riuscita, modifiche non salvate: " + nome);
+            return;
+        }
+        pendente.set(dati);
+    }
+
+    private boolean scriviPendente() {
+        synchronized (lockScrittura) {
+            T dati = pendente.getAndSet(null);
+            if (dati == null) {
+                return true;
+            }
+            if (scrittura.test(dati)) {
+                return true;
+            }
+            // Si riprova con questa istantanea solo se nel frattempo non ne è arrivata una più recente
+            pendente.compareAndSet(null, dati);
+            return false;
+        }
+    }
+
+    private void pianifica() {
+        if (pianificato.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::richiediIstantanea, intervalloMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Chiusura in corso: il salvataggio finale viene fatto da shutdown()
+                pianificato.set(false);
+            }
+        }
+    }
+
+    /**
+     * Allo scadere dell'intervallo chiede al thread dei dati l'istantanea, poi torna in background a scriverla.
+     */
+    private void richiediIstantanea() {
+        threadDati.execute(() -> {
+            if (chiuso) {
+                return;
+            }
+            prendiIstantanea();
+            try {
+                executor.execute(this::eseguiScritturaPianificata);
+            } catch (RejectedExecutionException e) {
+                // Chiusura in corso: l'istantanea viene scritta da shutdown()
+                pianificato.set(false);
+            }
+        });
+    }
+
+    private void eseguiScritturaPianificata() {
+        pianificato.set(false);
+        if ((!scriviPendente() || sporco.get()) && !chiuso) {
+            pianifica();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.utenti.Cuoco;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta il bilanciamento del carico dei cuochi su tutti gli eventi di una data.
+ * Il carico di un cuoco è la somma delle durate dei suoi compiti nei turni della data, di qualunque evento.
+ *
+ * Alla creazione viene fatta una copia dei compiti, dei turni e delle disponibilità, così che
+ * {@link #calcola()} possa girare fuori dal thread dell'interfaccia senza leggere il servizio.
+ * A ogni passo viene scelto lo spostamento che riduce di più lo squilibrio (somma dei quadrati
+ * dei carichi): un compito da iniziare passa a un cuoco meno carico, nello stesso turno, se il
+ * cuoco è disponibile e ha ancora tempo libero nel turno, entro la soglia di turno pieno.
+ * Ci si ferma quando nessuno spostamento migliora; nel piano finiscono solo i compiti che
+ * alla fine cambiano cuoco.
+ */
+public class BilanciatoreCarichi {
+
+    // Solo i compiti non ancora iniziati possono cambiare cuoco
+    static final String STATO_SPOSTABILE = "Da iniziare";
+
+    private final CompitoCucinaService compitoCucinaService;
+    private final LocalDate data;
+    private final List<Cuoco> cuochi;
+    private final List<Turno> turni = new ArrayList<>();
+    private final int[] capacitaCuoco;
+    private final boolean[][] disponibile;
+    private final int[][] usatoIniziale;
+    private final int[] caricoIniziale;
+
+    private final List<Compito> spostabili = new ArrayList<>();
+    private final int[] durata;
+    private final int[] turnoDi;
+    private final int[] cuocoIniziale;
+
+    /**
+     * Copia lo stato dei compiti nei turni della data per i cuochi indicati.
+     * Va chiamato sul thread che modifica il servizio.
+     */
+    public BilanciatoreCarichi(CompitoCucinaService compitoCucinaService, LocalDate data, List<Cuoco> cuochi) {
+        this.compitoCucinaService = compitoCucinaService;
+        this.data = data;
+        this.cuochi = new ArrayList<>(new LinkedHashSet<>(cuochi));
+        Map<Integer, Integer> indiceCuoco = new HashMap<>();
+        for (int k = 0; k < this.cuochi.size(); k++) {
+            indiceCuoco.put(this.cuochi.get(k).getId(), k);
+        }
+
+        for (Turno turno : compitoCucinaService.getTurniTra(data, data)) {
+            if (turno.getOraInizio() != null && turno.getOraFine() != null) {
+                turni.add(turno);
+            }
+        }
+        int nTurni = turni.size();
+        int nCuochi = this.cuochi.size();
+        this.capacitaCuoco = new int[nTurni];
+        this.disponibile = new boolean[nTurni][nCuochi];
+        this.usatoIniziale = new int[nTurni][nCuochi];
+        this.caricoIniziale = new int[nCuochi];
+
+        List<Integer> durate = new ArrayList<>();
+        List<Integer> turniSpostabili = new ArrayList<>();
+        List<Integer> cuochiSpostabili = new ArrayList<>();
+        for (int t = 0; t < nTurni; t++) {
+            Turno turno = turni.get(t);
+            capacitaCuoco[t] = CompitoCucinaService.getCapacitaCuoco(turno);
+            for (int k = 0; k < nCuochi; k++) {
+                disponibile[t][k] = compitoCucinaService.isCuocoDisponibile(this.cuochi.get(k), turno);
+            }
+            for (Compito compito : compitoCucinaService.controllaStatoTurno(turno)) {
+                Integer k = compito.getCuocoId() != null ? indiceCuoco.get(compito.getCuocoId()) : null;
+                if (k == null) {
+                    continue;
+                }
+                usatoIniziale[t][k] += compito.getDurata();
+                caricoIniziale[k] += compito.getDurata();
+                if (STATO_SPOSTABILE.equals(compito.getStato()) && compito.getDurata() > 0) {
+                    spostabili.add(compito);
+                    durate.add(compito.getDurata());
+                    turniSpostabili.add(t);
+                    cuochiSpostabili.add(k);
+                }
+            }
+        }
+        this.durata = durate.stream().mapToInt(Integer::intValue).toArray();
+        this.turnoDi = turniSpostabili.stream().mapToInt(Integer::intValue).toArray();
+        this.cuocoIniziale = cuochiSpostabili.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Calcola gli spostamenti sulla copia dello stato. Non legge né modifica il servizio.
+     */
+    public PianoBilanciamento calcola() {
+        int[] carico = caricoIniziale.clone();
+        int[][] usato = new int[usatoIniziale.length][];
+        for (int t = 0; t < usato.length; t++) {
+            usato[t] = usatoIniziale[t].clone();
+        }
+        int[] cuoco = cuocoIniziale.clone();
+
+        while (true) {
+            int migliore = -1;
+            int destinazione = -1;
+            long guadagnoMigliore = 0;
+            for (int i = 0; i < durata.length; i++) {
+                int t = turnoDi[i];
+                int da = cuoco[i];
+                for (int a = 0; a < cuochi.size(); a++) {
+                    if (a == da || !disponibile[t][a] || usato[t][a] + durata[i] > capacitaCuoco[t]) {
+                        continue;
+                    }
+                    // Variazione della somma dei quadrati dei carichi spostando il compito da "da" ad "a"
+                    long guadagno = 2L * durata[i] * (carico[da] - carico[a] - durata[i]);
+                    if (guadagno > guadagnoMigliore) {
+                        guadagnoMigliore = guadagno;
+                        migliore = i;
+                        destinazione = a;
+                    }
+                }
+            }
+            if (migliore < 0) {
+                break;
+            }
+            int t = turnoDi[migliore];
+            int da = cuoco[migliore];
+            usato[t][da] -= durata[migliore];
+            carico[da] -= durata[migliore];
+            usato[t][destinazione] += durata[migliore];
+            carico[destinazione] += durata[migliore];
+            cuoco[migliore] = destinazione;
+        }
+
+        List<PianoBilanciamento.Spostamento> spostamenti = new ArrayList<>();
+        for (int i = 0; i < durata.length; i++) {
+            if (cuoco[i] != cuocoIniziale[i]) {
+                spostamenti.add(new PianoBilanciamento.Spostamento(spostabili.get(i),
+                    cuochi.get(cuocoIniziale[i]), cuochi.get(cuoco[i]), turni.get(turnoDi[i])));
+            }
+        }
+        return new PianoBilanciamento(data, spostamenti, mappaCarichi(caricoIniziale), mappaCarichi(carico));
+    }
+
+    /**
+     * Calcola il piano sull'esecutore indicato (es. un thread in background).
+     */
+    public CompletableFuture<PianoBilanciamento> calcolaAsync(Executor esecutore) {
+        return CompletableFuture.supplyAsync(this::calcola, esecutore);
+    }
+
+    /**
+     * Applica gli spostamenti del piano e li salva con un'unica scrittura.
+     * Se nel frattempo un compito è stato modificato, eliminato o un turno non ha più posto,
+     * non viene applicato nessuno spostamento. Va chiamato sul thread che modifica il servizio.
+     *
+     * @return true se il piano è stato applicato
+     */
+    public boolean applica(PianoBilanciamento piano) {
+        Map<Turno, Map<Cuoco, Integer>> variazioni = new LinkedHashMap<>();
+        for (PianoBilanciamento.Spostamento spostamento : piano.getSpostamenti()) {
+            Compito compito = spostamento.getCompito();
+            if (compitoCucinaService.getCompitoById(compito.getId()) != compito
+                    || compito.getCuocoId() == null
+                    || compito.getCuocoId() != spostamento.getDa().getId()
+                    || !STATO_SPOSTABILE.equals(compito.getStato())
+                    || compitoCucinaService.getTurnoDelCompito(compito) != spostamento.getTurno()) {
+                return false;
+            }
+            Map<Cuoco, Integer> variazioniTurno = variazioni.computeIfAbsent(spostamento.getTurno(), t -> new HashMap<>());
+            variazioniTurno.merge(spostamento.getDa(), -compito.getDurata(), Integer::sum);
+            variazioniTurno.merge(spostamento.getA(), compito.getDurata(), Integer::sum);
+        }
+        for (Map.Entry<Turno, Map<Cuoco, Integer>> voce : variazioni.entrySet()) {
+            Turno turno = voce.getKey();
+            int capacita = CompitoCucinaService.getCapacitaCuoco(turno);
+            for (Map.Entry<Cuoco, Integer> variazione : voce.getValue().entrySet()) {
+                if (variazione.getValue() > 0
+                        && compitoCucinaService.getTempoAssegnatoCuoco(variazione.getKey(), turno, null)
+                            + variazione.getValue() > capacita) {
+                    return false;
+                }
+            }
+        }
+
+        List<Compito> modificati = new ArrayList<>();
+        for (PianoBilanciamento.Spostamento spostamento : piano.getSpostamenti()) {
+            spostamento.getCompito().setCuocoAssegnato(spostamento.getA());
+            modificati.add(spostamento.getCompito());
+        }
+        compitoCucinaService.aggiornaCompiti(modificati);
+        return true;
+    }
+
+    private Map<Cuoco, Integer> mappaCarichi(int[] carico) {
+        Map<Cuoco, Integer> mappa = new LinkedHashMap<>();
+        for (int k = 0; k < cuochi.size(); k++) {
+            mappa.put(cuochi.get(k), carico[k]);
+        }
+        return mappa;
+    }
+}
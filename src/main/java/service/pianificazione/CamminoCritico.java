@@ -0,0 +1,302 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Rappresenta il calcolo del cammino critico dei compiti di un turno.
+ * Per ogni compito calcola l'inizio minimo (dopo la fine di tutti i prerequisiti) e l'inizio
+ * massimo che non ritarda la fine del turno, in minuti dall'inizio del turno; i compiti senza
+ * margine formano il cammino critico. I compiti sono considerati eseguibili in parallelo
+ * da cuochi diversi: conta solo l'ordine imposto dai prerequisiti.
+ *
+ * I prerequisiti che non fanno parte del turno sono considerati già completati.
+ * Quando cambia la durata di un compito vengono ricalcolati solo i compiti che ne dipendono
+ * e quelli da cui dipende.
+ */
+public class CamminoCritico {
+
+    private final int[] ids;
+    private final Map<Integer, Integer> indice = new HashMap<>();
+    private final int[] durata;
+    private final List<List<Integer>> prerequisiti = new ArrayList<>();
+    private final int[][] predecessori;
+    private final int[][] successori;
+    // Compiti in ordine topologico e posizione di ogni compito nell'ordine
+    private final int[] ordine;
+    private final int[] posizione;
+    private final int[] inizioMinimo;
+    private final int[] inizioMassimo;
+    private int durataTotale;
+
+    /**
+     * @param compiti compiti del turno
+     * @throws IllegalArgumentException se i prerequisiti dei compiti formano un ciclo
+     */
+    public CamminoCritico(Collection<Compito> compiti) {
+        int n = compiti.size();
+        this.ids = new int[n];
+        this.durata = new int[n];
+        int i = 0;
+        for (Compito compito : compiti) {
+            ids[i] = compito.getId();
+            durata[i] = Math.max(0, compito.getDurata());
+            indice.put(compito.getId(), i);
+            prerequisiti.add(List.copyOf(compito.getPrerequisiti()));
+            i++;
+        }
+
+        List<List<Integer>> verso = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            verso.add(new ArrayList<>());
+        }
+        this.predecessori = new int[n][];
+        i = 0;
+        for (Compito compito : compiti) {
+            int v = i++;
+            predecessori[v] = compito.getPrerequisiti().stream()
+                .map(indice::get)
+                .filter(p -> p != null && p != v)
+                .distinct()
+                .mapToInt(Integer::intValue)
+                .toArray();
+            for (int p : predecessori[v]) {
+                verso.get(p).add(v);
+            }
+        }
+        this.successori = new int[n][];
+        for (int v = 0; v < n; v++) {
+            successori[v] = verso.get(v).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.ordine = ordinaTopologicamente();
+        this.posizione = new int[n];
+        for (int p = 0; p < n; p++) {
+            posizione[ordine[p]] = p;
+        }
+        this.inizioMinimo = new int[n];
+        this.inizioMassimo = new int[n];
+        calcolaInizioMinimo();
+        calcolaInizioMassimo();
+    }
+
+    public boolean contiene(int compitoId) {
+        return indice.containsKey(compitoId);
+    }
+
+    /**
+     * Verifica se il calcolo usa ancora i prerequisiti attuali del compito.
+     */
+    public boolean haPrerequisiti(Compito compito) {
+        Integer v = indice.get(compito.getId());
+        return v != null && prerequisiti.get(v).equals(compito.getPrerequisiti());
+    }
+
+    /**
+     * Restituisce i minuti dall'inizio del turno dopo i quali il compito può iniziare.
+     */
+    public int getInizioMinimo(int compitoId) {
+        return inizioMinimo[indiceDi(compitoId)];
+    }
+
+    /**
+     * Restituisce i minuti dall'inizio del turno entro cui il compito deve iniziare
+     * per non ritardare la fine di tutti i compiti.
+     */
+    public int getInizioMassimo(int compitoId) {
+        return inizioMassimo[indiceDi(compitoId)];
+    }
+
+    /**
+     * Restituisce i minuti di cui il compito può ritardare senza spostare la fine del turno.
+     */
+    public int getMargine(int compitoId) {
+        int v = indiceDi(compitoId);
+        return inizioMassimo[v] - inizioMinimo[v];
+    }
+
+    public boolean isCritico(int compitoId) {
+        return getMargine(compitoId) == 0;
+    }
+
+    /**
+     * Restituisce i minuti necessari per completare tutti i compiti, cioè la lunghezza del cammino critico.
+     */
+    public int getDurataTotale() {
+        return durataTotale;
+    }
+
+    /**
+     * Restituisce gli ID dei compiti di un cammino critico, dal primo all'ultimo.
+     */
+    public List<Integer> getPercorsoCritico() {
+        List<Integer> percorso = new ArrayList<>();
+        int corrente = -1;
+        for (int v : ordine) {
+            if (inizioMinimo[v] == 0 && inizioMassimo[v] == 0) {
+                corrente = v;
+                break;
+            }
+        }
+        while (corrente >= 0) {
+            percorso.add(ids[corrente]);
+            int fine = inizioMinimo[corrente] + durata[corrente];
+            int prossimo = -1;
+            for (int s : successori[corrente]) {
+                if (inizioMinimo[s] == fine && inizioMassimo[s] == fine
+                        && (prossimo < 0 || posizione[s] < posizione[prossimo])) {
+                    prossimo = s;
+                }
+            }
+            corrente = prossimo;
+        }
+        return percorso;
+    }
+
+    /**
+     * Restituisce gli ID dei compiti nell'ordine in cui conviene iniziarli:
+     * per inizio minimo e, a parità, prima quelli con meno margine.
+     */
+    public List<Integer> getOrdineDiInizio() {
+        return IntStream.of(ordine).boxed()
+            .sorted(Comparator.comparingInt((Integer v) -> inizioMinimo[v])
+                .thenComparingInt(v -> inizioMassimo[v] - inizioMinimo[v])
+                .thenComparingInt(v -> posizione[v]))
+            .map(v -> ids[v])
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Aggiorna la durata di un compito e ricalcola solo i tempi che ne dipendono.
+     */
+    public void aggiornaDurata(int compitoId, int nuovaDurata) {
+        int modificato = indiceDi(compitoId);
+        nuovaDurata = Math.max(0, nuovaDurata);
+        if (durata[modificato] == nuovaDurata) {
+            return;
+        }
+        durata[modificato] = nuovaDurata;
+
+        // In avanti: cambia l'inizio minimo solo dei compiti che seguono quello modificato
+        boolean[] fineCambiata = new boolean[ids.length];
+        fineCambiata[modificato] = true;
+        int nuovaDurataTotale = 0;
+        for (int p = 0; p < ordine.length; p++) {
+            int v = ordine[p];
+            if (p > posizione[modificato] && haPredecessoreCambiato(v, fineCambiata)) {
+                int inizio = fineMassimaPredecessori(v);
+                if (inizio != inizioMinimo[v]) {
+                    inizioMinimo[v] = inizio;
+                    fineCambiata[v] = true;
+                }
+            }
+            nuovaDurataTotale = Math.max(nuovaDurataTotale, inizioMinimo[v] + durata[v]);
+        }
+
+        if (nuovaDurataTotale != durataTotale) {
+            // La fine di tutti i compiti è cambiata: si spostano tutti gli inizi massimi
+            durataTotale = nuovaDurataTotale;
+            calcolaInizioMassimo();
+            return;
+        }
+
+        // All'indietro: cambia l'inizio massimo solo del compito modificato e di quelli che lo precedono
+        boolean[] inizioCambiato = new boolean[ids.length];
+        for (int p = posizione[modificato]; p >= 0; p--) {
+            int v = ordine[p];
+            if (v == modificato || haSuccessoreCambiato(v, inizioCambiato)) {
+                int inizio = inizioMassimoDi(v);
+                if (inizio != inizioMassimo[v]) {
+                    inizioMassimo[v] = inizio;
+                    inizioCambiato[v] = true;
+                }
+            }
+        }
+    }
+
+    private int indiceDi(int compitoId) {
+        Integer v = indice.get(compitoId);
+        if (v == null) {
+            throw new IllegalArgumentException("Compito non presente nel turno: " + compitoId);
+        }
+        return v;
+    }
+
+    private int[] ordinaTopologicamente() {
+        int n = ids.length;
+        int[] entranti = new int[n];
+        for (int v = 0; v < n; v++) {
+            entranti[v] = predecessori[v].length;
+        }
+        Deque<Integer> pronti = new ArrayDeque<>();
+        for (int v = 0; v < n; v++) {
+            if (entranti[v] == 0) {
+                pronti.add(v);
+            }
+        }
+        int[] risultato = new int[n];
+        int ordinati = 0;
+        while (!pronti.isEmpty()) {
+            int v = pronti.poll();
+            risultato[ordinati++] = v;
+            for (int s : successori[v]) {
+                if (--entranti[s] == 0) {
+                    pronti.add(s);
+                }
+            }
+        }
+        if (ordinati < n) {
+            throw new IllegalArgumentException("I prerequisiti dei compiti formano un ciclo");
+        }
+        return risultato;
+    }
+
+    private void calcolaInizioMinimo() {
+        durataTotale = 0;
+        for (int v : ordine) {
+            inizioMinimo[v] = fineMassimaPredecessori(v);
+            durataTotale = Math.max(durataTotale, inizioMinimo[v] + durata[v]);
+        }
+    }
+
+    private void calcolaInizioMassimo() {
+        for (int p = ordine.length - 1; p >= 0; p--) {
+            int v = ordine[p];
+            inizioMassimo[v] = inizioMassimoDi(v);
+        }
+    }
+
+    private int fineMassimaPredecessori(int v) {
+        int fine = 0;
+        for (int p : predecessori[v]) {
+            fine = Math.max(fine, inizioMinimo[p] + durata[p]);
+        }
+        return fine;
+    }
+
+    private int inizioMassimoDi(int v) {
+        int fine = durataTotale;
+        for (int s : successori[v]) {
+            fine = Math.min(fine, inizioMassimo[s]);
+        }
+        return fine - durata[v];
+    }
+
+    private boolean haPredecessoreCambiato(int v, boolean[] cambiati) {
+        return Arrays.stream(predecessori[v]).anyMatch(p -> cambiati[p]);
+    }
+
+    private boolean haSuccessoreCambiato(int v, boolean[] cambiati) {
+        return Arrays.stream(successori[v]).anyMatch(s -> cambiati[s]);
+    }
+}
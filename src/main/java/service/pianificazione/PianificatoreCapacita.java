@@ -0,0 +1,291 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta la pianificazione della capacità dei turni per le ricette di un evento ancora senza compiti.
+ * Le ricette vengono disposte con first-fit decreasing: dalla più lunga, ciascuna nel primo cuoco
+ * (turni in ordine di inizio) che ha ancora abbastanza minuti liberi nel turno, entro la soglia di
+ * turno pieno ({@link CompitoCucinaService#getCapacitaCuoco(Turno)}) come nel risolutore. Dal risultato si
+ * ricavano i minuti residui di ogni turno, le ricette che non trovano posto e quanti turni
+ * aggiuntivi servirebbero per collocarle.
+ *
+ * Il piano si aggiorna in modo incrementale con {@link #registraCompito(Compito)}: alla creazione
+ * di un compito viene tolta la sua ricetta e occupato il tempo del cuoco nel turno, e vengono
+ * ricollocate solo le ricette che non entrano più in quel cuoco.
+ */
+public class PianificatoreCapacita {
+
+    // Durata dei turni suggeriti quando non ci sono turni candidati da cui ricavarla
+    static final int DURATA_TURNO_PREDEFINITA = 6 * 60;
+
+    /**
+     * Rappresenta il tempo di un cuoco in un turno.
+     */
+    private static final class Posto {
+        final Turno turno;
+        final Cuoco cuoco;
+        int capacita;
+        int usato;
+        final List<Richiesta> richieste = new ArrayList<>();
+
+        Posto(Turno turno, Cuoco cuoco, int capacita) {
+            this.turno = turno;
+            this.cuoco = cuoco;
+            this.capacita = capacita;
+        }
+
+        int libero() {
+            return capacita - usato;
+        }
+    }
+
+    /**
+     * Rappresenta una ricetta da collocare con la sua durata.
+     */
+    private static final class Richiesta {
+        final Ricetta ricetta;
+        final int durata;
+        Posto posto;
+
+        Richiesta(Ricetta ricetta, int durata) {
+            this.ricetta = ricetta;
+            this.durata = durata;
+        }
+    }
+
+    private static final Comparator<Richiesta> PIU_LUNGHE_PRIMA =
+        Comparator.comparingInt((Richiesta r) -> r.durata).reversed();
+
+    private final CompitoCucinaService compitoCucinaService;
+    private final Evento evento;
+    private final List<Posto> posti = new ArrayList<>();
+    private final Map<Integer, Richiesta> richieste = new LinkedHashMap<>();
+    private final List<Richiesta> senzaPosto = new ArrayList<>();
+    private final int durataTurnoSuggerito;
+    // Minuti assegnabili a un cuoco in un turno suggerito
+    private final int capacitaTurnoSuggerito;
+    private final int cuochiPerTurno;
+
+    /**
+     * Calcola il piano sui turni dei giorni dell'evento con i cuochi indicati.
+     */
+    public PianificatoreCapacita(CompitoCucinaService compitoCucinaService, Evento evento, List<Cuoco> cuochi) {
+        this(compitoCucinaService, evento,
+            new RisolutoreAssegnazioni(compitoCucinaService, 1).getTurniEvento(evento), cuochi);
+    }
+
+    /**
+     * @param compitoCucinaService servizio da cui leggere compiti e carichi
+     * @param evento               evento di cui collocare le ricette
+     * @param turni                turni candidati, nell'ordine in cui riempirli
+     * @param cuochi               cuochi che possono lavorare nei turni
+     */
+    public PianificatoreCapacita(CompitoCucinaService compitoCucinaService, Evento evento,
+                                 List<Turno> turni, List<Cuoco> cuochi) {
+        this.compitoCucinaService = compitoCucinaService;
+        this.evento = evento;
+        int durataMassima = 0;
+        for (Turno turno : turni) {
+            if (turno.getOraInizio() == null || turno.getOraFine() == null) {
+                continue;
+            }
+            durataMassima = Math.max(durataMassima, CompitoCucinaService.getMinutiTurno(turno));
+            int capacita = CompitoCucinaService.getCapacitaCuoco(turno);
+            for (Cuoco cuoco : cuochi) {
+                if (compitoCucinaService.isCuocoDisponibile(cuoco, turno)) {
+                    int giaAssegnati = compitoCucinaService.getTempoAssegnatoCuoco(cuoco, turno, null);
+                    posti.add(new Posto(turno, cuoco, Math.max(0, capacita - giaAssegnati)));
+                }
+            }
+        }
+        this.durataTurnoSuggerito = durataMassima > 0 ? durataMassima : DURATA_TURNO_PREDEFINITA;
+        this.capacitaTurnoSuggerito = CompitoCucinaService.getCapacitaCuoco(durataTurnoSuggerito);
+        this.cuochiPerTurno = Math.max(1, cuochi.size());
+
+        List<Richiesta> daCollocare = new ArrayList<>();
+        for (Ricetta ricetta : new RisolutoreAssegnazioni(compitoCucinaService, 1).getRicetteDaAssegnare(evento)) {
+            Richiesta richiesta = new Richiesta(ricetta, RisolutoreAssegnazioni.durataDi(ricetta));
+            richieste.put(ricetta.getId(), richiesta);
+            daCollocare.add(richiesta);
+        }
+        colloca(daCollocare);
+    }
+
+    /**
+     * Aggiorna il piano dopo la creazione di un compito dell'evento: la ricetta non è più da collocare
+     * e il tempo del compito viene tolto al cuoco nel turno. Le ricette che non entrano più
+     * nel tempo rimasto a quel cuoco vengono ricollocate.
+     */
+    public void registraCompito(Compito compito) {
+        if (compito.getEventoId() == null || compito.getEventoId() != evento.getId()) {
+            return;
+        }
+        Richiesta soddisfatta = compito.getRicettaId() != null ? richieste.remove(compito.getRicettaId()) : null;
+        if (soddisfatta != null) {
+            libera(soddisfatta);
+            senzaPosto.remove(soddisfatta);
+        }
+
+        Turno turno = compitoCucinaService.getTurnoDelCompito(compito);
+        Posto posto = turno == null || compito.getCuocoId() == null ? null : posti.stream()
+            .filter(p -> p.turno == turno && p.cuoco.getId() == compito.getCuocoId())
+            .findFirst()
+            .orElse(null);
+        if (posto == null) {
+            return;
+        }
+        posto.capacita = Math.max(0, posto.capacita - compito.getDurata());
+        if (posto.libero() >= 0) {
+            return;
+        }
+        // Toglie dal posto le ricette più lunghe finché il resto entra, poi le ricolloca
+        List<Richiesta> spostate = new ArrayList<>();
+        posto.richieste.sort(PIU_LUNGHE_PRIMA);
+        while (posto.libero() < 0 && !posto.richieste.isEmpty()) {
+            Richiesta richiesta = posto.richieste.get(0);
+            libera(richiesta);
+            spostate.add(richiesta);
+        }
+        colloca(spostate);
+    }
+
+    /**
+     * Restituisce i minuti ancora liberi in ogni turno, sommati sui cuochi, dopo aver collocato le ricette.
+     */
+    public Map<Turno, Integer> getCapacitaResidua() {
+        Map<Turno, Integer> residua = new LinkedHashMap<>();
+        for (Posto posto : posti) {
+            residua.merge(posto.turno, posto.libero(), Integer::sum);
+        }
+        return residua;
+    }
+
+    /**
+     * Restituisce il cuoco e il turno in cui è collocata una ricetta, o null se non ha posto.
+     */
+    public PianoAssegnazione.Assegnazione getCollocazione(Ricetta ricetta) {
+        Richiesta richiesta = richieste.get(ricetta.getId());
+        if (richiesta == null || richiesta.posto == null) {
+            return null;
+        }
+        return new PianoAssegnazione.Assegnazione(ricetta, richiesta.posto.cuoco, richiesta.posto.turno, richiesta.durata);
+    }
+
+    /**
+     * Restituisce le ricette dell'evento che non hanno ancora compiti.
+     */
+    public List<Ricetta> getRicetteDaCollocare() {
+        List<Ricetta> ricette = new ArrayList<>();
+        richieste.values().forEach(r -> ricette.add(r.ricetta));
+        return ricette;
+    }
+
+    /**
+     * Restituisce le ricette che non entrano in nessun turno candidato.
+     */
+    public List<Ricetta> getRicetteSenzaPosto() {
+        List<Ricetta> ricette = new ArrayList<>();
+        senzaPosto.forEach(r -> ricette.add(r.ricetta));
+        return Collections.unmodifiableList(ricette);
+    }
+
+    /**
+     * Restituisce i minuti delle ricette che non trovano posto.
+     */
+    public int getMinutiSenzaPosto() {
+        return senzaPosto.stream().mapToInt(r -> r.durata).sum();
+    }
+
+    /**
+     * Restituisce quanti turni aggiuntivi, della durata del turno candidato più lungo e con tutti
+     * i cuochi, servirebbero per collocare le ricette rimaste senza posto. Ogni cuoco riceve al più
+     * la capacità del turno suggerito; le ricette che la superano non sono contate
+     * (vedi {@link #getRicetteTroppoLunghe()}).
+     */
+    public int getTurniAggiuntiviSuggeriti() {
+        List<Integer> liberi = new ArrayList<>();
+        List<Richiesta> ordinate = new ArrayList<>(senzaPosto);
+        ordinate.sort(PIU_LUNGHE_PRIMA);
+        for (Richiesta richiesta : ordinate) {
+            if (richiesta.durata > capacitaTurnoSuggerito) {
+                continue;
+            }
+            int i = 0;
+            while (i < liberi.size() && liberi.get(i) < richiesta.durata) {
+                i++;
+            }
+            if (i == liberi.size()) {
+                liberi.add(capacitaTurnoSuggerito);
+            }
+            liberi.set(i, liberi.get(i) - richiesta.durata);
+        }
+        return (liberi.size() + cuochiPerTurno - 1) / cuochiPerTurno;
+    }
+
+    /**
+     * Restituisce le ricette che non entrerebbero neanche in un turno suggerito vuoto.
+     */
+    public List<Ricetta> getRicetteTroppoLunghe() {
+        List<Ricetta> ricette = new ArrayList<>();
+        senzaPosto.stream().filter(r -> r.durata > capacitaTurnoSuggerito).forEach(r -> ricette.add(r.ricetta));
+        return ricette;
+    }
+
+    public int getDurataTurnoSuggerito() {
+        return durataTurnoSuggerito;
+    }
+
+    /**
+     * Restituisce i minuti assegnabili a ogni cuoco in un turno suggerito.
+     */
+    public int getCapacitaTurnoSuggerito() {
+        return capacitaTurnoSuggerito;
+    }
+
+    /**
+     * First-fit decreasing: colloca le richieste, dalla più lunga, nel primo posto con abbastanza tempo.
+     */
+    private void colloca(List<Richiesta> daCollocare) {
+        daCollocare.sort(PIU_LUNGHE_PRIMA);
+        for (Richiesta richiesta : daCollocare) {
+            Posto scelto = null;
+            for (Posto posto : posti) {
+                if (posto.libero() >= richiesta.durata) {
+                    scelto = posto;
+                    break;
+                }
+            }
+            if (scelto == null) {
+                if (!senzaPosto.contains(richiesta)) {
+                    senzaPosto.add(richiesta);
+                }
+                continue;
+            }
+            senzaPosto.remove(richiesta);
+            scelto.richieste.add(richiesta);
+            scelto.usato += richiesta.durata;
+            richiesta.posto = scelto;
+        }
+    }
+
+    private static void libera(Richiesta richiesta) {
+        Posto posto = richiesta.posto;
+        if (posto != null) {
+            posto.richieste.remove(richiesta);
+            posto.usato -= richiesta.durata;
+            richiesta.posto = null;
+        }
+    }
+}
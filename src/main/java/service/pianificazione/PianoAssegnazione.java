@@ -0,0 +1,72 @@
+package service.pianificazione;
+
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rappresenta il risultato del risolutore delle assegnazioni per un evento:
+ * per ogni ricetta il cuoco e il turno scelti, le ricette che non trovano posto
+ * e il carico finale dei cuochi. Il piano non modifica i dati finché non viene applicato.
+ */
+public class PianoAssegnazione {
+
+    /**
+     * Rappresenta l'assegnazione di una ricetta a un cuoco in un turno.
+     */
+    public static class Assegnazione {
+        private final Ricetta ricetta;
+        private final Cuoco cuoco;
+        private final Turno turno;
+        private final int durata;
+
+        public Assegnazione(Ricetta ricetta, Cuoco cuoco, Turno turno, int durata) {
+            this.ricetta = ricetta;
+            this.cuoco = cuoco;
+            this.turno = turno;
+            this.durata = durata;
+        }
+
+        public Ricetta getRicetta() { return ricetta; }
+        public Cuoco getCuoco() { return cuoco; }
+        public Turno getTurno() { return turno; }
+        public int getDurata() { return durata; }
+    }
+
+    private final Evento evento;
+    private final List<Assegnazione> assegnazioni;
+    private final List<Ricetta> nonAssegnate;
+    private final Map<Cuoco, Integer> caricoCuochi;
+    private final int makespan;
+
+    public PianoAssegnazione(Evento evento, List<Assegnazione> assegnazioni, List<Ricetta> nonAssegnate,
+                             Map<Cuoco, Integer> caricoCuochi, int makespan) {
+        this.evento = evento;
+        this.assegnazioni = Collections.unmodifiableList(assegnazioni);
+        this.nonAssegnate = Collections.unmodifiableList(nonAssegnate);
+        this.caricoCuochi = Collections.unmodifiableMap(caricoCuochi);
+        this.makespan = makespan;
+    }
+
+    public Evento getEvento() { return evento; }
+    public List<Assegnazione> getAssegnazioni() { return assegnazioni; }
+    public List<Ricetta> getNonAssegnate() { return nonAssegnate; }
+
+    /**
+     * Restituisce i minuti totali di ciascun cuoco nei turni considerati, compresi i compiti già esistenti.
+     */
+    public Map<Cuoco, Integer> getCaricoCuochi() { return caricoCuochi; }
+
+    /**
+     * Restituisce il carico del cuoco più impegnato, in minuti.
+     */
+    public int getMakespan() { return makespan; }
+
+    public boolean isCompleto() {
+        return nonAssegnate.isEmpty();
+    }
+}
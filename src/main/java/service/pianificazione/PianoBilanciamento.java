@@ -0,0 +1,100 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.utenti.Cuoco;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rappresenta le riassegnazioni proposte per bilanciare il carico dei cuochi in una data,
+ * con i carichi prima e dopo gli spostamenti.
+ */
+public class PianoBilanciamento {
+
+    /**
+     * Rappresenta lo spostamento di un compito da un cuoco a un altro nello stesso turno.
+     */
+    public static class Spostamento {
+        private final Compito compito;
+        private final Cuoco da;
+        private final Cuoco a;
+        private final Turno turno;
+
+        public Spostamento(Compito compito, Cuoco da, Cuoco a, Turno turno) {
+            this.compito = compito;
+            this.da = da;
+            this.a = a;
+            this.turno = turno;
+        }
+
+        public Compito getCompito() {
+            return compito;
+        }
+
+        public Cuoco getDa() {
+            return da;
+        }
+
+        public Cuoco getA() {
+            return a;
+        }
+
+        public Turno getTurno() {
+            return turno;
+        }
+    }
+
+    private final LocalDate data;
+    private final List<Spostamento> spostamenti;
+    private final Map<Cuoco, Integer> caricoPrima;
+    private final Map<Cuoco, Integer> caricoDopo;
+
+    public PianoBilanciamento(LocalDate data, List<Spostamento> spostamenti,
+                              Map<Cuoco, Integer> caricoPrima, Map<Cuoco, Integer> caricoDopo) {
+        this.data = data;
+        this.spostamenti = Collections.unmodifiableList(spostamenti);
+        this.caricoPrima = Collections.unmodifiableMap(caricoPrima);
+        this.caricoDopo = Collections.unmodifiableMap(caricoDopo);
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public List<Spostamento> getSpostamenti() {
+        return spostamenti;
+    }
+
+    /**
+     * Restituisce i minuti di lavoro di ogni cuoco nella data prima degli spostamenti.
+     */
+    public Map<Cuoco, Integer> getCaricoPrima() {
+        return caricoPrima;
+    }
+
+    /**
+     * Restituisce i minuti di lavoro di ogni cuoco nella data dopo gli spostamenti.
+     */
+    public Map<Cuoco, Integer> getCaricoDopo() {
+        return caricoDopo;
+    }
+
+    public int getCaricoMassimoPrima() {
+        return massimo(caricoPrima);
+    }
+
+    public int getCaricoMassimoDopo() {
+        return massimo(caricoDopo);
+    }
+
+    public boolean isVuoto() {
+        return spostamenti.isEmpty();
+    }
+
+    private static int massimo(Map<Cuoco, Integer> carico) {
+        return carico.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+}
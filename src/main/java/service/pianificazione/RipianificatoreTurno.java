@@ -0,0 +1,134 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.utenti.Cuoco;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta la ripianificazione di un turno durante il servizio, quando un compito si blocca
+ * o richiede più tempo del previsto. Viene considerato solo il turno del compito e, al suo interno,
+ * solo i compiti ancora da iniziare del suo cuoco: gli altri turni e cuochi non vengono toccati.
+ *
+ * Se il compito è bloccato il cuoco resta impegnato su di esso e il suo lavoro successivo passa
+ * ad altri cuochi, tranne i compiti che dipendono da quello bloccato (non possono comunque iniziare).
+ * Se il compito è in ritardo vengono spostati solo i compiti del cuoco che non entrano più nel turno,
+ * partendo da quelli che nel cammino critico iniziano più tardi. I compiti vanno al cuoco disponibile
+ * con più tempo libero nel turno; quelli per cui nessuno ha tempo restano al cuoco.
+ */
+public class RipianificatoreTurno {
+
+    static final String STATO_BLOCCATO = "Bloccato";
+
+    private final CompitoCucinaService compitoCucinaService;
+    private Consumer<Compito> osservatore;
+
+    public RipianificatoreTurno(CompitoCucinaService compitoCucinaService) {
+        this.compitoCucinaService = compitoCucinaService;
+    }
+
+    /**
+     * Ripianifica automaticamente a ogni cambio di stato o ritardo segnalato al servizio.
+     *
+     * @param esito chiamato con gli spostamenti applicati, quando ce ne sono
+     */
+    public void collega(Consumer<List<PianoBilanciamento.Spostamento>> esito) {
+        scollega();
+        osservatore = compito -> {
+            List<PianoBilanciamento.Spostamento> spostamenti = ripianifica(compito);
+            if (!spostamenti.isEmpty()) {
+                esito.accept(spostamenti);
+            }
+        };
+        compitoCucinaService.aggiungiOsservatoreAvanzamento(osservatore);
+    }
+
+    public void scollega() {
+        if (osservatore != null) {
+            compitoCucinaService.rimuoviOsservatoreAvanzamento(osservatore);
+            osservatore = null;
+        }
+    }
+
+    /**
+     * Sposta il lavoro successivo del cuoco di un compito bloccato o in ritardo su cuochi con tempo libero
+     * nello stesso turno. Le riassegnazioni vengono salvate con un'unica scrittura.
+     *
+     * @param causa compito bloccato o in ritardo
+     * @return gli spostamenti applicati, vuoto se non serve o non è possibile spostare nulla
+     */
+    public List<PianoBilanciamento.Spostamento> ripianifica(Compito causa) {
+        List<PianoBilanciamento.Spostamento> spostamenti = new ArrayList<>();
+        Turno turno = compitoCucinaService.getTurnoDelCompito(causa);
+        Cuoco cuoco = causa.getCuocoAssegnato();
+        if (turno == null || cuoco == null || turno.getOraInizio() == null || turno.getOraFine() == null) {
+            return spostamenti;
+        }
+        int capacita = CompitoCucinaService.getCapacitaCuoco(turno);
+        boolean bloccato = STATO_BLOCCATO.equals(causa.getStato());
+        int eccesso = compitoCucinaService.getTempoAssegnatoCuoco(cuoco, turno, null) - capacita;
+        if (!bloccato && eccesso <= 0) {
+            return spostamenti;
+        }
+
+        List<Compito> daSpostare = new ArrayList<>();
+        for (Compito compito : compitoCucinaService.controllaStatoTurno(turno)) {
+            if (compito != causa && compito.getCuocoId() != null && compito.getCuocoId() == cuoco.getId()
+                    && BilanciatoreCarichi.STATO_SPOSTABILE.equals(compito.getStato())
+                    && !(bloccato && compitoCucinaService.dipendeDa(compito, causa.getId()))) {
+                daSpostare.add(compito);
+            }
+        }
+        if (daSpostare.isEmpty()) {
+            return spostamenti;
+        }
+        CamminoCritico cammino = compitoCucinaService.getCamminoCritico(turno);
+        if (bloccato) {
+            // Prima i compiti critici, che hanno più bisogno di un cuoco libero
+            daSpostare.sort(Comparator.comparingInt((Compito c) -> cammino.getMargine(c.getId()))
+                .thenComparingInt(c -> cammino.getInizioMinimo(c.getId())));
+        } else {
+            // Prima il lavoro più a valle nel turno
+            daSpostare.sort(Comparator.comparingInt((Compito c) -> cammino.getInizioMinimo(c.getId()))
+                .thenComparingInt(c -> cammino.getMargine(c.getId()))
+                .reversed());
+        }
+
+        Map<Cuoco, Integer> liberi = new HashMap<>();
+        for (Cuoco altro : compitoCucinaService.getCuochiDisponibili(turno)) {
+            if (altro.getId() != cuoco.getId()) {
+                liberi.put(altro, capacita - compitoCucinaService.getTempoAssegnatoCuoco(altro, turno, null));
+            }
+        }
+        List<Compito> modificati = new ArrayList<>();
+        for (Compito compito : daSpostare) {
+            if (!bloccato && eccesso <= 0) {
+                break;
+            }
+            Cuoco scelto = null;
+            for (Map.Entry<Cuoco, Integer> voce : liberi.entrySet()) {
+                if (voce.getValue() >= compito.getDurata()
+                        && (scelto == null || voce.getValue() > liberi.get(scelto)
+                            || (voce.getValue().equals(liberi.get(scelto)) && voce.getKey().getId() < scelto.getId()))) {
+                    scelto = voce.getKey();
+                }
+            }
+            if (scelto == null) {
+                continue;
+            }
+            liberi.merge(scelto, -compito.getDurata(), Integer::sum);
+            eccesso -= compito.getDurata();
+            compito.setCuocoAssegnato(scelto);
+            modificati.add(compito);
+            spostamenti.add(new PianoBilanciamento.Spostamento(compito, cuoco, scelto, turno));
+        }
+        compitoCucinaService.aggiornaCompiti(modificati);
+        return spostamenti;
+    }
+}
@@ -0,0 +1,392 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.menu.SezioneMenu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta il risolutore automatico delle assegnazioni dei compiti di un evento.
+ * Ogni ricetta del menu ancora senza compiti viene assegnata a un cuoco in un turno,
+ * rispettando il tempo libero del cuoco nel turno (considerando i compiti di tutti gli eventi)
+ * e le sue disponibilità, e minimizzando il carico del cuoco più impegnato. Il tempo di un cuoco
+ * in un turno arriva fino alla soglia di turno pieno ({@link CompitoCucinaService#getCapacitaCuoco}).
+ *
+ * La soluzione parte da un'assegnazione greedy (prima le ricette più lunghe, ciascuna al cuoco
+ * meno carico) e viene migliorata con una ricerca locale che sposta e scambia ricette.
+ * Più ricerche con ordini di partenza diversi vengono eseguite in parallelo sui core
+ * disponibili e viene tenuta la migliore; a parità di risultato vince la prima, quindi
+ * il piano prodotto è sempre lo stesso a parità di dati.
+ */
+public class RisolutoreAssegnazioni {
+
+    // Durata usata per le ricette senza tempo di preparazione
+    static final int DURATA_PREDEFINITA = 30;
+
+    // Limite ai passi di miglioramento di ogni ricerca locale
+    private static final int MAX_PASSI = 10_000;
+
+    private final CompitoCucinaService compitoCucinaService;
+    private final int tentativi;
+
+    /**
+     * Crea il risolutore con un numero di ricerche proporzionale ai core disponibili.
+     */
+    public RisolutoreAssegnazioni(CompitoCucinaService compitoCucinaService) {
+        this(compitoCucinaService, Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param tentativi numero di ricerche eseguite da ordini di partenza diversi (almeno 1)
+     */
+    public RisolutoreAssegnazioni(CompitoCucinaService compitoCucinaService, int tentativi) {
+        if (tentativi < 1) {
+            throw new IllegalArgumentException("Serve almeno un tentativo");
+        }
+        this.compitoCucinaService = compitoCucinaService;
+        this.tentativi = tentativi;
+    }
+
+    /**
+     * Calcola il piano per l'evento usando i turni compresi tra la data di inizio e di fine dell'evento.
+     */
+    public PianoAssegnazione risolvi(Evento evento, List<Cuoco> cuochi) {
+        return risolvi(evento, getTurniEvento(evento), cuochi);
+    }
+
+    /**
+     * Calcola il piano per le ricette del menu dell'evento che non hanno ancora compiti.
+     * I dati del servizio non vengono modificati: per creare i compiti usare {@link #applica(PianoAssegnazione)}.
+     *
+     * @param evento evento da pianificare
+     * @param turni  turni in cui possono essere svolti i compiti
+     * @param cuochi cuochi a cui possono essere assegnati i compiti
+     * @return il piano calcolato
+     */
+    public PianoAssegnazione risolvi(Evento evento, List<Turno> turni, List<Cuoco> cuochi) {
+        List<Ricetta> ricette = getRicetteDaAssegnare(evento);
+        List<Turno> turniValidi = turni.stream()
+            .filter(t -> t.getData() != null && t.getOraInizio() != null && t.getOraFine() != null)
+            .collect(Collectors.toList());
+        List<Cuoco> cuochiDistinti = new ArrayList<>(new LinkedHashSet<>(cuochi));
+
+        Istanza istanza = new Istanza(ricette, turniValidi, cuochiDistinti);
+        Soluzione migliore = IntStream.range(0, tentativi)
+            .parallel()
+            .mapToObj(tentativo -> cerca(istanza, tentativo))
+            .reduce((a, b) -> b.confronta(a) < 0 ? b : a)
+            .orElseThrow();
+        return creaPiano(evento, istanza, migliore);
+    }
+
+    /**
+     * Crea i compiti del piano nel servizio, con una quantità pari al numero di persone dell'evento.
+     *
+     * @return i compiti creati
+     */
+    public List<Compito> applica(PianoAssegnazione piano) {
+        Evento evento = piano.getEvento();
+        double quantita = Math.max(1, evento.getNumeroDiPersone());
+        List<Compito> creati = new ArrayList<>();
+        for (PianoAssegnazione.Assegnazione assegnazione : piano.getAssegnazioni()) {
+            creati.add(compitoCucinaService.assegnaCompito(assegnazione.getCuoco(), assegnazione.getTurno(),
+                assegnazione.getRicetta(), assegnazione.getDurata(), quantita, evento));
+        }
+        return creati;
+    }
+
+    /**
+     * Restituisce le ricette distinte del menu dell'evento per cui non esiste ancora un compito.
+     * Il menu viene risolto dal suo menuId se l'evento non è ancora collegato.
+     */
+    public List<Ricetta> getRicetteDaAssegnare(Evento evento) {
+        Menu menu = compitoCucinaService.getMenuEvento(evento);
+        if (menu == null) {
+            return new ArrayList<>();
+        }
+        Set<Ricetta> ricette = new LinkedHashSet<>();
+        for (SezioneMenu sezione : menu.getSezioni()) {
+            for (Ricetta ricetta : sezione.getRicetteOriginali()) {
+                if (ricetta != null && compitoCucinaService.getCompitiPerRicetta(evento, ricetta).isEmpty()) {
+                    ricette.add(ricetta);
+                }
+            }
+        }
+        return new ArrayList<>(ricette);
+    }
+
+    /**
+     * Restituisce i turni che cadono nei giorni dell'evento.
+     */
+    public List<Turno> getTurniEvento(Evento evento) {
+        if (evento.getDataInizio() == null) {
+            return new ArrayList<>();
+        }
+        LocalDate inizio = evento.getDataInizio().toLocalDate();
+        LocalDate fine = evento.getDataFine() != null ? evento.getDataFine().toLocalDate() : inizio;
+        return compitoCucinaService.getTurniTra(inizio, fine);
+    }
+
+    static int durataDi(Ricetta ricetta) {
+        return ricetta.getTempoPreparazione() > 0 ? ricetta.getTempoPreparazione() : DURATA_PREDEFINITA;
+    }
+
+    /**
+     * Esegue una ricerca: assegnazione greedy e ricerca locale. Il tentativo 0 usa
+     * l'ordine per durata decrescente, gli altri lo perturbano in modo casuale.
+     */
+    private static Soluzione cerca(Istanza istanza, int tentativo) {
+        Soluzione soluzione = new Soluzione(istanza);
+        SplittableRandom casuale = new SplittableRandom(tentativo);
+
+        double[] priorita = new double[istanza.durate.length];
+        for (int r = 0; r < priorita.length; r++) {
+            double rumore = tentativo == 0 ? 0 : casuale.nextDouble(0.5);
+            priorita[r] = istanza.durate[r] * (1 + rumore);
+        }
+        Integer[] ordine = IntStream.range(0, priorita.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(ordine, Comparator.comparingDouble((Integer r) -> -priorita[r]));
+
+        for (int r : ordine) {
+            int slotMigliore = -1;
+            for (int s = 0; s < istanza.capacita.length; s++) {
+                if (!soluzione.entra(r, s)) {
+                    continue;
+                }
+                if (slotMigliore < 0 || soluzione.preferisci(r, s, slotMigliore)) {
+                    slotMigliore = s;
+                }
+            }
+            if (slotMigliore >= 0) {
+                soluzione.sposta(r, slotMigliore);
+            }
+        }
+
+        migliora(soluzione);
+        return soluzione;
+    }
+
+    /**
+     * Ricerca locale: applica spostamenti e scambi finché il piano migliora.
+     */
+    private static void migliora(Soluzione soluzione) {
+        Istanza istanza = soluzione.istanza;
+        int ricette = istanza.durate.length;
+        int passi = 0;
+        boolean migliorato = true;
+        while (migliorato && passi < MAX_PASSI) {
+            migliorato = false;
+            for (int r = 0; r < ricette; r++) {
+                for (int s = 0; s < istanza.capacita.length; s++) {
+                    if (s != soluzione.slotDi[r] && soluzione.entra(r, s) && soluzione.provaSpostamento(r, s)) {
+                        migliorato = true;
+                        passi++;
+                    }
+                }
+            }
+            for (int a = 0; a < ricette; a++) {
+                for (int b = a + 1; b < ricette; b++) {
+                    if (soluzione.provaScambio(a, b)) {
+                        migliorato = true;
+                        passi++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static PianoAssegnazione creaPiano(Evento evento, Istanza istanza, Soluzione soluzione) {
+        List<PianoAssegnazione.Assegnazione> assegnazioni = new ArrayList<>();
+        List<Ricetta> nonAssegnate = new ArrayList<>();
+        for (int r = 0; r < istanza.ricette.size(); r++) {
+            int s = soluzione.slotDi[r];
+            if (s < 0) {
+                nonAssegnate.add(istanza.ricette.get(r));
+            } else {
+                assegnazioni.add(new PianoAssegnazione.Assegnazione(istanza.ricette.get(r),
+                    istanza.cuochi.get(istanza.cuocoDiSlot[s]), istanza.turnoDiSlot[s], istanza.durate[r]));
+            }
+        }
+        Map<Cuoco, Integer> carico = new LinkedHashMap<>();
+        for (int c = 0; c < istanza.cuochi.size(); c++) {
+            carico.put(istanza.cuochi.get(c), soluzione.carico[c]);
+        }
+        return new PianoAssegnazione(evento, assegnazioni, nonAssegnate, carico, soluzione.makespan());
+    }
+
+    /**
+     * Dati del problema: le ricette con la loro durata e gli "slot", cioè le coppie cuoco x turno
+     * con i minuti ancora liberi. Condivisi in sola lettura tra le ricerche parallele.
+     */
+    private final class Istanza {
+        final List<Ricetta> ricette;
+        final List<Cuoco> cuochi;
+        final int[] durate;
+        final int[] cuocoDiSlot;
+        final Turno[] turnoDiSlot;
+        final int[] capacita;
+        final int[] caricoIniziale;
+
+        Istanza(List<Ricetta> ricette, List<Turno> turni, List<Cuoco> cuochi) {
+            this.ricette = ricette;
+            this.cuochi = cuochi;
+            this.durate = ricette.stream().mapToInt(RisolutoreAssegnazioni::durataDi).toArray();
+
+            int slot = turni.size() * cuochi.size();
+            this.cuocoDiSlot = new int[slot];
+            this.turnoDiSlot = new Turno[slot];
+            this.capacita = new int[slot];
+            this.caricoIniziale = new int[cuochi.size()];
+            int s = 0;
+            for (Turno turno : turni) {
+                int capacitaCuoco = CompitoCucinaService.getCapacitaCuoco(turno);
+                for (int c = 0; c < cuochi.size(); c++) {
+                    int giaAssegnati = compitoCucinaService.getTempoAssegnatoCuoco(cuochi.get(c), turno, null);
+                    boolean presente = compitoCucinaService.isCuocoDisponibile(cuochi.get(c), turno);
+                    cuocoDiSlot[s] = c;
+                    turnoDiSlot[s] = turno;
+                    capacita[s] = presente ? Math.max(0, capacitaCuoco - giaAssegnati) : 0;
+                    caricoIniziale[c] += giaAssegnati;
+                    s++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stato di una ricerca. Il costo confronta, nell'ordine, i minuti di ricette non assegnate,
+     * il carico massimo tra i cuochi e la somma dei quadrati dei carichi (che premia piani più equilibrati).
+     */
+    private static final class Soluzione {
+        final Istanza istanza;
+        final int[] slotDi;
+        final int[] usato;
+        final int[] carico;
+        long minutiNonAssegnati;
+
+        Soluzione(Istanza istanza) {
+            this.istanza = istanza;
+            this.slotDi = new int[istanza.durate.length];
+            Arrays.fill(slotDi, -1);
+            this.usato = new int[istanza.capacita.length];
+            this.carico = istanza.caricoIniziale.clone();
+            this.minutiNonAssegnati = Arrays.stream(istanza.durate).asLongStream().sum();
+        }
+
+        boolean entra(int r, int s) {
+            return usato[s] + istanza.durate[r] <= istanza.capacita[s];
+        }
+
+        /**
+         * Nel greedy preferisce lo slot del cuoco che resta meno carico, poi il turno meno pieno.
+         */
+        boolean preferisci(int r, int s, int attuale) {
+            int caricoS = carico[istanza.cuocoDiSlot[s]];
+            int caricoAttuale = carico[istanza.cuocoDiSlot[attuale]];
+            if (caricoS != caricoAttuale) {
+                return caricoS < caricoAttuale;
+            }
+            return usato[s] < usato[attuale];
+        }
+
+        void sposta(int r, int s) {
+            int durata = istanza.durate[r];
+            int precedente = slotDi[r];
+            if (precedente >= 0) {
+                usato[precedente] -= durata;
+                carico[istanza.cuocoDiSlot[precedente]] -= durata;
+            } else {
+                minutiNonAssegnati -= durata;
+            }
+            if (s >= 0) {
+                usato[s] += durata;
+                carico[istanza.cuocoDiSlot[s]] += durata;
+            } else {
+                minutiNonAssegnati += durata;
+            }
+            slotDi[r] = s;
+        }
+
+        boolean provaSpostamento(int r, int s) {
+            long[] prima = costo();
+            int precedente = slotDi[r];
+            sposta(r, s);
+            if (confrontaCosti(costo(), prima) < 0) {
+                return true;
+            }
+            sposta(r, precedente);
+            return false;
+        }
+
+        boolean provaScambio(int a, int b) {
+            int slotA = slotDi[a];
+            int slotB = slotDi[b];
+            if (slotA < 0 || slotB < 0 || istanza.cuocoDiSlot[slotA] == istanza.cuocoDiSlot[slotB]) {
+                return false;
+            }
+            int durataA = istanza.durate[a];
+            int durataB = istanza.durate[b];
+            if (durataA == durataB
+                    || usato[slotA] - durataA + durataB > istanza.capacita[slotA]
+                    || usato[slotB] - durataB + durataA > istanza.capacita[slotB]) {
+                return false;
+            }
+            long[] prima = costo();
+            sposta(a, -1);
+            sposta(b, slotA);
+            sposta(a, slotB);
+            if (confrontaCosti(costo(), prima) < 0) {
+                return true;
+            }
+            sposta(a, -1);
+            sposta(b, slotB);
+            sposta(a, slotA);
+            return false;
+        }
+
+        int makespan() {
+            int massimo = 0;
+            for (int minuti : carico) {
+                massimo = Math.max(massimo, minuti);
+            }
+            return massimo;
+        }
+
+        long[] costo() {
+            long quadrati = 0;
+            for (int minuti : carico) {
+                quadrati += (long) minuti * minuti;
+            }
+            return new long[] {minutiNonAssegnati, makespan(), quadrati};
+        }
+
+        int confronta(Soluzione altra) {
+            return confrontaCosti(costo(), altra.costo());
+        }
+
+        private static int confrontaCosti(long[] a, long[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) {
+                    return Long.compare(a[i], b[i]);
+                }
+            }
+            return 0;
+        }
+    }
+}
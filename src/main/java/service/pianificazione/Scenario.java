@@ -0,0 +1,69 @@
+package service.pianificazione;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rappresenta un'alternativa di pianificazione da confrontare con lo stato corrente:
+ * una sequenza di variazioni applicate, nell'ordine, a una copia dello stato delle assegnazioni.
+ */
+public class Scenario {
+
+    private final String nome;
+    private final List<UnaryOperator<StatoAssegnazioni>> variazioni = new ArrayList<>();
+
+    public Scenario(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Aggiunge una variazione qualsiasi dello stato.
+     */
+    public Scenario con(UnaryOperator<StatoAssegnazioni> variazione) {
+        variazioni.add(variazione);
+        return this;
+    }
+
+    public Scenario aggiungiCuoco(int cuocoId) {
+        return con(stato -> stato.conCuoco(cuocoId));
+    }
+
+    public Scenario rimuoviCuoco(int cuocoId) {
+        return con(stato -> stato.senzaCuoco(cuocoId));
+    }
+
+    public Scenario spostaTurno(int turnoId, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        return con(stato -> stato.conTurnoSpostato(turnoId, data, oraInizio, oraFine));
+    }
+
+    public Scenario aggiungiTurno(int turnoId, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        return con(stato -> stato.conTurno(new StatoAssegnazioni.FasciaTurno(turnoId, data, oraInizio, oraFine)));
+    }
+
+    public Scenario rimuoviRicetta(int ricettaId) {
+        return con(stato -> stato.senzaRicetta(ricettaId));
+    }
+
+    public List<UnaryOperator<StatoAssegnazioni>> getVariazioni() {
+        return Collections.unmodifiableList(variazioni);
+    }
+
+    /**
+     * Applica le variazioni allo stato indicato, che non viene modificato.
+     */
+    public StatoAssegnazioni applica(StatoAssegnazioni stato) {
+        StatoAssegnazioni risultato = stato;
+        for (UnaryOperator<StatoAssegnazioni> variazione : variazioni) {
+            risultato = variazione.apply(risultato);
+        }
+        return risultato;
+    }
+}
@@ -0,0 +1,289 @@
+package service.pianificazione;
+
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta una copia immutabile dello stato delle assegnazioni: turni, cuochi e compiti
+ * ridotti agli identificativi e alle durate. Lo stato non fa riferimento alle liste osservabili
+ * del servizio, quindi può essere letto da più thread, e ogni variazione restituisce un nuovo
+ * stato che condivide con l'originale tutto ciò che non cambia.
+ *
+ * Lo stato copiato dal servizio comprende solo i turni dei giorni pianificati e i loro compiti,
+ * e ricorda quali cuochi non sono presenti in ciascun turno secondo le disponibilità registrate.
+ */
+public final class StatoAssegnazioni {
+
+    /**
+     * Rappresenta un compito nello stato: una ricetta con la sua durata, il cuoco e il turno.
+     * Cuoco e turno sono null per le ricette ancora da assegnare.
+     */
+    public static final class Voce {
+        private final int ricettaId;
+        private final Integer cuocoId;
+        private final Integer turnoId;
+        private final int durata;
+
+        public Voce(int ricettaId, Integer cuocoId, Integer turnoId, int durata) {
+            this.ricettaId = ricettaId;
+            this.cuocoId = cuocoId;
+            this.turnoId = turnoId;
+            this.durata = durata;
+        }
+
+        public int getRicettaId() { return ricettaId; }
+        public Integer getCuocoId() { return cuocoId; }
+        public Integer getTurnoId() { return turnoId; }
+        public int getDurata() { return durata; }
+
+        public boolean isAssegnata() {
+            return cuocoId != null && turnoId != null;
+        }
+    }
+
+    /**
+     * Rappresenta la data e la fascia oraria di un turno.
+     */
+    public static final class FasciaTurno {
+        private final int id;
+        private final LocalDate data;
+        private final LocalTime oraInizio;
+        private final LocalTime oraFine;
+
+        public FasciaTurno(int id, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+            this.id = id;
+            this.data = data;
+            this.oraInizio = oraInizio;
+            this.oraFine = oraFine;
+        }
+
+        public int getId() { return id; }
+        public LocalDate getData() { return data; }
+        public LocalTime getOraInizio() { return oraInizio; }
+        public LocalTime getOraFine() { return oraFine; }
+
+        /**
+         * Restituisce la durata della fascia; se termina prima di iniziare prosegue nel giorno successivo.
+         */
+        public int getMinuti() {
+            return CompitoCucinaService.getMinutiTurno(oraInizio, oraFine);
+        }
+
+        /**
+         * Restituisce i minuti assegnabili a un cuoco nella fascia, come nel risolutore.
+         */
+        public int getCapacitaCuoco() {
+            return CompitoCucinaService.getCapacitaCuoco(getMinuti());
+        }
+    }
+
+    private final Map<Integer, FasciaTurno> turni;
+    private final Set<Integer> cuochi;
+    private final List<Voce> voci;
+    // Turno -> cuochi non presenti secondo le disponibilità (solo per i turni copiati dal servizio)
+    private final Map<Integer, Set<Integer>> assenti;
+    // Giorni in cui possono essere assegnate le voci da assegnare (null se senza limite)
+    private final LocalDate primoGiorno;
+    private final LocalDate ultimoGiorno;
+
+    private StatoAssegnazioni(Map<Integer, FasciaTurno> turni, Set<Integer> cuochi, List<Voce> voci,
+                              Map<Integer, Set<Integer>> assenti, LocalDate primoGiorno, LocalDate ultimoGiorno) {
+        this.turni = Collections.unmodifiableMap(turni);
+        this.cuochi = Collections.unmodifiableSet(cuochi);
+        this.voci = Collections.unmodifiableList(voci);
+        this.assenti = Collections.unmodifiableMap(assenti);
+        this.primoGiorno = primoGiorno;
+        this.ultimoGiorno = ultimoGiorno;
+    }
+
+    /**
+     * Copia lo stato del servizio per i giorni di un evento. Va chiamato dal thread che modifica
+     * i compiti (il thread dell'interfaccia), dopodiché lo stato può essere valutato su qualsiasi thread.
+     *
+     * @param compitoCucinaService servizio da cui leggere turni e compiti
+     * @param cuochi               cuochi disponibili; sono inclusi anche i cuochi dei compiti copiati
+     * @param evento               evento le cui ricette ancora senza compiti vengono aggiunte
+     *                             come voci da assegnare nei turni dei suoi giorni
+     */
+    public static StatoAssegnazioni di(CompitoCucinaService compitoCucinaService, Collection<Cuoco> cuochi, Evento evento) {
+        RisolutoreAssegnazioni risolutore = new RisolutoreAssegnazioni(compitoCucinaService, 1);
+        LocalDate primoGiorno = null;
+        LocalDate ultimoGiorno = null;
+        if (evento.getDataInizio() != null) {
+            primoGiorno = evento.getDataInizio().toLocalDate();
+            ultimoGiorno = evento.getDataFine() != null ? evento.getDataFine().toLocalDate() : primoGiorno;
+        }
+        return di(compitoCucinaService, cuochi, risolutore.getTurniEvento(evento),
+            risolutore.getRicetteDaAssegnare(evento), primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Copia lo stato del servizio per i turni dei giorni indicati (estremi inclusi), senza voci da assegnare.
+     * Va chiamato dal thread che modifica i compiti.
+     *
+     * @param compitoCucinaService servizio da cui leggere turni e compiti
+     * @param cuochi               cuochi disponibili; sono inclusi anche i cuochi dei compiti copiati
+     */
+    public static StatoAssegnazioni di(CompitoCucinaService compitoCucinaService, Collection<Cuoco> cuochi,
+                                       LocalDate primoGiorno, LocalDate ultimoGiorno) {
+        return di(compitoCucinaService, cuochi, compitoCucinaService.getTurniTra(primoGiorno, ultimoGiorno),
+            Collections.emptyList(), primoGiorno, ultimoGiorno);
+    }
+
+    private static StatoAssegnazioni di(CompitoCucinaService compitoCucinaService, Collection<Cuoco> cuochi,
+                                        List<Turno> turniPianificati, List<Ricetta> daAssegnare,
+                                        LocalDate primoGiorno, LocalDate ultimoGiorno) {
+        Map<Integer, FasciaTurno> turni = new LinkedHashMap<>();
+        Set<Integer> idCuochi = cuochi.stream().map(Cuoco::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Integer, Cuoco> cuochiPerId = new LinkedHashMap<>();
+        cuochi.forEach(cuoco -> cuochiPerId.putIfAbsent(cuoco.getId(), cuoco));
+        List<Voce> voci = new ArrayList<>();
+        List<Turno> copiati = new ArrayList<>();
+        for (Turno turno : turniPianificati) {
+            if (turno.getData() == null || turno.getOraInizio() == null || turno.getOraFine() == null) {
+                continue;
+            }
+            turni.put(turno.getId(), new FasciaTurno(turno.getId(), turno.getData(),
+                turno.getOraInizio(), turno.getOraFine()));
+            copiati.add(turno);
+            // Solo i compiti dei turni pianificati: quelli di altri giorni non pesano sulle metriche
+            for (Compito compito : compitoCucinaService.controllaStatoTurno(turno)) {
+                if (compito.getCuocoId() != null) {
+                    idCuochi.add(compito.getCuocoId());
+                }
+                if (compito.getCuocoAssegnato() != null) {
+                    cuochiPerId.putIfAbsent(compito.getCuocoId(), compito.getCuocoAssegnato());
+                }
+                int ricettaId = compito.getRicettaId() != null ? compito.getRicettaId() : 0;
+                voci.add(new Voce(ricettaId, compito.getCuocoId(), turno.getId(), compito.getDurata()));
+            }
+        }
+        for (Ricetta ricetta : daAssegnare) {
+            voci.add(new Voce(ricetta.getId(), null, null, RisolutoreAssegnazioni.durataDi(ricetta)));
+        }
+
+        Map<Integer, Set<Integer>> assenti = new LinkedHashMap<>();
+        for (Turno turno : copiati) {
+            for (Cuoco cuoco : cuochiPerId.values()) {
+                if (!compitoCucinaService.isCuocoDisponibile(cuoco, turno)) {
+                    assenti.computeIfAbsent(turno.getId(), id -> new LinkedHashSet<>()).add(cuoco.getId());
+                }
+            }
+        }
+        return new StatoAssegnazioni(turni, idCuochi, voci, assenti,
+            primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Crea uno stato a partire dai dati già ridotti.
+     */
+    public static StatoAssegnazioni di(Collection<FasciaTurno> turni, Collection<Integer> cuochi, Collection<Voce> voci) {
+        Map<Integer, FasciaTurno> perId = new LinkedHashMap<>();
+        turni.forEach(t -> perId.put(t.getId(), t));
+        return new StatoAssegnazioni(perId, new LinkedHashSet<>(cuochi), new ArrayList<>(voci),
+            Collections.emptyMap(), null, null);
+    }
+
+    public Map<Integer, FasciaTurno> getTurni() { return turni; }
+    public Set<Integer> getCuochi() { return cuochi; }
+    public List<Voce> getVoci() { return voci; }
+
+    /**
+     * Verifica se le voci da assegnare possono essere assegnate nel turno, in base al giorno.
+     */
+    public boolean isAssegnabile(FasciaTurno turno) {
+        return (primoGiorno == null || !turno.getData().isBefore(primoGiorno))
+            && (ultimoGiorno == null || !turno.getData().isAfter(ultimoGiorno));
+    }
+
+    /**
+     * Verifica se il cuoco è presente nel turno. Per i turni aggiunti o spostati negli scenari
+     * le disponibilità non sono note e il cuoco è considerato presente.
+     */
+    public boolean isPresente(int cuocoId, FasciaTurno turno) {
+        return !assenti.getOrDefault(turno.getId(), Collections.emptySet()).contains(cuocoId);
+    }
+
+    /**
+     * Restituisce lo stato in cui le voci da assegnare possono andare solo nei turni dei giorni indicati.
+     */
+    public StatoAssegnazioni conGiorni(LocalDate primoGiorno, LocalDate ultimoGiorno) {
+        return new StatoAssegnazioni(turni, cuochi, voci, assenti, primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Restituisce lo stato con un cuoco in più.
+     */
+    public StatoAssegnazioni conCuoco(int cuocoId) {
+        Set<Integer> nuoviCuochi = new LinkedHashSet<>(cuochi);
+        nuoviCuochi.add(cuocoId);
+        return new StatoAssegnazioni(turni, nuoviCuochi, voci, assenti, primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Restituisce lo stato senza un cuoco: i suoi compiti tornano da assegnare.
+     */
+    public StatoAssegnazioni senzaCuoco(int cuocoId) {
+        Set<Integer> nuoviCuochi = new LinkedHashSet<>(cuochi);
+        nuoviCuochi.remove(cuocoId);
+        List<Voce> nuoveVoci = voci.stream()
+            .map(v -> v.getCuocoId() != null && v.getCuocoId() == cuocoId
+                ? new Voce(v.getRicettaId(), null, null, v.getDurata()) : v)
+            .collect(Collectors.toList());
+        return new StatoAssegnazioni(turni, nuoviCuochi, nuoveVoci, assenti, primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Restituisce lo stato con un turno spostato in un'altra data o fascia oraria.
+     * I compiti del turno restano assegnati al turno spostato.
+     *
+     * @throws IllegalArgumentException se il turno non è presente nello stato
+     */
+    public StatoAssegnazioni conTurnoSpostato(int turnoId, LocalDate data, LocalTime oraInizio, LocalTime oraFine) {
+        if (!turni.containsKey(turnoId)) {
+            throw new IllegalArgumentException("Turno non presente: " + turnoId);
+        }
+        Map<Integer, FasciaTurno> nuoviTurni = new LinkedHashMap<>(turni);
+        nuoviTurni.put(turnoId, new FasciaTurno(turnoId, data, oraInizio, oraFine));
+        // Le disponibilità registrate valevano per il vecchio orario
+        Map<Integer, Set<Integer>> nuoviAssenti = new LinkedHashMap<>(assenti);
+        nuoviAssenti.remove(turnoId);
+        return new StatoAssegnazioni(nuoviTurni, cuochi, voci, nuoviAssenti, primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Restituisce lo stato con un turno in più, senza compiti.
+     */
+    public StatoAssegnazioni conTurno(FasciaTurno turno) {
+        Map<Integer, FasciaTurno> nuoviTurni = new LinkedHashMap<>(turni);
+        nuoviTurni.put(turno.getId(), turno);
+        Map<Integer, Set<Integer>> nuoviAssenti = new LinkedHashMap<>(assenti);
+        nuoviAssenti.remove(turno.getId());
+        return new StatoAssegnazioni(nuoviTurni, cuochi, voci, nuoviAssenti, primoGiorno, ultimoGiorno);
+    }
+
+    /**
+     * Restituisce lo stato senza i compiti di una ricetta, come se fosse tolta dal menu.
+     */
+    public StatoAssegnazioni senzaRicetta(int ricettaId) {
+        List<Voce> nuoveVoci = voci.stream()
+            .filter(v -> v.getRicettaId() != ricettaId)
+            .collect(Collectors.toList());
+        return new StatoAssegnazioni(turni, cuochi, nuoveVoci, assenti, primoGiorno, ultimoGiorno);
+    }
+}
@@ -0,0 +1,123 @@
+package service.pianificazione;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import service.CompitoCucinaService;
+
+/**
+ * Rappresenta la valutazione di scenari alternativi di pianificazione.
+ * Ogni scenario viene applicato a una copia dello stato delle assegnazioni e valutato
+ * in parallelo su un pool fork-join: i dati del servizio non vengono né modificati né salvati.
+ *
+ * Nella valutazione i compiti restano al cuoco e al turno a cui sono assegnati finché c'è posto;
+ * quelli che non entrano più (turno accorciato, cuoco rimosso) e le ricette ancora da assegnare
+ * vengono distribuiti, dal più lungo, al cuoco presente meno carico che ha tempo libero in un turno.
+ * Come nel risolutore, a un cuoco si assegnano al più i minuti della soglia di turno pieno
+ * ({@link StatoAssegnazioni.FasciaTurno#getCapacitaCuoco()}).
+ */
+public class ValutatoreScenari {
+
+    private final ForkJoinPool pool;
+
+    public ValutatoreScenari() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ValutatoreScenari(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Valuta gli scenari in parallelo a partire dallo stesso stato.
+     *
+     * @return le valutazioni, nello stesso ordine degli scenari
+     */
+    public List<ValutazioneScenario> valuta(StatoAssegnazioni base, List<Scenario> scenari) {
+        List<ForkJoinTask<ValutazioneScenario>> valutazioni = scenari.stream()
+            .map(scenario -> pool.submit(() -> valuta(scenario.getNome(), scenario.applica(base))))
+            .collect(Collectors.toList());
+        return valutazioni.stream()
+            .map(ForkJoinTask::join)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Valuta un singolo stato sul thread chiamante.
+     */
+    public ValutazioneScenario valuta(String nome, StatoAssegnazioni stato) {
+        Map<Integer, Integer> caricoPerCuoco = new LinkedHashMap<>();
+        stato.getCuochi().forEach(cuoco -> caricoPerCuoco.put(cuoco, 0));
+        Map<Long, Integer> usatoPerSlot = new HashMap<>();
+        Map<Integer, Integer> minutiPerTurno = new HashMap<>();
+        List<StatoAssegnazioni.Voce> daAssegnare = new ArrayList<>();
+
+        for (StatoAssegnazioni.Voce voce : stato.getVoci()) {
+            StatoAssegnazioni.FasciaTurno turno = voce.isAssegnata() ? stato.getTurni().get(voce.getTurnoId()) : null;
+            if (turno == null || !stato.getCuochi().contains(voce.getCuocoId())) {
+                daAssegnare.add(voce);
+                continue;
+            }
+            long slot = slot(turno.getId(), voce.getCuocoId());
+            int usato = usatoPerSlot.getOrDefault(slot, 0);
+            if (usato + voce.getDurata() > turno.getCapacitaCuoco()) {
+                daAssegnare.add(voce);
+                continue;
+            }
+            usatoPerSlot.put(slot, usato + voce.getDurata());
+            caricoPerCuoco.merge(voce.getCuocoId(), voce.getDurata(), Integer::sum);
+            minutiPerTurno.merge(turno.getId(), voce.getDurata(), Integer::sum);
+        }
+
+        int minutiNonAssegnati = 0;
+        daAssegnare.sort(Comparator.comparingInt(StatoAssegnazioni.Voce::getDurata).reversed());
+        for (StatoAssegnazioni.Voce voce : daAssegnare) {
+            StatoAssegnazioni.FasciaTurno turnoScelto = null;
+            Integer cuocoScelto = null;
+            for (StatoAssegnazioni.FasciaTurno turno : stato.getTurni().values()) {
+                if (!stato.isAssegnabile(turno)) {
+                    continue;
+                }
+                int capacita = turno.getCapacitaCuoco();
+                for (Integer cuoco : stato.getCuochi()) {
+                    if (!stato.isPresente(cuoco, turno)) {
+                        continue;
+                    }
+                    int usato = usatoPerSlot.getOrDefault(slot(turno.getId(), cuoco), 0);
+                    if (usato + voce.getDurata() <= capacita
+                            && (cuocoScelto == null || caricoPerCuoco.get(cuoco) < caricoPerCuoco.get(cuocoScelto))) {
+                        turnoScelto = turno;
+                        cuocoScelto = cuoco;
+                    }
+                }
+            }
+            if (cuocoScelto == null) {
+                minutiNonAssegnati += voce.getDurata();
+                continue;
+            }
+            usatoPerSlot.merge(slot(turnoScelto.getId(), cuocoScelto), voce.getDurata(), Integer::sum);
+            caricoPerCuoco.merge(cuocoScelto, voce.getDurata(), Integer::sum);
+            minutiPerTurno.merge(turnoScelto.getId(), voce.getDurata(), Integer::sum);
+        }
+
+        int turniPieni = 0;
+        for (StatoAssegnazioni.FasciaTurno turno : stato.getTurni().values()) {
+            int minuti = minutiPerTurno.getOrDefault(turno.getId(), 0);
+            if (minuti > 0 && minuti >= turno.getMinuti() * CompitoCucinaService.SOGLIA_TURNO_PIENO) {
+                turniPieni++;
+            }
+        }
+        int caricoMassimo = caricoPerCuoco.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return new ValutazioneScenario(nome, caricoMassimo, turniPieni, minutiNonAssegnati, caricoPerCuoco);
+    }
+
+    private static long slot(int turnoId, int cuocoId) {
+        return ((long) turnoId << 32) | (cuocoId & 0xffffffffL);
+    }
+}
@@ -0,0 +1,53 @@
+package service.pianificazione;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Rappresenta le metriche di uno scenario valutato.
+ */
+public class ValutazioneScenario {
+
+    private final String nome;
+    private final int caricoMassimo;
+    private final int turniPieni;
+    private final int minutiNonAssegnati;
+    private final Map<Integer, Integer> caricoPerCuoco;
+
+    public ValutazioneScenario(String nome, int caricoMassimo, int turniPieni, int minutiNonAssegnati,
+                               Map<Integer, Integer> caricoPerCuoco) {
+        this.nome = nome;
+        this.caricoMassimo = caricoMassimo;
+        this.turniPieni = turniPieni;
+        this.minutiNonAssegnati = minutiNonAssegnati;
+        this.caricoPerCuoco = Collections.unmodifiableMap(caricoPerCuoco);
+    }
+
+    public String getNome() { return nome; }
+
+    /**
+     * Restituisce i minuti del cuoco più carico, sommando tutti i turni.
+     */
+    public int getCaricoMassimo() { return caricoMassimo; }
+
+    /**
+     * Restituisce il numero di turni oltre la soglia usata da CompitoCucinaService.isTurnoPieno.
+     */
+    public int getTurniPieni() { return turniPieni; }
+
+    /**
+     * Restituisce i minuti dei compiti che non trovano posto in nessun turno.
+     */
+    public int getMinutiNonAssegnati() { return minutiNonAssegnati; }
+
+    /**
+     * Restituisce i minuti assegnati a ciascun cuoco, per identificativo.
+     */
+    public Map<Integer, Integer> getCaricoPerCuoco() { return caricoPerCuoco; }
+
+    @Override
+    public String toString() {
+        return nome + ": carico massimo " + caricoMassimo + " min, turni pieni " + turniPieni
+                + ", non assegnati " + minutiNonAssegnati + " min";
+    }
+}
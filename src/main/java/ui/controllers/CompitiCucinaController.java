@@ -10,10 +10,18 @@ import service.EventoService;
 import service.RicettaService;
 import service.UtenteService;
 import service.FeedbackService;
+import service.pianificazione.BilanciatoreCarichi;
+import service.pianificazione.PianificatoreCapacita;
+import service.pianificazione.PianoAssegnazione;
+import service.pianificazione.PianoBilanciamento;
+import service.pianificazione.RipianificatoreTurno;
+import service.pianificazione.RisolutoreAssegnazioni;
 import ui.utils.AlertUtils;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
@@ -36,6 +44,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +68,7 @@ public class CompitiCucinaController {
     @FXML private TableColumn<Compito, String> colFeedback;
     @FXML private ComboBox<Cuoco> cmbCuochi;
     @FXML private ComboBox<Turno> cmbTurni;
+    @FXML private TextField txtCercaRicetta;
     @FXML private ComboBox<Ricetta> cmbRicette;
     @FXML private Spinner<Integer> spnTempoStimato;
     @FXML private Spinner<Double> spnQuantita;
@@ -99,6 +109,9 @@ public class CompitiCucinaController {
     private Evento eventoCorrente;
     private ObservableList<Compito> compitiCorrente;
     private FilteredList<Compito> compitiFiltrati;
+    // Piano di capacità dell'evento corrente, calcolato alla prima richiesta e aggiornato alla creazione dei compiti
+    private PianificatoreCapacita pianificatoreCapacita;
+    private final RipianificatoreTurno ripianificatore;
     
     public CompitiCucinaController(CompitoCucinaService compitoCucinaService, 
                                 EventoService eventoService,
@@ -110,10 +123,14 @@ public class CompitiCucinaController {
         this.utenteService = utenteService;
         this.ricettaService = ricettaService;
         this.feedbackService = feedbackService;
+        this.ripianificatore = new RipianificatoreTurno(compitoCucinaService);
     }
     
     @FXML
     public void initialize() {
+        // Quando un compito si blocca o va in ritardo il suo turno viene ripianificato subito
+        ripianificatore.collega(this::mostraRipianificazione);
+        
         // Inizializza le liste
         cmbEventi.setItems(eventoService.getEventi());
         cmbTurni.setItems(compitoCucinaService.getTurni());
@@ -127,6 +144,15 @@ public class CompitiCucinaController {
         ricettaService.getRicetteDisponibiliViewModel().forEach(vm -> ricetteObs.add(vm.getRicetta()));
         cmbRicette.setItems(ricetteObs);
         
+        // Ricerca delle ricette durante la digitazione, mantenendo la selezione se resta tra i risultati
+        txtCercaRicetta.textProperty().addListener((obs, oldVal, newVal) -> {
+            Ricetta selezionata = cmbRicette.getSelectionModel().getSelectedItem();
+            ricetteObs.setAll(ricettaService.cercaRicetteDisponibili(newVal));
+            if (selezionata != null && ricetteObs.contains(selezionata)) {
+                cmbRicette.getSelectionModel().select(selezionata);
+            }
+        });
+        
         // Inizializza filtro stati
         cmbFiltroStato.setItems(FXCollections.observableArrayList(
             "Tutti", "Da iniziare", "In corso", "Completato", "Bloccato"
@@ -251,6 +277,7 @@ public class CompitiCucinaController {
         cmbEventi.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null && !newVal.equals(oldVal)) {
                 eventoCorrente = newVal;
+                pianificatoreCapacita = null;
                 inizializzaTabellaPerEvento(newVal);
                 // Aggiorna immediatamente i cuochi disponibili dopo aver selezionato l'evento
                 aggiornaListaCuochiDisponibiliPerCompito();
@@ -259,6 +286,9 @@ public class CompitiCucinaController {
             }
         });
         
+        // Nuovi turni o turni eliminati cambiano la capacità disponibile: il piano va ricalcolato
+        compitoCucinaService.getTurni().addListener((ListChangeListener<Turno>) modifica -> pianificatoreCapacita = null);
+        
         // Aggiungi listener per aggiornare i cuochi disponibili quando cambiano ricetta, turno o tempo
         cmbRicette.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             aggiornaListaCuochiDisponibiliPerCompito();
@@ -553,6 +583,26 @@ public class CompitiCucinaController {
                     mostraDialogModificaCompito(row.getItem());
                 }
             });
+            
+            // Avanzamento durante il servizio: cambio di stato e ritardi
+            ContextMenu contextMenu = new ContextMenu();
+            for (String stato : List.of("In corso", "Completato", "Bloccato")) {
+                MenuItem statoItem = new MenuItem("Segna \"" + stato + "\"");
+                statoItem.setOnAction(event -> {
+                    compitoCucinaService.aggiornaStato(row.getItem(), stato);
+                    tabellaGruppo.refresh();
+                    tblCompiti.refresh();
+                });
+                contextMenu.getItems().add(statoItem);
+            }
+            MenuItem ritardoItem = new MenuItem("Segnala ritardo...");
+            ritardoItem.setOnAction(event -> segnalaRitardo(row.getItem(), tabellaGruppo));
+            contextMenu.getItems().add(ritardoItem);
+            row.contextMenuProperty().bind(
+                Bindings.when(row.emptyProperty())
+                .then((ContextMenu)null)
+                .otherwise(contextMenu)
+            );
             return row;
         });
         
@@ -589,6 +639,162 @@ public class CompitiCucinaController {
         }
     }
     
+    /**
+     * Mostra la capacità residua dei turni dell'evento corrente dopo aver collocato
+     * le ricette ancora senza compiti, e quanti turni aggiuntivi servirebbero.
+     */
+    @FXML
+    public void onVerificaCapacita() {
+        if (eventoCorrente == null) {
+            AlertUtils.showWarning("Seleziona evento", "Devi selezionare un evento");
+            return;
+        }
+        if (eventoCorrente.getDataInizio() == null) {
+            AlertUtils.showWarning("Data mancante", "L'evento selezionato non ha una data di inizio");
+            return;
+        }
+        if (pianificatoreCapacita == null) {
+            pianificatoreCapacita = new PianificatoreCapacita(compitoCucinaService, eventoCorrente, utenteService.getCuochi());
+        }
+
+        StringBuilder messaggio = new StringBuilder();
+        Map<Turno, Integer> residua = pianificatoreCapacita.getCapacitaResidua();
+        if (residua.isEmpty()) {
+            messaggio.append("Nessun turno con cuochi disponibili nei giorni dell'evento.\n");
+        } else {
+            messaggio.append("Minuti liberi per turno:\n");
+            residua.forEach((turno, minuti) -> messaggio.append("- ").append(turno.getData()).append(" ")
+                .append(turno.getOraInizio()).append("-").append(turno.getOraFine()).append(": ")
+                .append(minuti).append(" min\n"));
+        }
+        messaggio.append("\nRicette da assegnare: ").append(pianificatoreCapacita.getRicetteDaCollocare().size());
+        List<Ricetta> senzaPosto = pianificatoreCapacita.getRicetteSenzaPosto();
+        if (senzaPosto.isEmpty()) {
+            messaggio.append("\nTutte le ricette entrano nei turni esistenti.");
+        } else {
+            messaggio.append("\nRicette senza posto: ").append(senzaPosto.stream()
+                .map(Ricetta::getNome).collect(Collectors.joining(", ")))
+                .append(" (").append(pianificatoreCapacita.getMinutiSenzaPosto()).append(" min)");
+            messaggio.append("\nTurni aggiuntivi suggeriti: ").append(pianificatoreCapacita.getTurniAggiuntiviSuggeriti())
+                .append(" da ").append(pianificatoreCapacita.getDurataTurnoSuggerito()).append(" min");
+            List<Ricetta> troppoLunghe = pianificatoreCapacita.getRicetteTroppoLunghe();
+            if (!troppoLunghe.isEmpty()) {
+                messaggio.append("\nPiù lunghe di un turno: ").append(troppoLunghe.stream()
+                    .map(Ricetta::getNome).collect(Collectors.joining(", ")));
+            }
+        }
+        AlertUtils.showInfo("Capacità turni", messaggio.toString());
+    }
+    
+    /**
+     * Propone riassegnazioni che bilanciano il carico dei cuochi su tutti gli eventi
+     * della data dell'evento corrente. Il calcolo avviene in background; gli spostamenti
+     * confermati vengono applicati e salvati in un'unica operazione.
+     */
+    @FXML
+    public void onBilanciaCarichi() {
+        if (eventoCorrente == null || eventoCorrente.getDataInizio() == null) {
+            AlertUtils.showWarning("Seleziona evento", "Devi selezionare un evento con una data");
+            return;
+        }
+        BilanciatoreCarichi bilanciatore = new BilanciatoreCarichi(compitoCucinaService,
+            eventoCorrente.getDataInizio().toLocalDate(), utenteService.getCuochi());
+        bilanciatore.calcolaAsync(ForkJoinPool.commonPool()).whenComplete((piano, errore) -> Platform.runLater(() -> {
+            if (errore != null) {
+                AlertUtils.showError("Errore", "Impossibile calcolare il bilanciamento: " + errore.getMessage());
+            } else {
+                confermaBilanciamento(bilanciatore, piano);
+            }
+        }));
+    }
+    
+    private void confermaBilanciamento(BilanciatoreCarichi bilanciatore, PianoBilanciamento piano) {
+        if (piano.isVuoto()) {
+            AlertUtils.showInfo("Carichi bilanciati", "Nessuno spostamento migliora il carico dei cuochi il " + piano.getData());
+            return;
+        }
+        StringBuilder dettaglio = new StringBuilder();
+        for (PianoBilanciamento.Spostamento spostamento : piano.getSpostamenti()) {
+            dettaglio.append("- ").append(spostamento.getCompito().getRicetta().getNome())
+                .append(" (").append(spostamento.getCompito().getDurata()).append(" min): ")
+                .append(spostamento.getDa().getNome()).append(" → ").append(spostamento.getA().getNome())
+                .append("\n");
+        }
+        dettaglio.append("\nCarico massimo: ").append(piano.getCaricoMassimoPrima())
+            .append(" → ").append(piano.getCaricoMassimoDopo()).append(" min");
+
+        Alert conferma = new Alert(Alert.AlertType.CONFIRMATION);
+        conferma.setTitle("Bilanciamento carichi");
+        conferma.setHeaderText("Applicare " + piano.getSpostamenti().size() + " spostamenti del " + piano.getData() + "?");
+        conferma.setContentText(dettaglio.toString());
+        Optional<ButtonType> result = conferma.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            if (!bilanciatore.applica(piano)) {
+                AlertUtils.showWarning("Piano superato", "I compiti sono cambiati durante il calcolo: ripetere il bilanciamento");
+                return;
+            }
+            pianificatoreCapacita = null;
+            tblCompiti.refresh();
+            aggiornaListaCuochiDisponibiliPerCompito();
+            aggiornaCaricoCuochiAutomaticamente();
+        }
+    }
+    
+    /**
+     * Propone un'assegnazione automatica delle ricette dell'evento corrente ancora senza compiti
+     * ai cuochi presenti nei turni dei suoi giorni. I compiti vengono creati solo se il piano
+     * viene confermato.
+     */
+    @FXML
+    public void onAssegnaAutomaticamente() {
+        if (eventoCorrente == null || eventoCorrente.getDataInizio() == null) {
+            AlertUtils.showWarning("Seleziona evento", "Devi selezionare un evento con una data");
+            return;
+        }
+        RisolutoreAssegnazioni risolutore = new RisolutoreAssegnazioni(compitoCucinaService);
+        if (risolutore.getRicetteDaAssegnare(eventoCorrente).isEmpty()) {
+            AlertUtils.showInfo("Assegnazione automatica", "Tutte le ricette dell'evento hanno già un compito");
+            return;
+        }
+        PianoAssegnazione piano = risolutore.risolvi(eventoCorrente, utenteService.getCuochi());
+        confermaAssegnazione(risolutore, piano);
+    }
+    
+    private void confermaAssegnazione(RisolutoreAssegnazioni risolutore, PianoAssegnazione piano) {
+        if (piano.getAssegnazioni().isEmpty()) {
+            AlertUtils.showWarning("Assegnazione automatica",
+                "Nessuna ricetta trova posto nei turni dell'evento: usa \"Capacità turni\" per verificare i turni necessari");
+            return;
+        }
+        StringBuilder dettaglio = new StringBuilder();
+        for (PianoAssegnazione.Assegnazione assegnazione : piano.getAssegnazioni()) {
+            Turno turno = assegnazione.getTurno();
+            dettaglio.append("- ").append(assegnazione.getRicetta().getNome())
+                .append(" (").append(assegnazione.getDurata()).append(" min): ")
+                .append(assegnazione.getCuoco().getNome()).append(", ")
+                .append(turno.getData()).append(" ").append(turno.getOraInizio()).append("-").append(turno.getOraFine())
+                .append("\n");
+        }
+        if (!piano.isCompleto()) {
+            dettaglio.append("\nSenza posto: ").append(piano.getNonAssegnate().stream()
+                .map(Ricetta::getNome).collect(Collectors.joining(", ")));
+        }
+        dettaglio.append("\nCarico massimo: ").append(piano.getMakespan()).append(" min");
+
+        Alert conferma = new Alert(Alert.AlertType.CONFIRMATION);
+        conferma.setTitle("Assegnazione automatica");
+        conferma.setHeaderText("Creare " + piano.getAssegnazioni().size() + " compiti per " + eventoCorrente.getNome() + "?");
+        conferma.setContentText(dettaglio.toString());
+        Optional<ButtonType> result = conferma.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            risolutore.applica(piano);
+            pianificatoreCapacita = null;
+            inizializzaTabellaPerEvento(eventoCorrente);
+            aggiornaListaCuochiDisponibiliPerCompito();
+            aggiornaCaricoCuochiAutomaticamente();
+        }
+    }
+    
     /**
      * Assegna un compito a un cuoco.
      * Riferimento: UC "Gestione dei Compiti della cucina" - Passo 3
@@ -599,9 +805,7 @@ public class CompitiCucinaController {
     private List<Compito> trovaCompitiEsistentiPerRicetta(Ricetta ricetta) {
         if (eventoCorrente == null || ricetta == null) return new ArrayList<>();
         
-        List<Compito> compitiTrovati = compitoCucinaService.getCompiti().stream()
-            .filter(c -> c.getEvento() != null && c.getEvento().getNome().equals(eventoCorrente.getNome()))
-            .filter(c -> c.getRicetta() != null && c.getRicetta().getNome().equals(ricetta.getNome()))
+        List<Compito> compitiTrovati = compitoCucinaService.getCompitiPerRicetta(eventoCorrente, ricetta).stream()
             .filter(c -> !c.getStato().equals("Completato")) // Escludi compiti già completati
             .collect(Collectors.toList());
         
@@ -612,9 +816,9 @@ public class CompitiCucinaController {
      * Calcola la quantità totale già pianificata per una ricetta nell'evento corrente
      */
     private double calcolaQuantitaTotalePianificata(Ricetta ricetta) {
-        return trovaCompitiEsistentiPerRicetta(ricetta).stream()
-            .mapToDouble(Compito::getQuantita)
-            .sum();
+        if (eventoCorrente == null || ricetta == null) return 0.0;
+        
+        return compitoCucinaService.getPorzioni(eventoCorrente, ricetta).getDaCompletare();
     }
     
     /**
@@ -623,13 +827,7 @@ public class CompitiCucinaController {
     private double calcolaQuantitaGiaCompletata(Ricetta ricetta) {
         if (eventoCorrente == null || ricetta == null) return 0.0;
         
-        // FIX: Confronta per NOME invece che per oggetto
-        return compitoCucinaService.getCompiti().stream()
-            .filter(c -> c.getEvento() != null && c.getEvento().getNome().equals(eventoCorrente.getNome()))
-            .filter(c -> c.getRicetta() != null && c.getRicetta().getNome().equals(ricetta.getNome()))
-            .filter(c -> c.getStato().equals("Completato"))
-            .mapToDouble(Compito::getQuantita)
-            .sum();
+        return compitoCucinaService.getPorzioni(eventoCorrente, ricetta).getCompletate();
     }
     
     /**
@@ -683,6 +881,11 @@ public class CompitiCucinaController {
         Label lblFabbisogno = new Label("• Fabbisogno netto: " + (quantitaRichiesta - quantitaDisponibile) + " porzioni");
         
         analisiBox.getChildren().addAll(lblRichiesta, lblCompletata, lblFabbisogno);
+        if (eventoCorrente != null) {
+            Label lblEvento = new Label("• Porzioni per l'evento: " + eventoCorrente.getNumeroDiPersone() +
+                " (ne mancano " + compitoCucinaService.getPorzioniMancanti(eventoCorrente, ricettaSelezionata) + ")");
+            analisiBox.getChildren().add(lblEvento);
+        }
         
         // Determina situazione
         double fabbisognoNetto = quantitaRichiesta - quantitaDisponibile;
@@ -858,6 +1061,51 @@ public class CompitiCucinaController {
         dialog.showAndWait();
     }
     
+    /**
+     * Chiede i minuti di ritardo di un compito e li registra: se il cuoco non ha più tempo
+     * nel turno il suo lavoro successivo viene ripianificato.
+     */
+    private void segnalaRitardo(Compito compito, TableView<Compito> tabella) {
+        TextInputDialog dialog = new TextInputDialog("15");
+        dialog.setTitle("Segnala ritardo");
+        dialog.setHeaderText("Ritardo per: " + compito.getRicetta().getNome());
+        dialog.setContentText("Minuti aggiuntivi:");
+        
+        dialog.showAndWait().ifPresent(minutiStr -> {
+            try {
+                int minuti = Integer.parseInt(minutiStr.trim());
+                if (minuti <= 0) {
+                    AlertUtils.showError("Valore non valido", "I minuti di ritardo devono essere maggiori di zero");
+                    return;
+                }
+                compitoCucinaService.segnalaRitardo(compito, minuti);
+                tabella.refresh();
+                tblCompiti.refresh();
+                aggiornaCaricoCuochiAutomaticamente();
+            } catch (NumberFormatException e) {
+                AlertUtils.showError("Formato non valido", "Inserisci un numero intero di minuti");
+            }
+        });
+    }
+    
+    /**
+     * Mostra le riassegnazioni fatte dopo il blocco o il ritardo di un compito.
+     */
+    private void mostraRipianificazione(List<PianoBilanciamento.Spostamento> spostamenti) {
+        pianificatoreCapacita = null;
+        tblCompiti.refresh();
+        aggiornaListaCuochiDisponibiliPerCompito();
+        aggiornaCaricoCuochiAutomaticamente();
+        
+        StringBuilder dettaglio = new StringBuilder("Compiti riassegnati nel turno:\n");
+        for (PianoBilanciamento.Spostamento spostamento : spostamenti) {
+            dettaglio.append("- ").append(spostamento.getCompito().getRicetta().getNome())
+                .append(": ").append(spostamento.getDa().getNome())
+                .append(" → ").append(spostamento.getA().getNome()).append("\n");
+        }
+        AlertUtils.showInfo("Turno ripianificato", dettaglio.toString());
+    }
+    
     /**
      * Modifica la quantità di un compito esistente
      */
@@ -876,6 +1124,7 @@ public class CompitiCucinaController {
                 
                 if (nuovaQuantita >= 0) {
                     compito.setQuantita(nuovaQuantita);
+                    compitoCucinaService.aggiornaCompito(compito);
                     tabella.refresh();
                     tblCompiti.refresh(); // Aggiorna anche la tabella principale
                     aggiornaCaricoCuochiAutomaticamente();
@@ -907,7 +1156,8 @@ public class CompitiCucinaController {
         Optional<ButtonType> result = conferma.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             // Rimuovi dalle liste
-            compitoCucinaService.getCompiti().remove(compito);
+            compitoCucinaService.eliminaCompito(compito);
+            pianificatoreCapacita = null;
             tabella.getItems().remove(compito);
             if (compitiCorrente != null) {
                 compitiCorrente.remove(compito);
@@ -984,13 +1234,14 @@ public class CompitiCucinaController {
     
     private void creaCompito(Cuoco cuoco, Turno turno, Ricetta ricetta, int tempoStimato, double quantita, double quantitaDisponibile) {
         // Crea il compito usando il servizio CON l'evento corrente
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        
         // Calcola quantità effettiva da preparare
         double quantitaEffettiva = Math.max(0, quantita - quantitaDisponibile);
         int tempoEffettivo = quantitaEffettiva <= 0 ? 0 : tempoStimato;
         
-        Compito nuovoCompito = compitoCucinaService.assegnaCompito(cuoco, turnoStr, ricetta, tempoEffettivo, quantitaEffettiva, eventoCorrente);
+        Compito nuovoCompito = compitoCucinaService.assegnaCompito(cuoco, turno, ricetta, tempoEffettivo, quantitaEffettiva, eventoCorrente);
+        if (pianificatoreCapacita != null) {
+            pianificatoreCapacita.registraCompito(nuovoCompito);
+        }
         
         // Aggiungi note per avanzi tramite FeedbackService
         if (quantitaDisponibile > 0) {
@@ -1020,6 +1271,7 @@ public class CompitiCucinaController {
             // Valore predefinito se il ToggleGroup non è configurato
             nuovoCompito.setImportanza(3); // Media
         }
+        compitoCucinaService.aggiornaCompito(nuovoCompito);
         
         // Aggiorna la lista dei compiti nell'evento corrente prima di aggiornare l'UI
         // Prima aggiungiamo il compito alla lista originale
@@ -1186,9 +1438,7 @@ public class CompitiCucinaController {
         
         for (Cuoco cuoco : tuttiCuochi) {
             // Calcola compiti per questo cuoco attraverso TUTTI gli eventi (carico universale)
-            List<Compito> compitiCuoco = compitoCucinaService.getCompiti().stream()
-                .filter(c -> c.getCuocoAssegnato() != null && c.getCuocoAssegnato().equals(cuoco))
-                .collect(Collectors.toList());
+            List<Compito> compitiCuoco = compitoCucinaService.getCompitiPerCuoco(cuoco);
             
             int numeroCompiti = compitiCuoco.size();
             int tempoTotale = compitiCuoco.stream()
@@ -1299,15 +1549,7 @@ public class CompitiCucinaController {
         ComboBox<Cuoco> cmbCuocoModifica = new ComboBox<>();
         
         // Cerca il turno corrispondente al compito
-        Turno turnoCompito = null;
-        String turnoString = compito.getTurno();
-        for (Turno t : compitoCucinaService.getTurni()) {
-            String tStr = t.getData() + " " + t.getOraInizio() + "-" + t.getOraFine();
-            if (tStr.equals(turnoString)) {
-                turnoCompito = t;
-                break;
-            }
-        }
+        Turno turnoCompito = compitoCucinaService.getTurnoDelCompito(compito);
         
         // Carica cuochi disponibili per questo turno (disponibilità globale)
         if (turnoCompito != null) {
@@ -1417,6 +1659,7 @@ public class CompitiCucinaController {
                     }
                     compito.setImportanza(importanza);
                 }
+                compitoCucinaService.aggiornaCompito(compito);
                 
                 // Aggiorna la tabella
                 tblCompiti.refresh();
@@ -1634,6 +1877,8 @@ public class CompitiCucinaController {
                 
                 // Per ora, aggiorniamo solo l'orario
                 turno.aggiornaOrario(oraInizio, oraFine);
+                compitoCucinaService.aggiornaTurno(turno);
+                pianificatoreCapacita = null;
                 
                 // Aggiorna anche la lista nel ComboBox dei turni
                 cmbTurni.setItems(compitoCucinaService.getTurni());
@@ -1655,9 +1900,7 @@ public class CompitiCucinaController {
         if (turno == null) return false;
         
         // Verifica se ci sono compiti associati al turno
-        String turnoStr = turno.getData() + " " + turno.getOraInizio() + "-" + turno.getOraFine();
-        boolean hasAssociatedTasks = compitoCucinaService.getCompiti().stream()
-            .anyMatch(compito -> turnoStr.equals(compito.getTurno()));
+        boolean hasAssociatedTasks = !compitoCucinaService.controllaStatoTurno(turno).isEmpty();
         
         if (hasAssociatedTasks) {
             Alert alert = new Alert(Alert.AlertType.WARNING);
@@ -1771,8 +2014,8 @@ public class CompitiCucinaController {
     private void inizializzaTabellaPerEvento(Evento evento) {
         if (evento != null) {
             
-            // Ottieni compiti filtrati per l'evento corrente
-            List<Compito> compitiEventoFiltrati = compitoCucinaService.getCompitiPerEvento(evento);
+            // Ottieni il riepilogo dei compiti dell'evento corrente (dalla cache del servizio)
+            List<Compito> compitiEventoFiltrati = compitoCucinaService.creaRiepilogoCompiti(evento);
             
             // Crea una nuova lista osservabile per evitare problemi di riferimento
             compitiCorrente = FXCollections.observableArrayList(compitiEventoFiltrati);
@@ -1814,7 +2057,8 @@ public class CompitiCucinaController {
             
             if (conferma.showAndWait().orElse(btnAnnulla) == btnConferma) {
                 // Rimuovi il compito dalla lista
-                compitoCucinaService.getCompiti().remove(compitoSelezionato);
+                compitoCucinaService.eliminaCompito(compitoSelezionato);
+                pianificatoreCapacita = null;
                 
                 // Aggiorna la tabella  
                 if (eventoCorrente != null) {
@@ -12,6 +12,7 @@ import service.EventoService;
 import ui.utils.AlertUtils;
 import ui.utils.ExcelExportUtils;
 import ui.viewmodels.RicettaViewModel;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -34,6 +35,7 @@ public class MenuController {
     @FXML private ComboBox<Menu> cmbMenuEsistenti;
     @FXML private ComboBox<Evento> cmbEventoRiferimento;
     @FXML private TextField txtSezioni;
+    @FXML private TextField txtCercaRicetta;
     @FXML private ListView<RicettaViewModel> lstRicetteDisponibili;
     @FXML private TabPane tabSezioni;
     @FXML private VBox contenitoreMenu;
@@ -71,6 +73,16 @@ public class MenuController {
         cmbEventoRiferimento.setItems(eventoService.getEventi());
         lstRicetteDisponibili.setItems(ricettaService.getRicetteDisponibiliViewModel());
         
+        // Ricerca delle ricette durante la digitazione
+        txtCercaRicetta.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal == null || newVal.isBlank()) {
+                lstRicetteDisponibili.setItems(ricettaService.getRicetteDisponibiliViewModel());
+            } else {
+                lstRicetteDisponibili.setItems(FXCollections.observableArrayList(
+                    ricettaService.cercaRicetteDisponibiliViewModel(newVal)));
+            }
+        });
+        
         // Configurazione rendering elementi ComboBox
         cmbMenuEsistenti.setCellFactory(lv -> new ListCell<>() {
             @Override
@@ -283,6 +295,7 @@ public class MenuController {
         
         // ComboBox e liste
         // NOTA: cmbEventoRiferimento rimane sempre attivo per consultare l'evento
+        txtCercaRicetta.setDisable(!modificabile);
         lstRicetteDisponibili.setDisable(!modificabile);
         
         // Checkbox caratteristiche
@@ -780,7 +793,10 @@ public class MenuController {
         TextInputDialog dialog = new TextInputDialog(ricettaSelezionata.getNomeNelMenu());
         dialog.setTitle("Rinomina ricetta nel menu");
         dialog.setHeaderText("Inserisci il nuovo nome per la ricetta nel menu");
-        dialog.setContentText("Nome ricetta originale: " + ricettaSelezionata.getRicettaOriginale().getNome() + "\n\nNuovo nome:");
+        Ricetta originale = ricettaSelezionata.getRicettaOriginale();
+        String nomeOriginale = originale != null ? originale.getNome()
+            : "non trovata nel ricettario (ID " + ricettaSelezionata.getRicettaId() + ")";
+        dialog.setContentText("Nome ricetta originale: " + nomeOriginale + "\n\nNuovo nome:");
         
         Optional<String> result = dialog.showAndWait();
         if (result.isPresent() && !result.get().trim().isEmpty()) {
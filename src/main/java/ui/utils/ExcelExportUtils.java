@@ -6,6 +6,7 @@ import domain.menu.Menu;
 import domain.menu.SezioneMenu;
 import domain.menu.RicettaInMenu;
 import domain.menu.CaratteristicaMenu;
+import domain.ricette.Ricetta;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -124,8 +125,11 @@ public class ExcelExportUtils {
                         sectionCell.setCellStyle(sectionStyle);
                         
                         ricettaRow.createCell(1).setCellValue(ricettaInMenu.getNomeNelMenu());
-                        ricettaRow.createCell(2).setCellValue(ricettaInMenu.getRicettaOriginale().getNome());
-                        ricettaRow.createCell(3).setCellValue(ricettaInMenu.getRicettaOriginale().getTempoPreparazione());
+                        Ricetta originale = ricettaInMenu.getRicettaOriginale();
+                        if (originale != null) {
+                            ricettaRow.createCell(2).setCellValue(originale.getNome());
+                            ricettaRow.createCell(3).setCellValue(originale.getTempoPreparazione());
+                        }
                     }
                 }
             }
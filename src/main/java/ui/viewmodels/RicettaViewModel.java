@@ -17,7 +17,8 @@ public class RicettaViewModel {
     private final StringProperty descrizione = new SimpleStringProperty();
     private final StringProperty stato = new SimpleStringProperty();
     private final IntegerProperty tempoPreparazione = new SimpleIntegerProperty();
-    private final BooleanProperty inUso = new SimpleBooleanProperty();
+    // In sola lettura: il flag è tenuto aggiornato dall'indice degli utilizzi nei menu
+    private final ReadOnlyBooleanWrapper inUso = new ReadOnlyBooleanWrapper();
     private final ObservableList<Tag> tags = FXCollections.observableArrayList();
 
     /**
@@ -44,13 +45,14 @@ public class RicettaViewModel {
 
     /**
      * Salva i dati dal ViewModel nella ricetta di dominio.
+     * Il flag inUso non viene scritto ma riletto dalla ricetta, che è la fonte aggiornata.
      */
     public void saveToRicetta() {
         ricetta.setNome(nome.get());
         ricetta.setDescrizione(descrizione.get());
         ricetta.setStato(stato.get());
         ricetta.setTempoPreparazione(tempoPreparazione.get());
-        ricetta.setInUso(inUso.get());
+        inUso.set(ricetta.isInUso());
     }
 
     // Proprietà per il binding JavaFX
@@ -58,7 +60,7 @@ public class RicettaViewModel {
     public StringProperty descrizioneProperty() { return descrizione; }
     public StringProperty statoProperty() { return stato; }
     public IntegerProperty tempoPreparazioneProperty() { return tempoPreparazione; }
-    public BooleanProperty inUsoProperty() { return inUso; }
+    public ReadOnlyBooleanProperty inUsoProperty() { return inUso.getReadOnlyProperty(); }
     public ObservableList<Tag> getTags() { return tags; }
 
     /**
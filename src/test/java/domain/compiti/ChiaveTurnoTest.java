@@ -0,0 +1,54 @@
+package domain.compiti;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la chiave compatta dei turni.
+ */
+public class ChiaveTurnoTest {
+
+    private final Turno turno = new Turno(1, LocalDate.of(2025, 6, 15),
+            LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Preparazione");
+
+    @Test
+    @DisplayName("Test chiave equivalente alla stringa del turno")
+    public void testEquivalenzaStringa() {
+        ChiaveTurno chiave = ChiaveTurno.di(turno);
+
+        assertEquals("2025-06-15 08:00-14:00", chiave.toString());
+        assertEquals(chiave, ChiaveTurno.daTesto("2025-06-15 08:00-14:00"));
+        assertNotEquals(chiave, ChiaveTurno.daTesto("2025-06-15 08:00-14:30"));
+        assertNotEquals(chiave, ChiaveTurno.daTesto("2025-06-16 08:00-14:00"));
+        assertEquals(LocalTime.of(8, 0), chiave.getOraInizio());
+        assertEquals(LocalDate.of(2025, 6, 15), chiave.getData());
+    }
+
+    @Test
+    @DisplayName("Test testo non valido")
+    public void testTestoNonValido() {
+        assertNull(ChiaveTurno.daTesto(null));
+        assertNull(ChiaveTurno.daTesto("turno del mattino"));
+        assertNull(ChiaveTurno.daTesto("2025-06-15 8-14"));
+    }
+
+    @Test
+    @DisplayName("Test compito collegato al turno")
+    public void testCompitoCollegato() {
+        Compito compito = new Compito(1, null, null, turno, 30, 1.0, null);
+        assertEquals(Integer.valueOf(1), compito.getTurnoId());
+        assertEquals("2025-06-15 08:00-14:00", compito.getTurno());
+        assertEquals(ChiaveTurno.di(turno), compito.getChiaveTurno());
+
+        // Compito salvato solo con la stringa del turno
+        Compito legacy = new Compito(2, null, null, "2025-06-15 08:00-14:00", 30, 1.0);
+        assertEquals(ChiaveTurno.di(turno), legacy.getChiaveTurno());
+        legacy.setTurno("2025-06-15 16:00-22:00");
+        assertNotEquals(ChiaveTurno.di(turno), legacy.getChiaveTurno());
+    }
+}
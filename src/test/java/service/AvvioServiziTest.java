@@ -0,0 +1,82 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'avvio dei servizi in parallelo con dipendenze.
+ */
+public class AvvioServiziTest {
+
+    @Test
+    @DisplayName("Test servizi indipendenti creati in parallelo")
+    public void testAvvioParallelo() {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            return;
+        }
+        // Ciascun servizio attende l'altro: l'avvio termina solo se sono creati insieme
+        CountDownLatch entrambi = new CountDownLatch(2);
+        AvvioServizi avvio = new AvvioServizi();
+        AvvioServizi.Componente<String> primo = avvio.registra("primo", () -> attendi(entrambi, "A"));
+        AvvioServizi.Componente<String> secondo = avvio.registra("secondo", () -> attendi(entrambi, "B"));
+
+        avvio.avvia();
+
+        assertEquals("A", primo.get());
+        assertEquals("B", secondo.get());
+        assertEquals(List.of("primo", "secondo"), List.copyOf(avvio.getTempiCaricamento().keySet()));
+    }
+
+    @Test
+    @DisplayName("Test servizio creato dopo le sue dipendenze")
+    public void testDipendenze() {
+        AvvioServizi avvio = new AvvioServizi();
+        AvvioServizi.Componente<Integer> base = avvio.registra("base", () -> 20);
+        AvvioServizi.Componente<Integer> altro = avvio.registra("altro", () -> 22);
+        AvvioServizi.Componente<Integer> somma = avvio.registra("somma", () -> base.get() + altro.get(), base, altro);
+
+        avvio.avvia();
+
+        assertEquals(Integer.valueOf(42), somma.get());
+        assertEquals(3, avvio.getTempiCaricamento().size());
+    }
+
+    @Test
+    @DisplayName("Test errore nella creazione di un servizio")
+    public void testErroreCreazione() {
+        AvvioServizi avvio = new AvvioServizi();
+        AvvioServizi.Componente<String> guasto = avvio.registra("guasto", () -> {
+            throw new IllegalStateException("file corrotto");
+        });
+        avvio.registra("dipendente", guasto::get, guasto);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, avvio::avvia);
+        assertEquals("file corrotto", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test dipendenza non registrata")
+    public void testDipendenzaNonRegistrata() {
+        AvvioServizi altroAvvio = new AvvioServizi();
+        AvvioServizi.Componente<String> esterno = altroAvvio.registra("esterno", () -> "x");
+
+        AvvioServizi avvio = new AvvioServizi();
+        assertThrows(IllegalArgumentException.class, () -> avvio.registra("servizio", () -> "y", esterno));
+    }
+
+    private static String attendi(CountDownLatch latch, String valore) {
+        latch.countDown();
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return valore;
+    }
+}
@@ -290,4 +290,74 @@ public class MenuServiceTest {
         // Ora la ricetta è wrapped in RicettaInMenu
         assertEquals(ricettaNelMenu, menu.getSezioni().get(0).getRicette().get(0).getRicettaOriginale());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test migrazione dei menu salvati con la copia completa della ricetta")
+    public void testMigrazioneRicetteInMenu() throws Exception {
+        Path fileRicette = Paths.get("src/test/resources/data/ricette-menu-test.json");
+        Files.writeString(Paths.get(TEST_JSON_PATH), "[{\"id\": 1, \"titolo\": \"Menu Test\", \"sezioni\": [{\"id\": 1, \"nome\": \"Antipasti\","
+                + " \"ricette\": [{\"ricettaOriginale\": {\"id\": 7, \"nome\": \"Bruschetta vecchia\", \"tags\": [\"Antipasto\"]},"
+                + " \"nomePersonalizzato\": \"Bruschetta della casa\", \"nomeNelMenu\": \"Bruschetta della casa\"},"
+                + " {\"ricettaOriginale\": {\"id\": 9, \"nome\": \"Crostino eliminato\"}, \"nomePersonalizzato\": \"Crostino\"}]}]}]");
+        Files.writeString(fileRicette, "[{\"id\": 7, \"nome\": \"Bruschetta\", \"stato\": \"Pubblicata\"}]");
+        try {
+            // Il caricamento non riscrive il file: le ricette non sono ancora risolte
+            MenuService migrato = new MenuService(TEST_JSON_PATH);
+            assertTrue(Files.readString(Paths.get(TEST_JSON_PATH)).contains("Bruschetta vecchia"));
+            domain.menu.RicettaInMenu bruschetta = migrato.getMenuById(1).getSezioni().get(0).getRicette().get(0);
+            domain.menu.RicettaInMenu crostino = migrato.getMenuById(1).getSezioni().get(0).getRicette().get(1);
+            assertEquals(7, bruschetta.getRicettaId());
+            assertEquals("Bruschetta della casa", bruschetta.getNomeNelMenu());
+
+            // La risoluzione collega la ricetta condivisa del ricettario e salva il solo ID
+            RicettaService ricettaService = new RicettaService(fileRicette.toString());
+            migrato.risolviRiferimentiMenu(new RegistroEntita(ricettaService, null, null, null, migrato));
+            assertSame(ricettaService.findById(7), bruschetta.getRicettaOriginale());
+            assertFalse(bruschetta.haCopiaIncorporata());
+            assertTrue(crostino.haCopiaIncorporata());
+            String salvato = Files.readString(Paths.get(TEST_JSON_PATH));
+            assertTrue(salvato.contains("\"ricettaId\""));
+            assertFalse(salvato.contains("Bruschetta vecchia"));
+            // La ricetta non trovata nel ricettario conserva la copia completa
+            assertTrue(salvato.contains("Crostino eliminato"));
+
+            MenuService ricaricato = new MenuService(TEST_JSON_PATH);
+            domain.menu.RicettaInMenu ricaricata = ricaricato.getMenuById(1).getSezioni().get(0).getRicette().get(0);
+            assertEquals(7, ricaricata.getRicettaId());
+            assertNull(ricaricata.getRicettaOriginale());
+            assertEquals("Crostino eliminato",
+                    ricaricato.getMenuById(1).getSezioni().get(0).getRicette().get(1).getRicettaOriginale().getNome());
+            ricaricato.risolviRiferimentiMenu(new RegistroEntita(ricettaService, null, null, null, ricaricato));
+            assertTrue(ricaricato.modificaRicetta(ricaricato.getMenuById(1), new Ricetta(7, "Bruschetta"), new Ricetta(8, "Crostino")));
+        } finally {
+            Files.deleteIfExists(fileRicette);
+        }
+    }
+
+    @Test
+    @DisplayName("Test propagazione delle modifiche di una ricetta a tutti i menu")
+    public void testPropagazioneRicettaNeiMenu() {
+        Ricetta bruschetta = new Ricetta(1, "Bruschetta");
+        Menu primo = menuService.creaNuovoMenu();
+        primo.definisciSezioni(Arrays.asList("Antipasti"));
+        primo.inserisciRicetta(bruschetta, primo.getSezioni().get(0));
+        Menu secondo = menuService.creaNuovoMenu();
+        secondo.definisciSezioni(Arrays.asList("Finger food"));
+        secondo.inserisciRicetta(bruschetta, secondo.getSezioni().get(0), "Bruschettina");
+
+        assertTrue(menuService.isRicettaInUso(bruschetta));
+        assertEquals(List.of(primo, secondo), menuService.getMenuConRicetta(bruschetta));
+
+        // Solo la voce con il nome originale prende il nuovo nome
+        bruschetta.setNome("Bruschetta al pomodoro");
+        assertEquals(1, menuService.propagaModificaRicetta(bruschetta, "Bruschetta"));
+        assertEquals("Bruschetta al pomodoro", primo.getSezioni().get(0).getRicette().get(0).getNomeNelMenu());
+        assertEquals("Bruschettina", secondo.getSezioni().get(0).getRicette().get(0).getNomeNelMenu());
+
+        Ricetta crostino = new Ricetta(2, "Crostino");
+        assertEquals(2, menuService.sostituisciRicettaNeiMenu(bruschetta, crostino));
+        assertFalse(menuService.isRicettaInUso(bruschetta));
+        assertEquals(List.of(primo, secondo), menuService.getMenuConRicetta(crostino));
+        assertEquals("Bruschettina", secondo.getSezioni().get(0).getRicette().get(0).getNomeNelMenu());
+    }
+}
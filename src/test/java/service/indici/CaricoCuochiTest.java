@@ -0,0 +1,72 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.compiti.Compito;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la matrice dei carichi dei cuochi per turno.
+ */
+public class CaricoCuochiTest {
+
+    private static final String MATTINA = "2025-06-15 08:00-14:00";
+    private static final String SERA = "2025-06-15 16:00-22:00";
+
+    private Compito nuovoCompito(int id, String turno, Integer cuocoId, Integer eventoId, int durata) {
+        Compito compito = new Compito(id, null, null, turno, durata, 1.0);
+        compito.setCuocoId(cuocoId);
+        compito.setEventoId(eventoId);
+        return compito;
+    }
+
+    @Test
+    @DisplayName("Test carichi per cuoco, turno ed evento")
+    public void testCarichi() {
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(
+                nuovoCompito(1, MATTINA, 10, 1, 60),
+                nuovoCompito(2, MATTINA, 10, 2, 30),
+                nuovoCompito(3, MATTINA, null, 1, 45),
+                nuovoCompito(4, SERA, 10, 1, 120));
+        CaricoCuochi<String> carico = new CaricoCuochi<>(compiti, Compito::getTurno);
+
+        assertEquals(90, carico.getMinuti(MATTINA, 10));
+        assertEquals(60, carico.getMinuti(MATTINA, 10, 1));
+        assertEquals(30, carico.getMinuti(MATTINA, 10, 2));
+        assertEquals(135, carico.getMinutiTotali(MATTINA));
+        assertEquals(120, carico.getMinuti(SERA, 10));
+        assertEquals(0, carico.getMinuti(SERA, 11));
+
+        compiti.add(nuovoCompito(5, SERA, 11, 1, 15));
+        assertEquals(15, carico.getMinuti(SERA, 11, 1));
+
+        compiti.remove(0);
+        assertEquals(30, carico.getMinuti(MATTINA, 10));
+        assertEquals(0, carico.getMinuti(MATTINA, 10, 1));
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento dopo riassegnazione e cambio di durata")
+    public void testRiassegnazione() {
+        Compito compito = nuovoCompito(1, MATTINA, 10, 1, 60);
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(compito);
+        CaricoCuochi<String> carico = new CaricoCuochi<>(compiti, Compito::getTurno);
+
+        compito.setCuocoId(11);
+        compito.setDurata(90);
+        carico.aggiorna(compito);
+
+        assertEquals(0, carico.getMinuti(MATTINA, 10));
+        assertEquals(90, carico.getMinuti(MATTINA, 11));
+        assertEquals(90, carico.getMinutiTotali(MATTINA));
+        assertTrue(carico.getMinutiPerCuoco(MATTINA).keySet().contains(11));
+        assertFalse(carico.getMinutiPerCuoco(MATTINA).containsKey(10));
+
+        compiti.clear();
+        assertEquals(0, carico.getMinutiTotali(MATTINA));
+        assertTrue(carico.getMinutiPerCuoco(MATTINA).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice per data e ora su turni ed eventi.
+ */
+public class IndiceCalendarioTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2030, 3, 1);
+
+    private Evento evento(int id, LocalDateTime inizio, LocalDateTime fine) {
+        return new Evento(id, "Evento " + id, inizio, fine, "Sala", 10);
+    }
+
+    @Test
+    @DisplayName("Test ricerche per intervallo e sovrapposizione sugli eventi")
+    public void testEventi() {
+        Evento congresso = evento(1, GIORNO.atTime(9, 0), GIORNO.plusDays(3).atTime(18, 0));
+        Evento cena = evento(2, GIORNO.plusDays(2).atTime(20, 0), GIORNO.plusDays(2).atTime(23, 0));
+        Evento pranzo = evento(3, GIORNO.plusDays(10).atTime(12, 0), null);
+        ObservableList<Evento> eventi = FXCollections.observableArrayList(pranzo, cena, congresso);
+        IndiceCalendario<Evento> indice = new IndiceCalendario<>(eventi, Evento::getDataInizio, Evento::getDataFine);
+
+        assertEquals(List.of(congresso, cena),
+                indice.getSovrapposte(GIORNO.plusDays(2).atStartOfDay(), GIORNO.plusDays(3).atStartOfDay()));
+        assertEquals(List.of(cena),
+                indice.getInizianoTra(GIORNO.plusDays(2).atStartOfDay(), GIORNO.plusDays(3).atStartOfDay()));
+        assertEquals(List.of(pranzo),
+                indice.getSovrapposte(GIORNO.plusDays(10).atTime(12, 0), GIORNO.plusDays(11).atStartOfDay()));
+        assertTrue(indice.getSovrapposte(GIORNO.plusDays(3).atTime(18, 0), GIORNO.plusDays(9).atStartOfDay()).isEmpty());
+
+        cena.setDataInizio(GIORNO.plusDays(5).atTime(20, 0));
+        cena.setDataFine(GIORNO.plusDays(5).atTime(23, 0));
+        indice.aggiorna(cena);
+        assertEquals(List.of(congresso),
+                indice.getSovrapposte(GIORNO.plusDays(2).atStartOfDay(), GIORNO.plusDays(3).atStartOfDay()));
+
+        eventi.remove(congresso);
+        assertEquals(2, indice.size());
+        assertTrue(indice.getSovrapposte(GIORNO.atStartOfDay(), GIORNO.plusDays(4).atStartOfDay()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test turni ordinati per inizio")
+    public void testTurni() {
+        ObservableList<Turno> turni = FXCollections.observableArrayList();
+        IndiceCalendario<Turno> indice = new IndiceCalendario<>(turni,
+                t -> t.getData().atTime(t.getOraInizio()), t -> t.getData().atTime(t.getOraFine()));
+        Turno sera = new Turno(1, GIORNO, LocalTime.of(18, 0), LocalTime.of(23, 0), "Cucina", "Sera");
+        Turno mattina = new Turno(2, GIORNO, LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Mattina");
+        Turno domani = new Turno(3, GIORNO.plusDays(1), LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Mattina");
+        turni.addAll(sera, domani, mattina);
+
+        assertEquals(List.of(mattina, sera), indice.getInizianoTra(GIORNO.atStartOfDay(), GIORNO.plusDays(1).atStartOfDay()));
+        assertEquals(List.of(mattina), indice.getSovrapposte(GIORNO.atTime(13, 0), GIORNO.atTime(18, 0)));
+    }
+}
@@ -0,0 +1,42 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.utenti.Cuoco;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice per identificativo sulle liste osservabili.
+ */
+public class IndiceIdTest {
+
+    @Test
+    @DisplayName("Test indice allineato alle modifiche della lista")
+    public void testAllineamento() {
+        ObservableList<Cuoco> cuochi = FXCollections.observableArrayList(
+                new Cuoco(1, "Luigi", "Verdi"), new Cuoco(2, "Anna", "Bianchi"));
+        IndiceId<Cuoco> indice = new IndiceId<>(cuochi, Cuoco::getId);
+
+        assertEquals("Anna", indice.get(2).getNome());
+        assertNull(indice.get(3));
+
+        cuochi.add(new Cuoco(3, "Marco", "Neri"));
+        assertEquals("Marco", indice.get(3).getNome());
+
+        cuochi.remove(0);
+        assertNull(indice.get(1));
+        assertEquals(2, indice.size());
+
+        cuochi.set(0, new Cuoco(2, "Anna Maria", "Bianchi"));
+        assertEquals("Anna Maria", indice.get(2).getNome());
+
+        cuochi.sort((a, b) -> b.getId() - a.getId());
+        assertEquals(2, indice.size());
+
+        cuochi.clear();
+        assertEquals(0, indice.size());
+    }
+}
@@ -0,0 +1,73 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.compiti.Disponibilita;
+import domain.compiti.Turno;
+import domain.utenti.Cuoco;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice di intervalli e per le disponibilità dei cuochi.
+ */
+public class IndiceIntervalliTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2030, 3, 1);
+
+    @Test
+    @DisplayName("Test fusione degli intervalli e interrogazioni")
+    public void testIntervalli() {
+        IndiceIntervalli indice = new IndiceIntervalli();
+        indice.aggiungi(10, 20);
+        indice.aggiungi(30, 40);
+        indice.aggiungi(50, 60);
+        assertEquals(3, indice.size());
+
+        indice.aggiungi(15, 35);
+        assertEquals(2, indice.size());
+        assertTrue(indice.copre(10, 40));
+        assertFalse(indice.copre(35, 55));
+        assertTrue(indice.sovrappone(39, 51));
+        assertFalse(indice.sovrappone(40, 50));
+
+        indice.aggiungi(40, 50);
+        assertEquals(1, indice.size());
+        assertTrue(indice.copre(10, 60));
+        assertFalse(indice.copre(5, 15));
+    }
+
+    @Test
+    @DisplayName("Test fascia che termina il giorno successivo")
+    public void testFasciaNotturna() {
+        long[] periodo = IndiceIntervalli.intervallo(GIORNO, LocalTime.of(22, 0), LocalTime.of(2, 0));
+        assertEquals(240, periodo[1] - periodo[0]);
+        assertEquals(IndiceIntervalli.minuti(GIORNO.plusDays(1), LocalTime.of(2, 0)), periodo[1]);
+    }
+
+    @Test
+    @DisplayName("Test disponibilità dei cuochi per un turno")
+    public void testDisponibilitaCuochi() {
+        DisponibilitaCuochi disponibilita = new DisponibilitaCuochi();
+        Cuoco senzaDisponibilita = new Cuoco(1, "Anna", "Bianchi");
+        Cuoco cuoco = new Cuoco(2, "Luca", "Rossi");
+        cuoco.fornisceDisponibilita(1, GIORNO, LocalTime.of(7, 0), LocalTime.of(11, 0));
+        Disponibilita pomeriggio = cuoco.fornisceDisponibilita(2, GIORNO, LocalTime.of(11, 0), LocalTime.of(15, 0));
+        disponibilita.aggiorna(senzaDisponibilita);
+        disponibilita.aggiorna(cuoco);
+
+        Turno mattina = new Turno(1, GIORNO, LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Mattina");
+        Turno sera = new Turno(2, GIORNO, LocalTime.of(18, 0), LocalTime.of(23, 0), "Cucina", "Sera");
+        assertTrue(disponibilita.isDisponibile(senzaDisponibilita, sera));
+        assertTrue(disponibilita.isDisponibile(cuoco, mattina));
+        assertFalse(disponibilita.isDisponibile(cuoco, sera));
+
+        pomeriggio.setRitirata(true);
+        disponibilita.aggiorna(cuoco);
+        assertFalse(disponibilita.isDisponibile(cuoco, mattina));
+        assertTrue(disponibilita.haDisponibilita(cuoco));
+    }
+}
@@ -0,0 +1,68 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.compiti.Compito;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice secondario sulle liste osservabili.
+ */
+public class IndiceMultiploTest {
+
+    private Compito nuovoCompito(int id, Integer cuocoId) {
+        Compito compito = new Compito(id, null, null, "2025-06-15 08:00-14:00", 30, 1.0);
+        compito.setCuocoId(cuocoId);
+        return compito;
+    }
+
+    private List<Integer> ids(IndiceMultiplo<Integer, Compito> indice, Integer chiave) {
+        return indice.get(chiave).stream().map(Compito::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test indice allineato ad aggiunte e rimozioni")
+    public void testAggiunteRimozioni() {
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(nuovoCompito(1, 10), nuovoCompito(2, 11));
+        IndiceMultiplo<Integer, Compito> perCuoco = new IndiceMultiplo<>(compiti, Compito::getCuocoId);
+
+        compiti.add(nuovoCompito(3, 10));
+        compiti.add(nuovoCompito(4, null));
+        assertEquals(List.of(1, 3), ids(perCuoco, 10));
+        assertEquals(1, perCuoco.conta(11));
+        assertEquals(0, perCuoco.conta(null));
+
+        compiti.remove(0);
+        assertEquals(List.of(3), ids(perCuoco, 10));
+
+        compiti.clear();
+        assertTrue(perCuoco.get(10).isEmpty());
+        assertTrue(perCuoco.get(11).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test riassegnazione di un'entità modificata sul posto")
+    public void testRiassegnazione() {
+        Compito compito = nuovoCompito(1, 10);
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(compito, nuovoCompito(2, 10));
+        IndiceMultiplo<Integer, Compito> perCuoco = new IndiceMultiplo<>(compiti, Compito::getCuocoId);
+
+        compito.setCuocoId(12);
+        perCuoco.aggiorna(compito);
+        assertEquals(List.of(2), ids(perCuoco, 10));
+        assertEquals(List.of(1), ids(perCuoco, 12));
+
+        compito.setCuocoId(null);
+        perCuoco.aggiorna(compito);
+        assertTrue(perCuoco.get(12).isEmpty());
+
+        compiti.remove(compito);
+        assertEquals(List.of(2), ids(perCuoco, 10));
+    }
+}
@@ -0,0 +1,82 @@
+package service.indici;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.ricette.Ricetta;
+import domain.ricette.Tag;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice dei tag a insiemi di bit.
+ */
+public class IndiceTagTest {
+
+    private ObservableList<Ricetta> ricette;
+    private IndiceTag<Ricetta> indice;
+    private Ricetta caprese;
+    private Ricetta vitelloTonnato;
+    private Ricetta gazpacho;
+    private Ricetta risotto;
+
+    @BeforeEach
+    public void setup() {
+        ricette = FXCollections.observableArrayList();
+        caprese = ricetta(1, "Caprese", "Vegetariano", "Freddo", "Senza glutine");
+        vitelloTonnato = ricetta(2, "Vitello tonnato", "Carne", "Freddo");
+        gazpacho = ricetta(3, "Gazpacho", "vegetariano", "Freddo", "Vegano");
+        risotto = ricetta(4, "Risotto", "Vegetariano", "Caldo");
+        ricette.addAll(caprese, vitelloTonnato, gazpacho, risotto);
+        indice = new IndiceTag<>(ricette,
+                r -> r.getTags().stream().map(Tag::getNome).collect(Collectors.toList()));
+    }
+
+    private static Ricetta ricetta(int id, String nome, String... tag) {
+        Ricetta ricetta = new Ricetta(id, nome);
+        for (String t : tag) {
+            ricetta.aggiungiTag(new Tag(t));
+        }
+        return ricetta;
+    }
+
+    @Test
+    @DisplayName("Test filtri con tutti, almeno uno e nessuno dei tag")
+    public void testFiltri() {
+        assertEquals(List.of(caprese, gazpacho),
+                indice.filtra(List.of("Vegetariano", "Freddo"), List.of(), List.of("Carne")));
+        assertEquals(List.of(caprese, gazpacho),
+                indice.filtra(List.of(), List.of("Senza glutine", "Vegano"), List.of()));
+        assertEquals(List.of(vitelloTonnato, risotto),
+                indice.filtra(List.of(), List.of(), List.of("VEGANO", " senza glutine ")));
+        assertTrue(indice.filtra(List.of("Pesce"), List.of(), List.of()).isEmpty());
+        assertEquals(3, indice.conta("vegetariano"));
+        assertTrue(indice.haTag(caprese, "senza glutine"));
+        assertFalse(indice.haTag(risotto, "Freddo"));
+        assertEquals(List.of("Vegetariano", "Freddo", "Senza glutine", "Carne", "Vegano", "Caldo"), indice.getTag());
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento dell'indice e riuso delle posizioni")
+    public void testAggiornamento() {
+        ricette.remove(vitelloTonnato);
+        assertEquals(List.of(caprese, gazpacho), indice.filtra(List.of("Freddo"), List.of(), List.of()));
+        assertFalse(indice.getTag().contains("Carne"));
+
+        Ricetta tartare = ricetta(5, "Tartare", "Carne", "Freddo");
+        ricette.add(tartare);
+        // La nuova ricetta riprende la posizione lasciata libera
+        assertEquals(List.of(caprese, tartare, gazpacho), indice.filtra(List.of("Freddo"), List.of(), List.of()));
+
+        risotto.getTags().clear();
+        risotto.aggiungiTag(new Tag("Senza glutine"));
+        indice.aggiorna(risotto);
+        assertEquals(2, indice.conta("Vegetariano"));
+        assertEquals(List.of(caprese, risotto), indice.filtra(List.of("Senza glutine"), List.of(), List.of()));
+    }
+}
@@ -0,0 +1,92 @@
+package service.indici;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.ricette.Ricetta;
+import domain.ricette.Tag;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice invertito di ricerca testuale.
+ */
+public class IndiceTestualeTest {
+
+    private ObservableList<Ricetta> ricette;
+    private IndiceTestuale<Ricetta> indice;
+    private Ricetta lasagne;
+    private Ricetta tiramisu;
+    private Ricetta risotto;
+
+    @BeforeEach
+    public void setup() {
+        ricette = FXCollections.observableArrayList();
+        lasagne = ricetta(1, "Lasagne alla bolognese", "Sfoglia all'uovo con ragù di manzo");
+        tiramisu = ricetta(2, "Tiramisù", "Dolce al caffè con savoiardi e mascarpone");
+        tiramisu.aggiungiTag(new Tag("Dolci"));
+        risotto = ricetta(3, "Risotto allo zafferano", "Riso Carnaroli mantecato con burro");
+        risotto.aggiungiTag(new Tag("Vegetariano"));
+        ricette.addAll(lasagne, tiramisu, risotto);
+        indice = new IndiceTestuale<>(ricette, List.of(
+                new IndiceTestuale.Campo<>(Ricetta::getNome, 3),
+                new IndiceTestuale.Campo<>(r -> r.getTags().stream().map(Tag::getNome).collect(Collectors.joining(" ")), 2),
+                new IndiceTestuale.Campo<>(Ricetta::getDescrizione, 1)));
+    }
+
+    private static Ricetta ricetta(int id, String nome, String descrizione) {
+        Ricetta ricetta = new Ricetta(id, nome);
+        ricetta.setDescrizione(descrizione);
+        return ricetta;
+    }
+
+    @Test
+    @DisplayName("Test ricerca senza accenti e maiuscole, per prefisso e con tutte le parole")
+    public void testRicerca() {
+        assertEquals(List.of(tiramisu), indice.cerca("TIRAMISU"));
+        assertEquals(List.of(lasagne), indice.cerca("ragu"));
+        assertEquals(List.of(tiramisu), indice.cerca("dol"));
+        assertEquals(List.of(risotto), indice.cerca("riso zaff"));
+        assertTrue(indice.cerca("riso dolce").isEmpty());
+        assertTrue(indice.cerca("  ").isEmpty());
+        // Gli articoli valgono come prefisso solo se sono l'unica parola
+        assertEquals(List.of(lasagne), indice.cerca("la"));
+        assertEquals(List.of(lasagne), indice.cerca("lasagne alla"));
+        Ricetta pesto = ricetta(4, "Pasta al pesto genovese", "Trofie con basilico e pinoli");
+        ricette.add(pesto);
+        assertEquals(List.of(pesto), indice.cerca("pasta al"));
+        assertEquals(List.of(pesto), indice.cerca("pasta al pesto"));
+    }
+
+    @Test
+    @DisplayName("Test ordinamento per pertinenza")
+    public void testOrdinamento() {
+        // "Riso" è una parola intera nella descrizione del risotto e un prefisso nel nome
+        Ricetta insalata = ricetta(4, "Insalata di riso", "Riso freddo con verdure");
+        ricette.add(insalata);
+        assertEquals(List.of(insalata, risotto), indice.cerca("riso"));
+        // A parità di punteggio conta l'ordine di inserimento
+        assertEquals(List.of(lasagne, tiramisu), indice.cerca("s"));
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento incrementale dell'indice")
+    public void testAggiornamento() {
+        Ricetta panna = ricetta(4, "Panna cotta", "Dolce al cucchiaio");
+        ricette.add(panna);
+        assertEquals(List.of(panna), indice.cerca("cucch"));
+
+        ricette.remove(tiramisu);
+        assertEquals(List.of(panna), indice.cerca("dolce"));
+
+        risotto.setNome("Risotto ai funghi");
+        indice.aggiorna(risotto);
+        assertEquals(List.of(risotto), indice.cerca("funghi"));
+        assertTrue(indice.cerca("zafferano").isEmpty());
+    }
+}
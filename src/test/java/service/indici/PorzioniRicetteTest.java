@@ -0,0 +1,78 @@
+package service.indici;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import domain.compiti.Compito;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'aggregato delle porzioni per evento e ricetta.
+ */
+public class PorzioniRicetteTest {
+
+    private Compito nuovoCompito(int id, Integer eventoId, Integer ricettaId, double quantita, String stato) {
+        Compito compito = new Compito(id, null, null, "2025-06-15 08:00-14:00", 30, quantita);
+        compito.setEventoId(eventoId);
+        compito.setRicettaId(ricettaId);
+        compito.setStato(stato);
+        return compito;
+    }
+
+    @Test
+    @DisplayName("Test porzioni pianificate, in corso e completate")
+    public void testPorzioni() {
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(
+                nuovoCompito(1, 1, 10, 20, "Da iniziare"),
+                nuovoCompito(2, 1, 10, 15, "Bloccato"),
+                nuovoCompito(3, 1, 10, 10, "In corso"),
+                nuovoCompito(4, 1, 10, 5, "Completato"),
+                nuovoCompito(5, 2, 10, 50, "Da iniziare"),
+                nuovoCompito(6, null, 10, 99, "Da iniziare"));
+        PorzioniRicette porzioni = new PorzioniRicette(compiti);
+
+        PorzioniRicette.Porzioni voce = porzioni.get(1, 10);
+        assertEquals(35, voce.getPianificate());
+        assertEquals(10, voce.getInCorso());
+        assertEquals(5, voce.getCompletate());
+        assertEquals(45, voce.getDaCompletare());
+        assertEquals(50, voce.getTotale());
+        assertEquals(4, voce.getNumeroCompiti());
+        assertEquals(50, porzioni.get(2, 10).getPianificate());
+        assertEquals(0, porzioni.get(1, 11).getTotale());
+
+        compiti.add(nuovoCompito(7, 1, 10, 8, "Completato"));
+        assertEquals(13, porzioni.get(1, 10).getCompletate());
+
+        compiti.remove(4);
+        assertEquals(0, porzioni.get(2, 10).getTotale());
+        assertEquals(0, porzioni.get(2, 10).getNumeroCompiti());
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento dopo cambio di stato e quantità")
+    public void testAggiornamento() {
+        Compito compito = nuovoCompito(1, 1, 10, 20, "Da iniziare");
+        ObservableList<Compito> compiti = FXCollections.observableArrayList(compito);
+        PorzioniRicette porzioni = new PorzioniRicette(compiti);
+
+        compito.setStato("In corso");
+        porzioni.aggiorna(compito);
+        assertEquals(0, porzioni.get(1, 10).getPianificate());
+        assertEquals(20, porzioni.get(1, 10).getInCorso());
+
+        compito.setStato("Completato");
+        compito.setQuantita(25);
+        porzioni.aggiorna(compito);
+        assertEquals(0, porzioni.get(1, 10).getInCorso());
+        assertEquals(25, porzioni.get(1, 10).getCompletate());
+        assertEquals(1, porzioni.get(1, 10).getNumeroCompiti());
+
+        compito.setRicettaId(11);
+        porzioni.aggiorna(compito);
+        assertEquals(0, porzioni.get(1, 10).getTotale());
+        assertEquals(25, porzioni.get(1, 11).getCompletate());
+    }
+}
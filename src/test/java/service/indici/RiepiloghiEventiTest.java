@@ -0,0 +1,123 @@
+package service.indici;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.menu.SezioneMenu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.CompitoCucinaService;
+import service.persistence.JsonRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import javafx.collections.ObservableList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la cache dei riepiloghi dei compiti per evento.
+ */
+public class RiepiloghiEventiTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2030, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private CompitoCucinaService compitoCucinaService;
+    private Turno turno;
+    private Cuoco cuoco;
+    private Evento pranzo;
+    private Evento cena;
+    private Ricetta risotto;
+    private Ricetta tiramisu;
+
+    @BeforeEach
+    public void setup() {
+        compitoCucinaService = new CompitoCucinaService(null, new JsonRepository<>(
+                tempDir.resolve("compiti.json").toString(), Compito.class, Compito::getId,
+                CompitoCucinaService.indiciCompiti()));
+        compitoCucinaService.getTurni().clear();
+        turno = new Turno(1, GIORNO, LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Preparazione");
+        compitoCucinaService.getTurni().add(turno);
+        cuoco = new Cuoco(1, "Anna", "Bianchi");
+        pranzo = new Evento(1, "Pranzo", GIORNO.atTime(12, 0), null, "Sala", 40);
+        cena = new Evento(2, "Cena", GIORNO.atTime(20, 0), null, "Terrazza", 60);
+        risotto = new Ricetta(10, "Risotto");
+        tiramisu = new Ricetta(11, "Tiramisù");
+    }
+
+    private Compito assegna(Ricetta ricetta, Evento evento) {
+        return compitoCucinaService.assegnaCompito(cuoco, turno, ricetta, 30, 10, evento);
+    }
+
+    @Test
+    @DisplayName("Test riepilogo in cache e scartato solo per l'evento modificato")
+    public void testCacheEInvalidazione() {
+        Compito primo = assegna(risotto, pranzo);
+        Compito secondo = assegna(tiramisu, cena);
+
+        ObservableList<Compito> riepilogoPranzo = compitoCucinaService.creaRiepilogoCompiti(pranzo);
+        ObservableList<Compito> riepilogoCena = compitoCucinaService.creaRiepilogoCompiti(cena);
+        assertEquals(List.of(primo), riepilogoPranzo);
+        assertEquals(List.of(secondo), riepilogoCena);
+        assertSame(riepilogoPranzo, compitoCucinaService.creaRiepilogoCompiti(pranzo));
+
+        // Un nuovo compito della cena non tocca il riepilogo del pranzo
+        Compito terzo = assegna(risotto, cena);
+        assertSame(riepilogoPranzo, compitoCucinaService.creaRiepilogoCompiti(pranzo));
+        assertEquals(List.of(secondo, terzo), compitoCucinaService.creaRiepilogoCompiti(cena));
+
+        // Un compito spostato sul posto da un evento all'altro
+        terzo.setEvento(pranzo);
+        compitoCucinaService.aggiornaCompito(terzo);
+        assertEquals(List.of(primo, terzo), compitoCucinaService.creaRiepilogoCompiti(pranzo));
+        assertEquals(List.of(secondo), compitoCucinaService.creaRiepilogoCompiti(cena));
+
+        compitoCucinaService.eliminaCompito(primo);
+        assertEquals(List.of(terzo), compitoCucinaService.creaRiepilogoCompiti(pranzo));
+    }
+
+    @Test
+    @DisplayName("Test compiti senza evento inclusi tramite il menu e nessun ripiego su tutti i compiti")
+    public void testCompitiSenzaEvento() {
+        Compito compitoCena = assegna(tiramisu, cena);
+        Compito senzaEvento = assegna(risotto, null);
+        assegna(tiramisu, null);
+
+        // Senza menu il riepilogo contiene solo i compiti dell'evento
+        assertTrue(compitoCucinaService.creaRiepilogoCompiti(pranzo).isEmpty());
+        assertEquals(List.of(compitoCena), compitoCucinaService.creaRiepilogoCompiti(cena));
+
+        Menu menu = new Menu(1);
+        SezioneMenu primi = new SezioneMenu(1, "Primi");
+        menu.getSezioni().add(primi);
+        pranzo.setMenu(menu);
+        assertTrue(compitoCucinaService.creaRiepilogoCompiti(pranzo).isEmpty());
+
+        // Le modifiche alle ricette del menu scartano il riepilogo
+        primi.aggiungiRicetta(risotto);
+        assertEquals(List.of(senzaEvento), compitoCucinaService.creaRiepilogoCompiti(pranzo));
+
+        SezioneMenu dolci = new SezioneMenu(2, "Dolci");
+        menu.getSezioni().add(dolci);
+        dolci.aggiungiRicetta(tiramisu);
+        assertEquals(2, compitoCucinaService.creaRiepilogoCompiti(pranzo).size());
+        assertFalse(compitoCucinaService.creaRiepilogoCompiti(pranzo).contains(compitoCena));
+
+        primi.rimuoviRicetta(risotto);
+        assertFalse(compitoCucinaService.creaRiepilogoCompiti(pranzo).contains(senzaEvento));
+
+        pranzo.setMenu(null);
+        assertTrue(compitoCucinaService.creaRiepilogoCompiti(pranzo).isEmpty());
+    }
+}
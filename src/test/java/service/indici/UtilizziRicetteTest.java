@@ -0,0 +1,106 @@
+package service.indici;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.menu.Menu;
+import domain.menu.RicettaInMenu;
+import domain.menu.SezioneMenu;
+import domain.ricette.Ricetta;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import ui.viewmodels.RicettaViewModel;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'indice inverso dalle ricette alle voci dei menu.
+ */
+public class UtilizziRicetteTest {
+
+    private ObservableList<Menu> menus;
+    private UtilizziRicette utilizzi;
+    private Ricetta bruschetta;
+    private Ricetta risotto;
+    private Menu matrimonio;
+    private SezioneMenu antipasti;
+    private SezioneMenu primi;
+
+    @BeforeEach
+    public void setup() {
+        bruschetta = new Ricetta(1, "Bruschetta");
+        risotto = new Ricetta(2, "Risotto");
+        matrimonio = new Menu(1);
+        matrimonio.definisciSezioni(List.of("Antipasti", "Primi"));
+        antipasti = matrimonio.getSezioni().get(0);
+        primi = matrimonio.getSezioni().get(1);
+        antipasti.aggiungiRicetta(bruschetta);
+        menus = FXCollections.observableArrayList(matrimonio);
+        utilizzi = new UtilizziRicette(menus);
+        utilizzi.collega(Map.of(1, bruschetta, 2, risotto)::get);
+    }
+
+    @Test
+    @DisplayName("Test voci indicizzate per aggiunta, spostamento e rimozione")
+    public void testAggiornamentoVoci() {
+        assertTrue(bruschetta.isInUso());
+        assertFalse(risotto.isInUso());
+
+        primi.aggiungiRicetta(risotto, "Risotto della sposa");
+        assertTrue(risotto.isInUso());
+        assertSame(primi, utilizzi.get(2).get(0).getSezione());
+
+        RicettaInMenu voce = primi.getRicette().get(0);
+        primi.spostaRicetta(voce, antipasti);
+        assertEquals(1, utilizzi.get(2).size());
+        assertSame(antipasti, utilizzi.get(2).get(0).getSezione());
+        assertSame(voce, utilizzi.get(2).get(0).getRicettaInMenu());
+
+        antipasti.rimuoviRicetta(risotto);
+        assertTrue(utilizzi.get(2).isEmpty());
+        assertFalse(risotto.isInUso());
+    }
+
+    @Test
+    @DisplayName("Test voci di più menu e rimozione di menu e sezioni")
+    public void testPiuMenu() {
+        Menu buffet = new Menu(2);
+        buffet.definisciSezioni(List.of("Finger food"));
+        buffet.getSezioni().get(0).aggiungiRicetta(bruschetta);
+        buffet.getSezioni().get(0).aggiungiRicetta(bruschetta, "Bruschettina");
+        menus.add(buffet);
+
+        assertEquals(3, utilizzi.get(1).size());
+        assertEquals(List.of(matrimonio, buffet), utilizzi.getMenu(1));
+
+        menus.remove(buffet);
+        assertEquals(List.of(matrimonio), utilizzi.getMenu(1));
+        // Le modifiche al menu rimosso non toccano più l'indice
+        buffet.getSezioni().get(0).aggiungiRicetta(risotto);
+        assertFalse(utilizzi.isInUso(2));
+
+        matrimonio.definisciSezioni(List.of("Dolci"));
+        assertFalse(utilizzi.isInUso(1));
+        assertFalse(bruschetta.isInUso());
+        antipasti.aggiungiRicetta(bruschetta);
+        assertFalse(utilizzi.isInUso(1));
+    }
+
+    @Test
+    @DisplayName("Test rimozione dell'ultima voce con il ViewModel della ricetta aperto")
+    public void testRimozioneUltimaVoceConViewModel() {
+        RicettaViewModel viewModel = new RicettaViewModel(bruschetta);
+        assertTrue(viewModel.inUsoProperty().get());
+
+        antipasti.rimuoviRicetta(bruschetta);
+        assertFalse(bruschetta.isInUso());
+
+        // Il ViewModel creato prima della rimozione non riporta il vecchio flag sulla ricetta
+        assertSame(bruschetta, viewModel.getRicetta());
+        assertFalse(bruschetta.isInUso());
+        assertFalse(viewModel.inUsoProperty().get());
+    }
+}
@@ -0,0 +1,132 @@
+package service.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per l'archivio a journal dei compiti.
+ */
+public class JsonJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String snapshotPath;
+    private String journalPath;
+
+    @BeforeEach
+    public void setup() {
+        snapshotPath = tempDir.resolve("compiti.json").toString();
+        journalPath = tempDir.resolve("compiti.journal").toString();
+    }
+
+    private JsonJournal<Compito> nuovoJournal(int soglia) {
+        return new JsonJournal<>(snapshotPath, journalPath, Compito.class, Compito::getId, soglia);
+    }
+
+    private Compito nuovoCompito(int id, int durata) {
+        Compito compito = new Compito(id, null, null, "2025-06-15 08:00-14:00", durata, 10.0);
+        compito.setCuocoId(3);
+        return compito;
+    }
+
+    @Test
+    @DisplayName("Test ricostruzione da journal senza snapshot")
+    public void testRicostruzioneDaJournal() {
+        JsonJournal<Compito> journal = nuovoJournal(100);
+        journal.load();
+        journal.appendPut(nuovoCompito(1, 30));
+        journal.appendPut(nuovoCompito(2, 45));
+        Compito modificato = nuovoCompito(1, 60);
+        modificato.setStato("In corso");
+        journal.appendPut(modificato);
+        journal.appendDelete(2);
+
+        assertEquals(4, journal.getRecordNelJournal());
+        assertFalse(Files.exists(Path.of(snapshotPath)));
+
+        List<Compito> ricaricati = nuovoJournal(100).load();
+        assertEquals(1, ricaricati.size());
+        assertEquals(1, ricaricati.get(0).getId());
+        assertEquals(60, ricaricati.get(0).getDurata());
+        assertEquals("In corso", ricaricati.get(0).getStato());
+        assertEquals(Integer.valueOf(3), ricaricati.get(0).getCuocoId());
+    }
+
+    @Test
+    @DisplayName("Test compattazione automatica alla soglia")
+    public void testCompattazioneAutomatica() throws Exception {
+        JsonJournal<Compito> journal = nuovoJournal(3);
+        journal.load();
+        journal.appendPut(nuovoCompito(1, 30));
+        journal.appendPut(nuovoCompito(2, 30));
+        journal.appendPut(nuovoCompito(3, 30));
+
+        // Alla soglia il journal viene svuotato e lo stato finisce nello snapshot
+        assertEquals(0, journal.getRecordNelJournal());
+        assertTrue(Files.exists(Path.of(snapshotPath)));
+        assertEquals(0, Files.size(Path.of(journalPath)));
+
+        journal.appendDelete(1);
+        assertEquals(1, journal.getRecordNelJournal());
+
+        List<Compito> ricaricati = nuovoJournal(3).load();
+        assertEquals(2, ricaricati.size());
+        assertTrue(ricaricati.stream().noneMatch(c -> c.getId() == 1));
+    }
+
+    @Test
+    @DisplayName("Test chiusura compatta il journal")
+    public void testChiusura() throws Exception {
+        JsonJournal<Compito> journal = nuovoJournal(100);
+        journal.load();
+        journal.appendPut(nuovoCompito(1, 30));
+        journal.close();
+
+        assertEquals(0, Files.size(Path.of(journalPath)));
+        assertEquals(1, JsonLoader.loadFromFile(snapshotPath, Compito.class).size());
+    }
+
+    @Test
+    @DisplayName("Test modifica di più entità con un'unica scrittura")
+    public void testAppendPutAll() {
+        JsonJournal<Compito> journal = nuovoJournal(100);
+        journal.load();
+        journal.appendPut(nuovoCompito(1, 30));
+        journal.appendPutAll(List.of(nuovoCompito(1, 45), nuovoCompito(2, 60)));
+
+        assertEquals(3, journal.getRecordNelJournal());
+        List<Compito> ricaricati = nuovoJournal(100).load();
+        assertEquals(2, ricaricati.size());
+        assertEquals(45, ricaricati.get(0).getDurata());
+        assertEquals(60, ricaricati.get(1).getDurata());
+    }
+
+    @Test
+    @DisplayName("Test riga incompleta in coda al journal ignorata")
+    public void testRigaIncompleta() throws Exception {
+        JsonJournal<Compito> journal = nuovoJournal(100);
+        journal.load();
+        journal.appendPut(nuovoCompito(1, 30));
+        journal.close();
+        journal.appendPut(nuovoCompito(2, 30));
+
+        // Simula una scrittura interrotta
+        Files.write(Path.of(journalPath), "{\"op\":\"PUT\",\"dato\":{\"id\":3".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        List<Compito> ricaricati = nuovoJournal(100).load();
+        assertEquals(2, ricaricati.size());
+    }
+}
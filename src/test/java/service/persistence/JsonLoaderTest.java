@@ -0,0 +1,103 @@
+package service.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+import domain.ricette.Ricetta;
+import domain.ricette.Tag;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il caricamento dei file JSON.
+ */
+public class JsonLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String salvaCompitiDiProva() {
+        List<Compito> compiti = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Compito compito = new Compito(i, null, null, "2025-06-15 08:00-14:00", i * 10, 1.0);
+            compito.setStato(i % 2 == 0 ? "Completato" : "Da iniziare");
+            compiti.add(compito);
+        }
+        String percorso = tempDir.resolve("compiti.json").toString();
+        assertTrue(JsonLoader.saveToFile(percorso, compiti));
+        return percorso;
+    }
+
+    @Test
+    @DisplayName("Test lettura in streaming di tutti gli elementi")
+    public void testForEachFromFile() {
+        String percorso = salvaCompitiDiProva();
+        List<Integer> ids = new ArrayList<>();
+
+        int letti = JsonLoader.forEachFromFile(percorso, Compito.class, compito -> ids.add(compito.getId()));
+
+        assertEquals(5, letti);
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+    }
+
+    @Test
+    @DisplayName("Test lettura in streaming con filtro sul nodo JSON")
+    public void testForEachFromFileConFiltro() {
+        String percorso = salvaCompitiDiProva();
+        List<Compito> daFare = new ArrayList<>();
+
+        int letti = JsonLoader.forEachFromFile(percorso, Compito.class,
+                nodo -> !"Completato".equals(nodo.path("stato").asText()), daFare::add);
+
+        assertEquals(3, letti);
+        assertTrue(daFare.stream().allMatch(c -> "Da iniziare".equals(c.getStato())));
+    }
+
+    @Test
+    @DisplayName("Test lettura in streaming di file inesistente")
+    public void testForEachFromFileInesistente() {
+        int letti = JsonLoader.forEachFromFile(tempDir.resolve("mancante.json").toString(),
+                Compito.class, compito -> fail("Nessun elemento atteso"));
+        assertEquals(0, letti);
+    }
+
+    @Test
+    @DisplayName("Test tag e stringhe ricorrenti caricati come istanze canoniche")
+    public void testPoolCanonico() throws Exception {
+        String percorso = tempDir.resolve("ricette.json").toString();
+        Files.writeString(Path.of(percorso), "["
+                + "{\"id\": 1, \"nome\": \"Caprese\", \"stato\": \"Pubblicata\", \"tags\": [\"Freddo\", \"Vegetariano\"]},"
+                + "{\"id\": 2, \"nome\": \"Gazpacho\", \"stato\": \"Pubblicata\", \"tags\": [{\"nome\": \"Freddo\"}]},"
+                + "{\"id\": 3, \"nome\": \"Tiramisu\", \"stato\": \"Bozza\", \"tags\": [{\"nome\": \"Freddo\", \"colore\": \"blu\"}]}"
+                + "]");
+
+        List<Ricetta> ricette = JsonLoader.loadFromFile(percorso, Ricetta.class);
+
+        assertEquals(3, ricette.size());
+        assertSame(ricette.get(0).getTags().get(0), ricette.get(1).getTags().get(0));
+        // Un tag con lo stesso nome ma un colore diverso resta un'istanza distinta
+        assertNotSame(ricette.get(0).getTags().get(0), ricette.get(2).getTags().get(0));
+        assertSame(ricette.get(0).getStato(), ricette.get(1).getStato());
+        assertSame(PoolCanonico.stringa(new String("Pubblicata")), ricette.get(0).getStato());
+        assertSame(PoolCanonico.tag(new Tag("Vegetariano")), ricette.get(0).getTags().get(1));
+    }
+
+    @Test
+    @DisplayName("Test salvataggio di byte già serializzati tramite file temporaneo")
+    public void testSaveBytesToFile() {
+        String percorso = salvaCompitiDiProva();
+        List<Compito> compiti = JsonLoader.loadFromFile(percorso, Compito.class);
+        compiti.remove(0);
+
+        assertTrue(JsonLoader.saveBytesToFile(percorso, JsonLoader.toBytes(compiti)));
+
+        assertEquals(4, JsonLoader.loadFromFile(percorso, Compito.class).size());
+        assertFalse(Files.exists(Path.of(percorso + ".tmp")));
+    }
+}
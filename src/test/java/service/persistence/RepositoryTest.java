@@ -0,0 +1,136 @@
+package service.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.utenti.Cuoco;
+import service.CompitoCucinaService;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per gli archivi dei compiti, eseguiti su entrambi i backend.
+ */
+public class RepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Repository<Compito, Integer> apri(String backend) {
+        if ("sql".equals(backend)) {
+            return new SqlRepository<>("jdbc:h2:" + tempDir.resolve("catring").toAbsolutePath(), "compiti",
+                    Compito.class, Compito::getId, CompitoCucinaService.indiciCompiti());
+        }
+        return new JsonRepository<>(tempDir.resolve("compiti.json").toString(), Compito.class,
+                Compito::getId, CompitoCucinaService.indiciCompiti());
+    }
+
+    private Compito nuovoCompito(int id, Integer cuocoId, Integer turnoId, Integer eventoId) {
+        Compito compito = new Compito(id, null, null, "2025-06-15 08:00-14:00", 30, 1.0);
+        compito.setCuocoId(cuocoId);
+        compito.setTurnoId(turnoId);
+        compito.setEventoId(eventoId);
+        return compito;
+    }
+
+    private List<Integer> ids(List<Compito> compiti) {
+        return compiti.stream().map(Compito::getId).collect(Collectors.toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "sql"})
+    @DisplayName("Test ricerca per identificativo e per indice secondario")
+    public void testRicerche(String backend) {
+        Repository<Compito, Integer> archivio = apri(backend);
+        archivio.saveAll(List.of(
+                nuovoCompito(1, 10, 100, 1000),
+                nuovoCompito(2, 11, 100, 1000),
+                nuovoCompito(3, 10, 101, null)));
+
+        assertEquals(3, archivio.count());
+        assertEquals(Integer.valueOf(11), archivio.findById(2).getCuocoId());
+        assertNull(archivio.findById(99));
+        assertEquals(List.of(1, 3), ids(archivio.findBy(CompitoCucinaService.INDICE_CUOCO, 10)));
+        assertEquals(List.of(1, 2), ids(archivio.findBy(CompitoCucinaService.INDICE_TURNO, 100)));
+        assertEquals(List.of(1, 2), ids(archivio.findBy(CompitoCucinaService.INDICE_EVENTO, 1000)));
+        assertTrue(archivio.findBy(CompitoCucinaService.INDICE_EVENTO, 2000).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> archivio.findBy("ricettaId", 1));
+        archivio.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "sql"})
+    @DisplayName("Test aggiornamento degli indici su modifica ed eliminazione")
+    public void testAggiornamentoIndici(String backend) {
+        Repository<Compito, Integer> archivio = apri(backend);
+        Compito compito = nuovoCompito(1, 10, 100, 1000);
+        archivio.save(compito);
+        archivio.save(nuovoCompito(2, 10, 100, 1000));
+
+        // Riassegnazione a un altro cuoco dello stesso oggetto
+        compito.setCuocoId(12);
+        archivio.save(compito);
+        assertEquals(List.of(2), ids(archivio.findBy(CompitoCucinaService.INDICE_CUOCO, 10)));
+        assertEquals(List.of(1), ids(archivio.findBy(CompitoCucinaService.INDICE_CUOCO, 12)));
+
+        assertTrue(archivio.deleteById(2));
+        assertFalse(archivio.deleteById(2));
+        assertTrue(archivio.findBy(CompitoCucinaService.INDICE_CUOCO, 10).isEmpty());
+        assertEquals(List.of(1), ids(archivio.findBy(CompitoCucinaService.INDICE_TURNO, 100)));
+        archivio.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "sql"})
+    @DisplayName("Test persistenza tra riaperture dell'archivio")
+    public void testRiapertura(String backend) {
+        Repository<Compito, Integer> archivio = apri(backend);
+        archivio.save(nuovoCompito(1, 10, 100, 1000));
+        archivio.save(nuovoCompito(2, 11, 101, 1000));
+        archivio.deleteById(1);
+        archivio.close();
+
+        Repository<Compito, Integer> riaperto = apri(backend);
+        assertEquals(1, riaperto.count());
+        assertEquals(List.of(2), ids(riaperto.findBy(CompitoCucinaService.INDICE_CUOCO, 11)));
+        riaperto.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json", "sql"})
+    @DisplayName("Test ricerche del servizio tramite gli indici dell'archivio")
+    public void testRicercheDelServizio(String backend) {
+        CompitoCucinaService servizio = new CompitoCucinaService(null, apri(backend));
+        Cuoco mario = new Cuoco(10, "Mario", "Rossi");
+        Cuoco anna = new Cuoco(11, "Anna", "Bianchi");
+        Turno turno = new Turno(100, LocalDate.of(2025, 6, 15), LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Preparatorio");
+        Evento evento = new Evento(1000, "Matrimonio", LocalDateTime.of(2025, 6, 15, 18, 0),
+                LocalDateTime.of(2025, 6, 15, 23, 0), "Villa", 80);
+        Compito primo = servizio.assegnaCompito(mario, turno, null, 30, 1.0, evento);
+        Compito secondo = servizio.assegnaCompito(mario, turno, null, 45, 1.0, null);
+
+        secondo.setCuocoAssegnato(anna);
+        servizio.aggiornaCompito(secondo);
+
+        // Le ricerche restituiscono le stesse istanze della lista dei compiti
+        assertSame(primo, servizio.getCompitiPerCuoco(mario).get(0));
+        assertEquals(List.of(secondo), servizio.getCompitiPerCuoco(anna));
+        assertEquals(List.of(primo), servizio.getCompitiPerEvento(evento));
+        assertEquals(List.of(primo, secondo), servizio.controllaStatoTurno(turno));
+
+        servizio.eliminaCompito(primo);
+        assertTrue(servizio.getCompitiPerCuoco(mario).isEmpty());
+        servizio.chiudi();
+    }
+}
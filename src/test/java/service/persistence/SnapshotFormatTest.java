@@ -0,0 +1,76 @@
+package service.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il formato binario degli snapshot e la conversione da e verso JSON.
+ */
+public class SnapshotFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void ripristinaFormato() {
+        JsonLoader.setSnapshotFormat(SnapshotFormat.JSON);
+    }
+
+    private Compito nuovoCompito(int id) {
+        Compito compito = new Compito(id, null, null, "2025-06-15 08:00-14:00", 30, 2.5);
+        compito.setStato("In corso");
+        return compito;
+    }
+
+    @Test
+    @DisplayName("Test salvataggio e caricamento in formato Smile")
+    public void testSalvataggioSmile() {
+        JsonLoader.setSnapshotFormat(SnapshotFormat.SMILE);
+        String percorso = tempDir.resolve("compiti.json").toString();
+
+        assertTrue(JsonLoader.saveToFile(percorso, List.of(nuovoCompito(1), nuovoCompito(2))));
+        assertTrue(Files.exists(tempDir.resolve("compiti.smile")));
+        assertFalse(Files.exists(tempDir.resolve("compiti.json")));
+
+        List<Compito> caricati = JsonLoader.loadFromFile(percorso, Compito.class);
+        assertEquals(2, caricati.size());
+        assertEquals("In corso", caricati.get(1).getStato());
+        assertEquals(2.5, caricati.get(1).getQuantita());
+    }
+
+    @Test
+    @DisplayName("Test lettura del file JSON quando manca lo snapshot binario")
+    public void testRipiegoSuJson() {
+        String percorso = tempDir.resolve("compiti.json").toString();
+        assertTrue(JsonLoader.saveToFile(percorso, List.of(nuovoCompito(1))));
+
+        JsonLoader.setSnapshotFormat(SnapshotFormat.SMILE);
+        assertEquals(1, JsonLoader.forEachFromFile(percorso, Compito.class, compito -> { }));
+    }
+
+    @Test
+    @DisplayName("Test conversione della cartella dati andata e ritorno")
+    public void testConversioneCartella() throws Exception {
+        String percorso = tempDir.resolve("compiti.json").toString();
+        assertTrue(JsonLoader.saveToFile(percorso, List.of(nuovoCompito(1), nuovoCompito(2))));
+
+        assertEquals(1, SnapshotConverter.convertiCartella(tempDir.toString(), SnapshotFormat.SMILE));
+        Path smile = tempDir.resolve("compiti.smile");
+        assertTrue(Files.size(smile) < Files.size(tempDir.resolve("compiti.json")));
+
+        Files.delete(tempDir.resolve("compiti.json"));
+        assertEquals(1, SnapshotConverter.convertiCartella(tempDir.toString(), SnapshotFormat.JSON));
+        List<Compito> riconvertiti = JsonLoader.loadFromFile(percorso, Compito.class);
+        assertEquals(2, riconvertiti.size());
+        assertEquals(2, riconvertiti.get(1).getId());
+    }
+}
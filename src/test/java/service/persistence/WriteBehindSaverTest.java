@@ -0,0 +1,186 @@
+package service.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il salvataggio differito dei file JSON.
+ */
+public class WriteBehindSaverTest {
+
+    private WriteBehindSaver<Integer> saver;
+
+    @AfterEach
+    public void cleanup() {
+        if (saver != null) {
+            saver.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test accorpamento di più modifiche in una sola scrittura")
+    public void testAccorpamentoModifiche() throws Exception {
+        AtomicInteger istantanee = new AtomicInteger();
+        AtomicInteger scritture = new AtomicInteger();
+        saver = new WriteBehindSaver<>("test", istantanee::incrementAndGet, dati -> {
+            scritture.incrementAndGet();
+            return true;
+        }, Runnable::run, 200);
+
+        for (int i = 0; i < 100; i++) {
+            saver.markDirty();
+        }
+
+        // Nessuna istantanea né scrittura sul thread chiamante
+        assertEquals(0, istantanee.get());
+        assertEquals(0, scritture.get());
+        assertTrue(saver.isDirty());
+
+        Thread.sleep(600);
+        assertEquals(1, istantanee.get());
+        assertEquals(1, scritture.get());
+        assertFalse(saver.isDirty());
+    }
+
+    @Test
+    @DisplayName("Test flush esplicito")
+    public void testFlushEsplicito() {
+        AtomicInteger scritture = new AtomicInteger();
+        saver = new WriteBehindSaver<>("test", () -> 0, dati -> {
+            scritture.incrementAndGet();
+            return true;
+        }, Runnable::run, 60_000);
+
+        saver.markDirty();
+        saver.markDirty();
+        assertTrue(saver.flush());
+        assertEquals(1, scritture.get());
+
+        // Senza modifiche il flush non scrive
+        assertTrue(saver.flush());
+        assertEquals(1, scritture.get());
+    }
+
+    @Test
+    @DisplayName("Test salvataggio alla chiusura")
+    public void testSalvataggioAllaChiusura() {
+        AtomicInteger scritture = new AtomicInteger();
+        saver = new WriteBehindSaver<>("test", () -> 0, dati -> {
+            scritture.incrementAndGet();
+            return true;
+        }, Runnable::run, 60_000);
+
+        saver.markDirty();
+        saver.shutdown();
+        assertEquals(1, scritture.get());
+
+        // Dopo la chiusura le modifiche vengono scritte subito
+        saver.markDirty();
+        assertEquals(2, scritture.get());
+    }
+
+    @Test
+    @DisplayName("Test scrittura fallita mantiene le modifiche pendenti")
+    public void testScritturaFallita() {
+        AtomicInteger tentativi = new AtomicInteger();
+        saver = new WriteBehindSaver<>("test", () -> 0, dati -> tentativi.incrementAndGet() > 1, Runnable::run, 60_000);
+
+        saver.markDirty();
+        assertFalse(saver.flush());
+        assertTrue(saver.isDirty());
+
+        assertTrue(saver.flush());
+        assertFalse(saver.isDirty());
+    }
+
+    @Test
+    @DisplayName("Test intervallo non valido")
+    public void testIntervalloNonValido() {
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindSaver<>("test", () -> 0, dati -> true, Runnable::run, 0));
+    }
+
+    @Test
+    @DisplayName("Test istantanea presa sul thread dei dati")
+    public void testIstantaneaSulThreadDati() throws Exception {
+        ExecutorService threadDati = Executors.newSingleThreadExecutor(r -> new Thread(r, "dati"));
+        List<String> threadIstantanee = new CopyOnWriteArrayList<>();
+        List<String> threadScritture = new CopyOnWriteArrayList<>();
+        CountDownLatch scritto = new CountDownLatch(1);
+        try {
+            saver = new WriteBehindSaver<>("test", () -> {
+                threadIstantanee.add(Thread.currentThread().getName());
+                return 0;
+            }, dati -> {
+                threadScritture.add(Thread.currentThread().getName());
+                scritto.countDown();
+                return true;
+            }, threadDati, 100);
+
+            saver.markDirty();
+            saver.markDirty();
+            assertTrue(scritto.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("dati"), threadIstantanee);
+            assertEquals(List.of("salvataggio-test"), threadScritture);
+        } finally {
+            threadDati.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test istantanea dell'ultimo stato dei dati")
+    public void testIstantaneaUltimoStato() {
+        AtomicInteger valore = new AtomicInteger();
+        List<Integer> scritti = new ArrayList<>();
+        saver = new WriteBehindSaver<>("test", valore::get, dati -> {
+            scritti.add(dati);
+            return true;
+        }, Runnable::run, 60_000);
+
+        valore.set(1);
+        saver.markDirty();
+        valore.set(2);
+        saver.markDirty();
+        assertTrue(saver.flush());
+        assertEquals(List.of(2), scritti);
+
+        // Senza modifiche segnalate il flush non prende una nuova istantanea
+        valore.set(3);
+        assertTrue(saver.flush());
+        assertEquals(List.of(2), scritti);
+    }
+
+    @Test
+    @DisplayName("Test scrittura fallita non sostituisce un'istantanea più recente")
+    public void testScritturaFallitaConIstantanea() {
+        AtomicInteger valore = new AtomicInteger();
+        List<Integer> scritti = new ArrayList<>();
+        saver = new WriteBehindSaver<>("test", valore::get, dati -> {
+            if (dati == 1) {
+                // Modifica arrivata durante la scrittura, che poi fallisce
+                valore.set(2);
+                saver.markDirty();
+                return false;
+            }
+            scritti.add(dati);
+            return true;
+        }, Runnable::run, 60_000);
+
+        valore.set(1);
+        saver.markDirty();
+        assertFalse(saver.flush());
+        assertTrue(saver.flush());
+        assertEquals(List.of(2), scritti);
+    }
+}
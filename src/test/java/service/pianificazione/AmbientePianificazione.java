@@ -0,0 +1,50 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import service.CompitoCucinaService;
+import service.persistence.JsonRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Ambiente comune ai test della pianificazione: un servizio dei compiti con archivio
+ * in una cartella temporanea, senza turni, a cui i test aggiungono i propri turni.
+ */
+abstract class AmbientePianificazione {
+
+    protected static final LocalDate GIORNO = LocalDate.of(2030, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    protected CompitoCucinaService compitoCucinaService;
+
+    @BeforeEach
+    public void creaServizio() {
+        compitoCucinaService = new CompitoCucinaService(null, nuovoArchivio());
+        compitoCucinaService.getTurni().clear();
+    }
+
+    /**
+     * Apre l'archivio dei compiti del test (ad ogni chiamata rilegge il file).
+     */
+    protected JsonRepository<Compito, Integer> nuovoArchivio() {
+        return new JsonRepository<>(tempDir.resolve("compiti.json").toString(), Compito.class, Compito::getId,
+                CompitoCucinaService.indiciCompiti());
+    }
+
+    protected Turno aggiungiTurno(int id, LocalTime inizio, LocalTime fine) {
+        return aggiungiTurno(id, GIORNO, inizio, fine);
+    }
+
+    protected Turno aggiungiTurno(int id, LocalDate giorno, LocalTime inizio, LocalTime fine) {
+        Turno turno = new Turno(id, giorno, inizio, fine, "Cucina", "Preparazione");
+        compitoCucinaService.getTurni().add(turno);
+        return turno;
+    }
+}
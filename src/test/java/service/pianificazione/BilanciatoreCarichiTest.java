@@ -0,0 +1,113 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il bilanciamento del carico dei cuochi tra gli eventi di una data.
+ */
+public class BilanciatoreCarichiTest extends AmbientePianificazione {
+
+    private Evento pranzo;
+    private Evento cena;
+    private Cuoco anna;
+    private Cuoco luca;
+
+    @BeforeEach
+    public void setup() {
+        pranzo = new Evento(1, "Pranzo", GIORNO.atTime(12, 0), null, "Sala", 40);
+        cena = new Evento(2, "Cena", GIORNO.atTime(20, 0), null, "Terrazza", 60);
+        anna = new Cuoco(1, "Anna", "Bianchi");
+        luca = new Cuoco(2, "Luca", "Rossi");
+    }
+
+    private Compito assegna(Cuoco cuoco, Turno turno, int minuti, Evento evento) {
+        Ricetta ricetta = new Ricetta(compitoCucinaService.getCompiti().size() + 1, "Ricetta");
+        return compitoCucinaService.assegnaCompito(cuoco, turno, ricetta, minuti, 10, evento);
+    }
+
+    @Test
+    @DisplayName("Test bilanciamento tra eventi della stessa data e salvataggio unico")
+    public void testBilanciamento() throws Exception {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        assegna(anna, turno, 120, pranzo);
+        assegna(anna, turno, 120, cena);
+        assegna(anna, turno, 90, pranzo);
+        assegna(anna, turno, 60, cena);
+
+        BilanciatoreCarichi bilanciatore = new BilanciatoreCarichi(compitoCucinaService, GIORNO, List.of(anna, luca));
+        ExecutorService esecutore = Executors.newSingleThreadExecutor();
+        PianoBilanciamento piano;
+        try {
+            piano = bilanciatore.calcolaAsync(esecutore).get();
+        } finally {
+            esecutore.shutdown();
+        }
+
+        assertEquals(390, piano.getCaricoMassimoPrima());
+        // 390 minuti non si dividono meglio di 210 + 180: bastano due spostamenti
+        assertEquals(210, piano.getCaricoMassimoDopo());
+        assertEquals(2, piano.getSpostamenti().size());
+        assertTrue(piano.getSpostamenti().stream().allMatch(s -> s.getDa() == anna && s.getA() == luca));
+
+        assertTrue(bilanciatore.applica(piano));
+        assertEquals(2, compitoCucinaService.getCompitiPerCuoco(luca).size());
+        assertEquals(piano.getCaricoDopo().get(luca).intValue(), compitoCucinaService.getTempoAssegnatoCuoco(luca, turno, null));
+        for (PianoBilanciamento.Spostamento spostamento : piano.getSpostamenti()) {
+            assertEquals(luca.getId(), nuovoArchivio().findById(spostamento.getCompito().getId()).getCuocoId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test rispetto del tempo del turno e dei compiti già iniziati")
+    public void testVincoli() {
+        Turno breve = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Turno lungo = aggiungiTurno(2, LocalTime.of(14, 0), LocalTime.of(20, 0));
+        assegna(anna, breve, 60, pranzo);
+        assegna(anna, breve, 60, pranzo);
+        assegna(anna, breve, 60, cena);
+        assegna(luca, breve, 100, cena);
+        Compito iniziato = assegna(anna, lungo, 150, cena);
+        iniziato.setStato("In corso");
+        compitoCucinaService.aggiornaCompito(iniziato);
+
+        PianoBilanciamento piano = new BilanciatoreCarichi(compitoCucinaService, GIORNO, List.of(anna, luca)).calcola();
+
+        assertTrue(piano.isVuoto());
+        assertEquals(330, piano.getCaricoDopo().get(anna));
+        assertEquals(100, piano.getCaricoDopo().get(luca));
+    }
+
+    @Test
+    @DisplayName("Test piano non applicato se i compiti sono cambiati")
+    public void testPianoSuperato() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        Compito primo = assegna(anna, turno, 120, pranzo);
+        Compito secondo = assegna(anna, turno, 120, cena);
+        BilanciatoreCarichi bilanciatore = new BilanciatoreCarichi(compitoCucinaService, GIORNO, List.of(anna, luca));
+        PianoBilanciamento piano = bilanciatore.calcola();
+        assertEquals(1, piano.getSpostamenti().size());
+
+        // Il compito da spostare viene riassegnato a mano prima dell'applicazione
+        Compito spostato = piano.getSpostamenti().get(0).getCompito();
+        spostato.setCuocoAssegnato(luca);
+        compitoCucinaService.aggiornaCompito(spostato);
+
+        assertFalse(bilanciatore.applica(piano));
+        Compito rimasto = spostato == primo ? secondo : primo;
+        assertEquals(anna.getId(), rimasto.getCuocoId());
+    }
+}
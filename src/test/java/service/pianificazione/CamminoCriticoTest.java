@@ -0,0 +1,128 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.CompitoCucinaService;
+import service.persistence.JsonRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il calcolo del cammino critico dei compiti di un turno.
+ */
+public class CamminoCriticoTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Compito compito(int id, int durata, Integer... prerequisiti) {
+        Compito compito = new Compito(id, null, null, "2030-03-01 08:00-14:00", durata, 1.0);
+        for (Integer prerequisito : prerequisiti) {
+            compito.aggiungiPrerequisito(prerequisito);
+        }
+        return compito;
+    }
+
+    private List<Compito> cucina() {
+        // Fondo (1) prima del risotto (3), impasto (2) prima del pane (4); l'insalata (5) è indipendente
+        return List.of(
+                compito(1, 120),
+                compito(2, 30),
+                compito(3, 40, 1),
+                compito(4, 60, 2),
+                compito(5, 20));
+    }
+
+    @Test
+    @DisplayName("Test inizi minimi, inizi massimi e cammino critico")
+    public void testCalcolo() {
+        CamminoCritico cammino = new CamminoCritico(cucina());
+
+        assertEquals(160, cammino.getDurataTotale());
+        assertEquals(List.of(1, 3), cammino.getPercorsoCritico());
+        assertEquals(120, cammino.getInizioMinimo(3));
+        assertEquals(30, cammino.getInizioMinimo(4));
+        assertEquals(70, cammino.getInizioMassimo(2));
+        assertEquals(70, cammino.getMargine(4));
+        assertEquals(140, cammino.getMargine(5));
+        assertTrue(cammino.isCritico(1));
+        assertEquals(List.of(1, 2, 5, 4, 3), cammino.getOrdineDiInizio());
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento incrementale della durata")
+    public void testAggiornaDurata() {
+        CamminoCritico cammino = new CamminoCritico(cucina());
+
+        cammino.aggiornaDurata(2, 130);
+        assertEquals(190, cammino.getDurataTotale());
+        assertEquals(List.of(2, 4), cammino.getPercorsoCritico());
+        assertEquals(30, cammino.getMargine(1));
+
+        // Variazioni casuali: il risultato incrementale coincide con il ricalcolo completo
+        List<Compito> compiti = new ArrayList<>(cucina());
+        compiti.add(compito(6, 15, 3, 4));
+        compiti.add(compito(7, 25, 6, 5));
+        CamminoCritico incrementale = new CamminoCritico(compiti);
+        Random casuale = new Random(7);
+        for (int passo = 0; passo < 200; passo++) {
+            Compito modificato = compiti.get(casuale.nextInt(compiti.size()));
+            modificato.setDurata(casuale.nextInt(150));
+            incrementale.aggiornaDurata(modificato.getId(), modificato.getDurata());
+
+            CamminoCritico completo = new CamminoCritico(compiti);
+            assertEquals(completo.getDurataTotale(), incrementale.getDurataTotale());
+            for (Compito compito : compiti) {
+                assertEquals(completo.getInizioMinimo(compito.getId()), incrementale.getInizioMinimo(compito.getId()));
+                assertEquals(completo.getInizioMassimo(compito.getId()), incrementale.getInizioMassimo(compito.getId()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test prerequisiti nel servizio: cicli rifiutati e calcolo aggiornato")
+    public void testPrerequisitiNelServizio() {
+        CompitoCucinaService servizio = new CompitoCucinaService(null, new JsonRepository<>(
+                tempDir.resolve("compiti.json").toString(), Compito.class, Compito::getId,
+                CompitoCucinaService.indiciCompiti()));
+        servizio.getTurni().clear();
+        Turno turno = new Turno(1, LocalDate.of(2030, 3, 1), LocalTime.of(8, 0), LocalTime.of(14, 0), "Cucina", "Preparazione");
+        servizio.getTurni().add(turno);
+        Cuoco cuoco = new Cuoco(1, "Anna", "Bianchi");
+        Compito fondo = servizio.assegnaCompito(cuoco, turno, new Ricetta(1, "Fondo"), 120, 1, null);
+        Compito risotto = servizio.assegnaCompito(cuoco, turno, new Ricetta(2, "Risotto"), 40, 1, null);
+
+        servizio.aggiungiPrerequisito(risotto, fondo);
+        assertThrows(IllegalArgumentException.class, () -> servizio.aggiungiPrerequisito(fondo, risotto));
+
+        CamminoCritico cammino = servizio.getCamminoCritico(turno);
+        assertEquals(160, cammino.getDurataTotale());
+        fondo.setDurata(100);
+        servizio.aggiornaCompito(fondo);
+        assertSame(cammino, servizio.getCamminoCritico(turno));
+        assertEquals(140, cammino.getDurataTotale());
+
+        servizio.rimuoviPrerequisito(risotto, fondo);
+        assertEquals(100, servizio.getCamminoCritico(turno).getDurataTotale());
+        assertEquals(List.of(), servizio.getCompitoById(risotto.getId()).getPrerequisiti());
+    }
+
+    @Test
+    @DisplayName("Test prerequisiti ciclici")
+    public void testCiclo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CamminoCritico(List.of(compito(1, 10, 2), compito(2, 10, 1))));
+    }
+}
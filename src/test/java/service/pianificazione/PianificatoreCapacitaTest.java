@@ -0,0 +1,131 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.CompitoCucinaService;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la pianificazione della capacità dei turni.
+ */
+public class PianificatoreCapacitaTest extends AmbientePianificazione {
+
+    private Evento evento;
+    private Menu menu;
+    private Cuoco cuoco;
+
+    @BeforeEach
+    public void setup() {
+        menu = new Menu(1);
+        menu.definisciSezioni(List.of("Antipasti", "Secondi"));
+        evento = new Evento(1, "Gala", GIORNO.atTime(18, 0), GIORNO.atTime(23, 0), "Sala", 80);
+        evento.setMenu(menu);
+        cuoco = new Cuoco(1, "Anna", "Bianchi");
+    }
+
+    private Ricetta aggiungiRicetta(int id, int minuti) {
+        Ricetta ricetta = new Ricetta(id, "Ricetta " + id);
+        ricetta.setTempoPreparazione(minuti);
+        menu.inserisciRicetta(ricetta, menu.getSezioni().get(id % 2));
+        return ricetta;
+    }
+
+    @Test
+    @DisplayName("Test first-fit decreasing e capacità residua dei turni")
+    public void testCollocazione() {
+        // Turni di 150 minuti: il cuoco può averne assegnati 120
+        Turno mattina = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 30));
+        Turno pomeriggio = aggiungiTurno(2, LocalTime.of(14, 0), LocalTime.of(16, 30));
+        Ricetta r1 = aggiungiRicetta(1, 50);
+        Ricetta r2 = aggiungiRicetta(2, 90);
+        Ricetta r3 = aggiungiRicetta(3, 60);
+        Ricetta r4 = aggiungiRicetta(4, 30);
+
+        PianificatoreCapacita pianificatore = new PianificatoreCapacita(compitoCucinaService, evento, List.of(cuoco));
+
+        // 90 + 30 al mattino, 60 + 50 al pomeriggio
+        assertEquals(mattina, pianificatore.getCollocazione(r2).getTurno());
+        assertEquals(mattina, pianificatore.getCollocazione(r4).getTurno());
+        assertEquals(pomeriggio, pianificatore.getCollocazione(r3).getTurno());
+        assertEquals(pomeriggio, pianificatore.getCollocazione(r1).getTurno());
+        Map<Turno, Integer> residua = pianificatore.getCapacitaResidua();
+        assertEquals(0, residua.get(mattina));
+        assertEquals(10, residua.get(pomeriggio));
+        assertTrue(pianificatore.getRicetteSenzaPosto().isEmpty());
+        assertEquals(0, pianificatore.getTurniAggiuntiviSuggeriti());
+    }
+
+    @Test
+    @DisplayName("Test capacità di un turno che prosegue dopo la mezzanotte")
+    public void testTurnoNotturno() {
+        Turno notte = aggiungiTurno(1, LocalTime.of(22, 0), LocalTime.of(1, 0));
+        Ricetta r1 = aggiungiRicetta(1, 120);
+
+        PianificatoreCapacita pianificatore = new PianificatoreCapacita(compitoCucinaService, evento, List.of(cuoco));
+
+        assertEquals(180, CompitoCucinaService.getMinutiTurno(notte));
+        assertEquals(144, CompitoCucinaService.getCapacitaCuoco(notte));
+        assertEquals(notte, pianificatore.getCollocazione(r1).getTurno());
+        assertEquals(24, pianificatore.getCapacitaResidua().get(notte));
+    }
+
+    @Test
+    @DisplayName("Test ricette senza posto e turni aggiuntivi suggeriti")
+    public void testTurniAggiuntivi() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 30));
+        compitoCucinaService.assegnaCompito(cuoco, turno, new Ricetta(99, "Altro"), 30,
+                10, new Evento(2, "Pranzo", GIORNO.atTime(12, 0), null, "Sala", 10));
+        aggiungiRicetta(1, 90);
+        Ricetta r2 = aggiungiRicetta(2, 80);
+        Ricetta r3 = aggiungiRicetta(3, 70);
+        Ricetta r4 = aggiungiRicetta(4, 180);
+
+        PianificatoreCapacita pianificatore = new PianificatoreCapacita(compitoCucinaService, evento, List.of(cuoco));
+
+        assertEquals(0, pianificatore.getCapacitaResidua().get(turno));
+        assertEquals(List.of(r4, r2, r3), pianificatore.getRicetteSenzaPosto());
+        assertEquals(330, pianificatore.getMinutiSenzaPosto());
+        assertEquals(List.of(r4), pianificatore.getRicetteTroppoLunghe());
+        // 80 e 70 minuti non stanno nei 120 minuti assegnabili di un turno di 150
+        assertEquals(2, pianificatore.getTurniAggiuntiviSuggeriti());
+        assertEquals(150, pianificatore.getDurataTurnoSuggerito());
+        assertEquals(120, pianificatore.getCapacitaTurnoSuggerito());
+    }
+
+    @Test
+    @DisplayName("Test aggiornamento incrementale alla creazione di un compito")
+    public void testRegistraCompito() {
+        Turno mattina = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 30));
+        Turno pomeriggio = aggiungiTurno(2, LocalTime.of(14, 0), LocalTime.of(16, 30));
+        Ricetta r1 = aggiungiRicetta(1, 60);
+        Ricetta r2 = aggiungiRicetta(2, 50);
+        Ricetta r3 = aggiungiRicetta(3, 40);
+
+        PianificatoreCapacita pianificatore = new PianificatoreCapacita(compitoCucinaService, evento, List.of(cuoco));
+        assertEquals(mattina, pianificatore.getCollocazione(r2).getTurno());
+        assertEquals(pomeriggio, pianificatore.getCollocazione(r3).getTurno());
+
+        // Un compito per la ricetta 1 più lungo del previsto occupa quasi tutta la mattina
+        Compito compito = compitoCucinaService.assegnaCompito(cuoco, mattina, r1, 100, 80, evento);
+        pianificatore.registraCompito(compito);
+
+        assertFalse(pianificatore.getRicetteDaCollocare().contains(r1));
+        assertNull(pianificatore.getCollocazione(r1));
+        assertEquals(pomeriggio, pianificatore.getCollocazione(r2).getTurno());
+        assertEquals(pomeriggio, pianificatore.getCollocazione(r3).getTurno());
+        assertEquals(20, pianificatore.getCapacitaResidua().get(mattina));
+        assertEquals(30, pianificatore.getCapacitaResidua().get(pomeriggio));
+    }
+}
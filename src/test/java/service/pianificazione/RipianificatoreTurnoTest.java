@@ -0,0 +1,125 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la ripianificazione del turno di un compito bloccato o in ritardo.
+ */
+public class RipianificatoreTurnoTest extends AmbientePianificazione {
+
+    private RipianificatoreTurno ripianificatore;
+    private List<PianoBilanciamento.Spostamento> notificati;
+    private Evento evento;
+    private Cuoco anna;
+    private Cuoco luca;
+    private Cuoco sara;
+
+    @BeforeEach
+    public void setup() {
+        ripianificatore = new RipianificatoreTurno(compitoCucinaService);
+        notificati = new ArrayList<>();
+        ripianificatore.collega(notificati::addAll);
+        evento = new Evento(1, "Gala", GIORNO.atTime(18, 0), null, "Sala", 80);
+        anna = new Cuoco(1, "Anna", "Bianchi");
+        luca = new Cuoco(2, "Luca", "Rossi");
+        sara = new Cuoco(3, "Sara", "Verdi");
+    }
+
+    private Compito assegna(Cuoco cuoco, Turno turno, int minuti) {
+        Ricetta ricetta = new Ricetta(compitoCucinaService.getCompiti().size() + 1, "Ricetta");
+        return compitoCucinaService.assegnaCompito(cuoco, turno, ricetta, minuti, 10, evento);
+    }
+
+    @Test
+    @DisplayName("Test compito bloccato: il lavoro indipendente del cuoco passa ai cuochi liberi")
+    public void testCompitoBloccato() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        Compito bloccato = assegna(anna, turno, 60);
+        Compito dipendente = assegna(anna, turno, 60);
+        Compito lungo = assegna(anna, turno, 90);
+        Compito breve = assegna(anna, turno, 30);
+        assegna(luca, turno, 200);
+        assegna(sara, turno, 60);
+        compitoCucinaService.aggiungiPrerequisito(dipendente, bloccato);
+
+        compitoCucinaService.aggiornaStato(bloccato, "Bloccato");
+
+        assertEquals(2, notificati.size());
+        assertEquals(lungo, notificati.get(0).getCompito());
+        assertEquals(breve, notificati.get(1).getCompito());
+        assertEquals(sara.getId(), lungo.getCuocoId());
+        assertEquals(sara.getId(), breve.getCuocoId());
+        assertEquals(anna.getId(), dipendente.getCuocoId());
+        assertEquals(sara.getId(), nuovoArchivio().findById(lungo.getId()).getCuocoId());
+        assertEquals(120, compitoCucinaService.getTempoAssegnatoCuoco(anna, turno, null));
+    }
+
+    @Test
+    @DisplayName("Test ritardo: si sposta solo il lavoro a valle che non entra più nel turno")
+    public void testRitardo() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Compito inCorso = assegna(anna, turno, 40);
+        compitoCucinaService.aggiornaStato(inCorso, "In corso");
+        Compito primo = assegna(anna, turno, 30);
+        Compito secondo = assegna(anna, turno, 30);
+        compitoCucinaService.aggiungiPrerequisito(secondo, primo);
+        assegna(luca, turno, 60);
+        assegna(sara, turno, 100);
+        assertTrue(notificati.isEmpty());
+
+        compitoCucinaService.segnalaRitardo(inCorso, 40);
+
+        assertEquals(1, notificati.size());
+        assertEquals(secondo, notificati.get(0).getCompito());
+        assertEquals(luca, notificati.get(0).getA());
+        assertEquals(anna.getId(), primo.getCuocoId());
+        assertEquals(110, compitoCucinaService.getTempoAssegnatoCuoco(anna, turno, null));
+    }
+
+    @Test
+    @DisplayName("Test compito bloccato in un turno che prosegue oltre la mezzanotte")
+    public void testTurnoNotturno() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(22, 0), LocalTime.of(2, 0));
+        Compito bloccato = assegna(anna, turno, 60);
+        Compito altro = assegna(anna, turno, 45);
+        assegna(luca, turno, 30);
+        assertFalse(compitoCucinaService.isTurnoPieno(turno));
+        assertEquals(List.of(anna, luca), compitoCucinaService.getCuochiDisponibili(turno));
+
+        compitoCucinaService.aggiornaStato(bloccato, "Bloccato");
+
+        assertEquals(1, notificati.size());
+        assertEquals(luca.getId(), altro.getCuocoId());
+    }
+
+    @Test
+    @DisplayName("Test nessuna ripianificazione senza eccesso o dopo lo scollegamento")
+    public void testNessunaRipianificazione() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        Compito primo = assegna(anna, turno, 60);
+        Compito secondo = assegna(anna, turno, 60);
+        assegna(luca, turno, 60);
+
+        compitoCucinaService.aggiornaStato(primo, "Completato");
+        compitoCucinaService.segnalaRitardo(secondo, 30);
+        assertTrue(notificati.isEmpty());
+
+        ripianificatore.scollega();
+        compitoCucinaService.aggiornaStato(secondo, "Bloccato");
+        assertTrue(notificati.isEmpty());
+        assertEquals(anna.getId(), secondo.getCuocoId());
+    }
+}
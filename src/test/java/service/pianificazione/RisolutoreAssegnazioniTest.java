@@ -0,0 +1,135 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.compiti.Compito;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.MenuService;
+import service.RegistroEntita;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per il risolutore automatico delle assegnazioni.
+ */
+public class RisolutoreAssegnazioniTest extends AmbientePianificazione {
+
+    private Evento evento;
+    private Menu menu;
+
+    @BeforeEach
+    public void setup() {
+        menu = new Menu(1);
+        menu.definisciSezioni(List.of("Antipasti", "Secondi"));
+        evento = new Evento(1, "Gala", GIORNO.atTime(18, 0), GIORNO.atTime(23, 0), "Sala", 80);
+        evento.setMenu(menu);
+    }
+
+    private Ricetta aggiungiRicetta(int id, int minuti) {
+        Ricetta ricetta = new Ricetta(id, "Ricetta " + id);
+        ricetta.setTempoPreparazione(minuti);
+        menu.inserisciRicetta(ricetta, menu.getSezioni().get(id % 2));
+        return ricetta;
+    }
+
+    @Test
+    @DisplayName("Test assegnazione completa con carico massimo minimo")
+    public void testAssegnazioneCompleta() {
+        aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        int[] durate = {120, 120, 90, 90, 60, 60, 30, 30};
+        for (int i = 0; i < durate.length; i++) {
+            aggiungiRicetta(i + 1, durate[i]);
+        }
+        List<Cuoco> cuochi = List.of(new Cuoco(1, "Anna", "Bianchi"),
+                new Cuoco(2, "Luca", "Rossi"), new Cuoco(3, "Sara", "Verdi"));
+
+        PianoAssegnazione piano = new RisolutoreAssegnazioni(compitoCucinaService).risolvi(evento, cuochi);
+
+        assertTrue(piano.isCompleto());
+        assertEquals(durate.length, piano.getAssegnazioni().size());
+        // 600 minuti su 3 cuochi: nessuna suddivisione scende sotto 210 minuti
+        assertEquals(210, piano.getMakespan());
+        Map<Cuoco, Integer> carico = new HashMap<>();
+        piano.getAssegnazioni().forEach(a -> carico.merge(a.getCuoco(), a.getDurata(), Integer::sum));
+        assertEquals(piano.getCaricoCuochi(), carico);
+    }
+
+    @Test
+    @DisplayName("Test rispetto del tempo libero nel turno, compresi gli altri eventi")
+    public void testCapacitaTurno() {
+        // 75 minuti di turno: il cuoco può avere al più l'80%, cioè 60 minuti
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(9, 15));
+        Cuoco cuoco = new Cuoco(1, "Anna", "Bianchi");
+        Evento altroEvento = new Evento(2, "Pranzo", GIORNO.atTime(12, 0), null, "Sala", 10);
+        compitoCucinaService.assegnaCompito(cuoco, turno, new Ricetta(99, "Altro"), 20, 10, altroEvento);
+        Ricetta lunga = aggiungiRicetta(1, 45);
+        Ricetta breve = aggiungiRicetta(2, 40);
+
+        PianoAssegnazione piano = new RisolutoreAssegnazioni(compitoCucinaService, 1)
+                .risolvi(evento, List.of(cuoco));
+
+        assertEquals(1, piano.getAssegnazioni().size());
+        assertEquals(breve, piano.getAssegnazioni().get(0).getRicetta());
+        assertEquals(List.of(lunga), piano.getNonAssegnate());
+        assertEquals(60, piano.getMakespan());
+    }
+
+    @Test
+    @DisplayName("Test applicazione del piano e ricette già assegnate")
+    public void testApplica() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(14, 0));
+        aggiungiTurno(2, GIORNO.plusDays(1), LocalTime.of(8, 0), LocalTime.of(14, 0));
+        Cuoco cuoco = new Cuoco(1, "Anna", "Bianchi");
+        Ricetta giaAssegnata = aggiungiRicetta(1, 30);
+        compitoCucinaService.assegnaCompito(cuoco, turno, giaAssegnata, 30, 80, evento);
+        aggiungiRicetta(2, 0);
+        aggiungiRicetta(3, 50);
+
+        RisolutoreAssegnazioni risolutore = new RisolutoreAssegnazioni(compitoCucinaService);
+        assertEquals(List.of(turno), risolutore.getTurniEvento(evento));
+        PianoAssegnazione piano = risolutore.risolvi(evento, List.of(cuoco));
+        assertEquals(2, piano.getAssegnazioni().size());
+        assertFalse(piano.getAssegnazioni().stream().anyMatch(a -> a.getRicetta().equals(giaAssegnata)));
+
+        List<Compito> creati = risolutore.applica(piano);
+
+        assertEquals(2, creati.size());
+        assertTrue(creati.stream().allMatch(c -> c.getQuantita() == 80 && c.getTurnoId() == 1));
+        assertTrue(creati.stream().anyMatch(c -> c.getDurata() == RisolutoreAssegnazioni.DURATA_PREDEFINITA));
+        assertTrue(risolutore.getRicetteDaAssegnare(evento).isEmpty());
+        assertEquals(3, compitoCucinaService.getCompitiPerEvento(evento).size());
+    }
+
+    @Test
+    @DisplayName("Test ricette di un evento collegato al menu solo tramite menuId")
+    public void testMenuRisoltoDaMenuId() throws Exception {
+        Path fileMenu = tempDir.resolve("menu.json");
+        Files.writeString(fileMenu, "[]");
+        MenuService menuService = new MenuService(fileMenu.toString());
+        Menu salvato = menuService.creaNuovoMenu();
+        salvato.definisciSezioni(List.of("Primi"));
+        Ricetta risotto = new Ricetta(1, "Risotto");
+        salvato.inserisciRicetta(risotto, salvato.getSezioni().get(0));
+
+        Evento caricato = new Evento(2, "Cena", GIORNO.atTime(20, 0), null, "Sala", 30);
+        caricato.setMenuId(salvato.getId());
+        RisolutoreAssegnazioni risolutore = new RisolutoreAssegnazioni(compitoCucinaService, 1);
+        assertTrue(risolutore.getRicetteDaAssegnare(caricato).isEmpty());
+
+        compitoCucinaService.risolviRiferimentiCompiti(new RegistroEntita(null, null, null, compitoCucinaService, menuService));
+        assertEquals(List.of(risotto), risolutore.getRicetteDaAssegnare(caricato));
+        assertSame(salvato, caricato.getMenu());
+    }
+}
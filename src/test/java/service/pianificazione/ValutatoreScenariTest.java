@@ -0,0 +1,145 @@
+package service.pianificazione;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import domain.compiti.Turno;
+import domain.eventi.Evento;
+import domain.menu.Menu;
+import domain.ricette.Ricetta;
+import domain.utenti.Cuoco;
+import service.CompitoCucinaService;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per la valutazione degli scenari di pianificazione.
+ */
+public class ValutatoreScenariTest extends AmbientePianificazione {
+
+    private StatoAssegnazioni statoDiProva() {
+        // Due cuochi, un turno di 125 minuti (100 assegnabili a ciascun cuoco): il cuoco 1 ha 90 minuti,
+        // il cuoco 2 è libero, e restano da assegnare due ricette da 60 minuti
+        return StatoAssegnazioni.di(
+                List.of(new StatoAssegnazioni.FasciaTurno(1, GIORNO, LocalTime.of(8, 0), LocalTime.of(10, 5))),
+                List.of(1, 2),
+                List.of(new StatoAssegnazioni.Voce(10, 1, 1, 90),
+                        new StatoAssegnazioni.Voce(11, null, null, 60),
+                        new StatoAssegnazioni.Voce(12, null, null, 60)));
+    }
+
+    @Test
+    @DisplayName("Test metriche dello stato corrente")
+    public void testStatoCorrente() {
+        ValutazioneScenario valutazione = new ValutatoreScenari().valuta("corrente", statoDiProva());
+
+        assertEquals(90, valutazione.getCaricoMassimo());
+        assertEquals(60, valutazione.getMinutiNonAssegnati());
+        assertEquals(1, valutazione.getTurniPieni());
+        assertEquals(Integer.valueOf(60), valutazione.getCaricoPerCuoco().get(2));
+    }
+
+    @Test
+    @DisplayName("Test scenari alternativi valutati in parallelo")
+    public void testScenari() {
+        StatoAssegnazioni base = statoDiProva();
+        List<Scenario> scenari = List.of(
+                new Scenario("cuoco in più").aggiungiCuoco(3),
+                new Scenario("turno allungato").spostaTurno(1, GIORNO, LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                new Scenario("senza ricetta 12").rimuoviRicetta(12),
+                new Scenario("senza cuoco 1").rimuoviCuoco(1));
+
+        List<ValutazioneScenario> valutazioni = new ValutatoreScenari(new ForkJoinPool(2)).valuta(base, scenari);
+
+        assertEquals(List.of("cuoco in più", "turno allungato", "senza ricetta 12", "senza cuoco 1"),
+                valutazioni.stream().map(ValutazioneScenario::getNome).collect(java.util.stream.Collectors.toList()));
+        assertEquals(0, valutazioni.get(0).getMinutiNonAssegnati());
+        assertEquals(0, valutazioni.get(1).getMinutiNonAssegnati());
+        assertEquals(120, valutazioni.get(1).getCaricoMassimo());
+        assertEquals(1, valutazioni.get(1).getTurniPieni());
+        assertEquals(0, valutazioni.get(2).getMinutiNonAssegnati());
+        assertEquals(90, valutazioni.get(3).getCaricoMassimo());
+        assertEquals(120, valutazioni.get(3).getMinutiNonAssegnati());
+        // Lo stato di partenza non cambia
+        assertEquals(3, base.getVoci().size());
+        assertEquals(Integer.valueOf(1), base.getVoci().get(0).getCuocoId());
+    }
+
+    @Test
+    @DisplayName("Test copia dello stato del servizio senza modificarlo")
+    public void testCopiaDalServizio() {
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Turno settimanaPrima = aggiungiTurno(2, GIORNO.minusDays(7), LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Cuoco cuoco = new Cuoco(1, "Anna", "Bianchi");
+        Evento evento = new Evento(1, "Gala", GIORNO.atStartOfDay(), null, "Sala", 50);
+        compitoCucinaService.assegnaCompito(cuoco, turno, new Ricetta(5, "Brodo"), 100, 50, evento);
+        compitoCucinaService.assegnaCompito(new Cuoco(3, "Sara", "Verdi"), settimanaPrima, new Ricetta(6, "Arrosto"),
+                90, 50, new Evento(2, "Pranzo", GIORNO.minusDays(7).atTime(12, 0), null, "Sala", 20));
+
+        StatoAssegnazioni stato = StatoAssegnazioni.di(compitoCucinaService, List.of(new Cuoco(2, "Luca", "Rossi")),
+                GIORNO, GIORNO);
+        List<ValutazioneScenario> valutazioni = new ValutatoreScenari().valuta(stato,
+                List.of(new Scenario("turno corto").spostaTurno(1, GIORNO, LocalTime.of(8, 0), LocalTime.of(9, 0))));
+
+        // Il turno e il compito dell'altra settimana non fanno parte dello stato
+        assertEquals(java.util.Set.of(1), stato.getTurni().keySet());
+        assertEquals(java.util.Set.of(1, 2), stato.getCuochi());
+        assertEquals(1, stato.getVoci().size());
+        assertEquals(100, valutazioni.get(0).getMinutiNonAssegnati());
+        assertEquals(LocalTime.of(10, 0), turno.getOraFine());
+        assertEquals(2, compitoCucinaService.getCompiti().size());
+        assertTrue(compitoCucinaService.isTurnoPieno(turno));
+    }
+
+    @Test
+    @DisplayName("Test capacità dei turni oltre la mezzanotte e soglia di turno pieno")
+    public void testTurnoNotturno() {
+        StatoAssegnazioni.FasciaTurno notte = new StatoAssegnazioni.FasciaTurno(1, GIORNO, LocalTime.of(22, 0), LocalTime.of(2, 0));
+        assertEquals(240, notte.getMinuti());
+        assertEquals(192, notte.getCapacitaCuoco());
+
+        StatoAssegnazioni stato = StatoAssegnazioni.di(List.of(notte), List.of(1),
+                List.of(new StatoAssegnazioni.Voce(10, null, null, 150),
+                        new StatoAssegnazioni.Voce(11, null, null, 50)));
+        ValutazioneScenario valutazione = new ValutatoreScenari().valuta("notte", stato);
+
+        // 200 minuti superano i 192 assegnabili: la ricetta più breve resta fuori
+        assertEquals(150, valutazione.getCaricoMassimo());
+        assertEquals(50, valutazione.getMinutiNonAssegnati());
+    }
+
+    @Test
+    @DisplayName("Test ricette dell'evento assegnate solo ai cuochi presenti")
+    public void testDisponibilitaCuochi() {
+        Cuoco anna = new Cuoco(1, "Anna", "Bianchi");
+        Cuoco luca = new Cuoco(2, "Luca", "Rossi");
+        compitoCucinaService = new CompitoCucinaService(null, nuovoArchivio()) {
+            @Override
+            public boolean isCuocoDisponibile(Cuoco cuoco, Turno turno) {
+                return cuoco.getId() != luca.getId();
+            }
+        };
+        compitoCucinaService.getTurni().clear();
+        Turno turno = aggiungiTurno(1, LocalTime.of(8, 0), LocalTime.of(10, 30));
+        Menu menu = new Menu(1);
+        menu.definisciSezioni(List.of("Primi"));
+        for (int id = 1; id <= 2; id++) {
+            Ricetta ricetta = new Ricetta(id, "Ricetta " + id);
+            ricetta.setTempoPreparazione(id == 1 ? 60 : 50);
+            menu.inserisciRicetta(ricetta, menu.getSezioni().get(0));
+        }
+        Evento evento = new Evento(1, "Gala", GIORNO.atTime(18, 0), null, "Sala", 50);
+        evento.setMenu(menu);
+
+        StatoAssegnazioni stato = StatoAssegnazioni.di(compitoCucinaService, List.of(anna, luca), evento);
+        ValutazioneScenario valutazione = new ValutatoreScenari().valuta("corrente", stato);
+
+        assertFalse(stato.isPresente(luca.getId(), stato.getTurni().get(turno.getId())));
+        assertEquals(0, valutazione.getMinutiNonAssegnati());
+        assertEquals(Integer.valueOf(110), valutazione.getCaricoPerCuoco().get(anna.getId()));
+        assertEquals(Integer.valueOf(0), valutazione.getCaricoPerCuoco().get(luca.getId()));
+    }
+}